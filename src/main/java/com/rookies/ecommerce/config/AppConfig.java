@@ -1,6 +1,8 @@
 package com.rookies.ecommerce.config;
 
+import com.rookies.ecommerce.entity.User;
 import com.rookies.ecommerce.repository.UserRepository;
+import com.rookies.ecommerce.service.password.CalibratedPasswordEncoder;
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Contact;
@@ -10,6 +12,8 @@ import io.swagger.v3.oas.models.security.SecurityScheme;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.web.config.EnableSpringDataWebSupport;
@@ -17,11 +21,13 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+
 import static org.springframework.data.web.config.EnableSpringDataWebSupport.PageSerializationMode.VIA_DTO;
 
 @Configuration
@@ -32,9 +38,22 @@ public class AppConfig {
 
     UserRepository userRepository;
 
+    @Value("${security.password-hashing.bcrypt.min-strength}")
+    @NonFinal
+    int bcryptMinStrength;
+
+    @Value("${security.password-hashing.bcrypt.max-strength}")
+    @NonFinal
+    int bcryptMaxStrength;
+
+    @Value("${security.password-hashing.bcrypt.target-ms}")
+    @NonFinal
+    long bcryptTargetMillis;
+
     @Bean
     PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(10);
+        return CalibratedPasswordEncoder.calibrate(bcryptMinStrength, bcryptMaxStrength,
+                Duration.ofMillis(bcryptTargetMillis));
     }
 
     @Bean
@@ -43,6 +62,15 @@ public class AppConfig {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
 
+    @Bean
+    UserDetailsPasswordService userDetailsPasswordService() {
+        return (userDetails, newPassword) -> {
+            User user = (User) userDetails;
+            user.setPassword(newPassword);
+            return userRepository.save(user);
+        };
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
@@ -54,6 +82,7 @@ public class AppConfig {
 
         authProvider.setUserDetailsService(userDetailsService());
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService());
 
         return authProvider;
     }
@@ -4,6 +4,9 @@ import com.rookies.ecommerce.exception.AppException;
 import com.rookies.ecommerce.exception.ErrorCode;
 import com.rookies.ecommerce.service.invalidatedtoken.InvalidatedTokenService;
 import com.rookies.ecommerce.service.jwt.JWTService;
+import com.rookies.ecommerce.service.jwt.JwtUserPrincipal;
+import com.rookies.ecommerce.service.user.UserStatusVersionCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,23 +15,40 @@ import lombok.AccessLevel;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.stereotype.Component;
+import org.springframework.util.function.SingletonSupplier;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.Supplier;
 
 @Component
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final RequestMatcher PUBLIC_GET_MATCHER = new AndRequestMatcher(
+            getMatcher(SecurityConfig.PUBLIC_GET_ENDPOINTS),
+            new NegatedRequestMatcher(getMatcher(SecurityConfig.ADMIN_GET_ENDPOINTS)));
+
     HandlerExceptionResolver handlerExceptionResolver;
 
     JWTService jwtService;
@@ -37,6 +57,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     InvalidatedTokenService invalidatedTokenService;
 
+    UserStatusVersionCache userStatusVersionCache;
+
+    @Value("${security.jwt.claims-principal.enabled}")
+    @NonFinal
+    boolean claimsPrincipalEnabled;
+
+    @Value("${security.jwt.public-route-fast-path.enabled}")
+    @NonFinal
+    boolean publicRouteFastPathEnabled;
+
     protected void doFilterInternal(
             @NonNull HttpServletRequest request,
             @NonNull HttpServletResponse response,
@@ -49,35 +79,93 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
+        final String jwt = authHeader.substring(7);
+
+        if (publicRouteFastPathEnabled && PUBLIC_GET_MATCHER.matches(request)) {
+            deferAuthentication(request, jwt);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         try {
-            final String jwt = authHeader.substring(7);
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                Authentication authentication = authenticate(request, jwt);
+                if (authentication != null) {
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
+            }
+
+            filterChain.doFilter(request, response);
+        } catch (Exception exception) {
+            handlerExceptionResolver.resolveException(request, response, null, exception);
+        }
+    }
 
-            if (invalidatedTokenService.isTokenInvalidated(jwt)) {
-                throw new AppException(ErrorCode.INVALID_TOKEN);
+    /**
+     * Public GET routes do not need a principal to be authorized, so the token is only resolved
+     * if something actually reads the security context. A token that cannot be resolved leaves
+     * the request anonymous instead of failing it.
+     */
+    private void deferAuthentication(HttpServletRequest request, String jwt) {
+        SecurityContextHolderStrategy strategy = SecurityContextHolder.getContextHolderStrategy();
+        Supplier<SecurityContext> previous = strategy.getDeferredContext();
+
+        strategy.setDeferredContext(SingletonSupplier.of(() -> {
+            SecurityContext context = previous.get();
+            if (context.getAuthentication() == null) {
+                try {
+                    Authentication authentication = authenticate(request, jwt);
+                    if (authentication != null) {
+                        context.setAuthentication(authentication);
+                    }
+                } catch (Exception exception) {
+                    logger.debug("Ignoring unresolvable token on public route", exception);
+                }
             }
+            return context;
+        }));
+    }
 
-            final String userEmail = jwtService.extractUsername(jwt);
+    private Authentication authenticate(HttpServletRequest request, String jwt) {
+        if (invalidatedTokenService.isTokenInvalidated(jwt)) {
+            throw new AppException(ErrorCode.INVALID_TOKEN);
+        }
 
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        final Claims claims = jwtService.verifyToken(jwt);
+        request.setAttribute(JWTService.VERIFIED_CLAIMS_ATTRIBUTE, claims);
 
-            if (userEmail != null && authentication == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+        final String userEmail = claims.getSubject();
+        if (userEmail == null) {
+            return null;
+        }
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
+        UserDetails userDetails = loadPrincipal(claims, userEmail);
+        if (userDetails == null || !jwtService.isTokenValid(claims, userDetails)) {
+            return null;
+        }
 
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
-            }
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities()
+        );
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        return authToken;
+    }
 
-            filterChain.doFilter(request, response);
-        } catch (Exception exception) {
-            handlerExceptionResolver.resolveException(request, response, null, exception);
+    private static RequestMatcher getMatcher(String[] patterns) {
+        return new OrRequestMatcher(Arrays.stream(patterns)
+                .map(pattern -> (RequestMatcher) AntPathRequestMatcher.antMatcher(HttpMethod.GET, pattern))
+                .toList());
+    }
+
+    private UserDetails loadPrincipal(Claims claims, String userEmail) {
+        if (claimsPrincipalEnabled && claims.containsKey(JWTService.USER_ID_CLAIM)) {
+            JwtUserPrincipal principal = JwtUserPrincipal.fromClaims(claims);
+            return userStatusVersionCache.isCurrent(principal.getId(), principal.getStatusVersion())
+                    ? principal
+                    : null;
         }
+        return this.userDetailsService.loadUserByUsername(userEmail);
     }
 }
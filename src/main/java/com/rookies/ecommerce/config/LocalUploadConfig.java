@@ -0,0 +1,29 @@
+package com.rookies.ecommerce.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.nio.file.Path;
+
+/**
+ * Serves the files stored by {@link com.rookies.ecommerce.service.upload.LocalUploadService} under
+ * {@code /uploads/**}, which {@code upload.local.base-url} points to.
+ */
+@Configuration
+@ConditionalOnProperty(name = "upload.storage", havingValue = "local")
+public class LocalUploadConfig implements WebMvcConfigurer {
+
+    @Value("${upload.local.root-dir}")
+    private Path rootDir;
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        String location = rootDir.toAbsolutePath().normalize().toUri().toString();
+        registry.addResourceHandler("/uploads/**")
+                .addResourceLocations(location.endsWith("/") ? location : location + "/");
+    }
+
+}
@@ -33,21 +33,37 @@ public class SecurityConfig {
 
     CustomAuthenticationEntryPoint authenticationEntryPoint;
 
-    final String[] PUBLIC_GET_ENDPOINTS = {
+    public static final String[] PUBLIC_GET_ENDPOINTS = {
             "/products",
             "/products/{id}",
             "/products/feature/{id}",
             "/products/feature/active",
             "/products/category/{categoryId}",
+            "/products/scroll",
+            "/products/category/{categoryId}/scroll",
             "/categories",
             "/categories/{id}",
             "/categories/slug/{slug}",
             "/reviews/product/{id}/statistic",
             "/reviews/product/{id}",
-            "/products/search"
+            "/products/search",
+            "/products/filter",
+            "/products/suggest",
+            "/uploads/**"
     };
 
-    final  String[] PUBLIC_POST_ENDPOINTS = {
+    /**
+     * Admin-only GET paths that a {@link #PUBLIC_GET_ENDPOINTS} pattern also matches, such as
+     * {@code /products/hidden} against {@code /products/{id}}. They are matched first so they
+     * are never treated as public.
+     */
+    public static final String[] ADMIN_GET_ENDPOINTS = {
+            "/products/hidden",
+            "/products/feature",
+            "/categories/deleted"
+    };
+
+    public static final String[] PUBLIC_POST_ENDPOINTS = {
             "/auth/register",
             "/auth/login"
     };
@@ -58,6 +74,7 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> corsConfigurationSource())
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers(HttpMethod.GET, ADMIN_GET_ENDPOINTS).authenticated()
                         .requestMatchers(HttpMethod.GET, PUBLIC_GET_ENDPOINTS).permitAll()
                         .requestMatchers(HttpMethod.POST, PUBLIC_POST_ENDPOINTS).permitAll()
                         .requestMatchers("/swagger-ui/**").permitAll()
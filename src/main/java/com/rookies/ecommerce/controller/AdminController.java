@@ -2,14 +2,25 @@ package com.rookies.ecommerce.controller;
 
 import com.rookies.ecommerce.constant.MessageResponse;
 import com.rookies.ecommerce.dto.response.APIResponse;
+import com.rookies.ecommerce.dto.response.SliceResponse;
+import com.rookies.ecommerce.exception.AppException;
+import com.rookies.ecommerce.exception.ErrorCode;
+import com.rookies.ecommerce.service.exporter.ExportFormat;
+import com.rookies.ecommerce.service.exporter.ExportResource;
+import com.rookies.ecommerce.service.exporter.ExportService;
 import com.rookies.ecommerce.service.user.AdminService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Locale;
 
 /**
  * Controller for handling admin-related user management activities.
@@ -23,6 +34,8 @@ public class AdminController {
 
     AdminService adminService;
 
+    ExportService exportService;
+
     /**
      * Retrieves a paginated list of all active users.
      *
@@ -30,6 +43,7 @@ public class AdminController {
      * @param size the number of users per page (default is 10)
      * @param sortBy the field to sort the users by (default is "createdAt")
      * @param sortDir the direction of sorting (asc for ascending, desc for descending; default is "asc")
+     * @param withTotal whether to compute the total count (default is true); false returns a slice without totals
      * @return a {@link ResponseEntity} containing an {@link APIResponse} with the list of active users
      */
     @PreAuthorize("hasRole('ADMIN')")
@@ -37,9 +51,10 @@ public class AdminController {
     public ResponseEntity<APIResponse> getAllActiveUsers(@RequestParam(defaultValue = "0") int page,
                                                          @RequestParam(defaultValue = "10") int size,
                                                          @RequestParam(defaultValue = "createdAt") String sortBy,
-                                                         @RequestParam(defaultValue = "asc") String sortDir) {
+                                                         @RequestParam(defaultValue = "asc") String sortDir,
+                                                         @RequestParam(defaultValue = "true") boolean withTotal) {
         return ResponseEntity.ok(new APIResponse(MessageResponse.RESOURCE_FOUND,
-                adminService.getAllUsersByStatus(true, page, size, sortBy, sortDir)));
+                SliceResponse.of(adminService.getAllUsersByStatus(true, page, size, sortBy, sortDir, withTotal))));
     }
 
     /**
@@ -49,6 +64,7 @@ public class AdminController {
      * @param size the number of users per page (default is 10)
      * @param sortBy the field to sort the users by (default is "createdAt")
      * @param sortDir the direction of sorting (asc for ascending, desc for descending; default is "asc")
+     * @param withTotal whether to compute the total count (default is true); false returns a slice without totals
      * @return a {@link ResponseEntity} containing an {@link APIResponse} with the list of inactive users
      */
     @PreAuthorize("hasRole('ADMIN')")
@@ -56,9 +72,10 @@ public class AdminController {
     public ResponseEntity<APIResponse> getAllInactiveUsers(@RequestParam(defaultValue = "0") int page,
                                                            @RequestParam(defaultValue = "10") int size,
                                                            @RequestParam(defaultValue = "createdAt") String sortBy,
-                                                           @RequestParam(defaultValue = "asc") String sortDir) {
+                                                           @RequestParam(defaultValue = "asc") String sortDir,
+                                                           @RequestParam(defaultValue = "true") boolean withTotal) {
         return ResponseEntity.ok(new APIResponse(MessageResponse.RESOURCE_FOUND,
-                adminService.getAllUsersByStatus(false, page, size, sortBy, sortDir)));
+                SliceResponse.of(adminService.getAllUsersByStatus(false, page, size, sortBy, sortDir, withTotal))));
     }
 
     /**
@@ -74,4 +91,35 @@ public class AdminController {
         return ResponseEntity.ok(new APIResponse(MessageResponse.UPDATED_SUCCESSFULLY, null));
     }
 
+    /**
+     * Streams every record of a data set as a file download. The response is written while the
+     * records are read, so it starts immediately and its size is not limited by memory.
+     *
+     * @param resource the data set to export: products, reviews or users
+     * @param format the format of the file: ndjson (default) or csv
+     * @return a {@link ResponseEntity} streaming the exported records
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/export/{resource}")
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable String resource,
+                                                        @RequestParam(defaultValue = "ndjson") String format) {
+        ExportResource exportResource = parse(ExportResource.class, resource, ErrorCode.RESOURCE_NOT_FOUND);
+        ExportFormat exportFormat = parse(ExportFormat.class, format, ErrorCode.UNSUPPORTED_FORMAT);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(exportResource.name().toLowerCase(Locale.ROOT) + "." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(output -> exportService.export(exportResource, exportFormat, output));
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value, ErrorCode errorCode) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new AppException(errorCode);
+        }
+    }
+
 }
\ No newline at end of file
@@ -4,7 +4,10 @@ import com.rookies.ecommerce.constant.MessageResponse;
 import com.rookies.ecommerce.dto.request.CreateUserRequest;
 import com.rookies.ecommerce.dto.request.LoginRequest;
 import com.rookies.ecommerce.dto.response.APIResponse;
+import com.rookies.ecommerce.exception.AppException;
+import com.rookies.ecommerce.exception.ErrorCode;
 import com.rookies.ecommerce.service.authentication.AuthenticationService;
+import com.rookies.ecommerce.service.authentication.LoginThrottle;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -30,6 +33,8 @@ public class AuthenticationController {
 
     AuthenticationService authenticationService;
 
+    LoginThrottle loginThrottle;
+
     /**
      * Registers a new user.
      *
@@ -45,14 +50,26 @@ public class AuthenticationController {
 
     /**
      * Authenticates a user and generates a login token.
+     * Attempts are throttled per client IP before any credentials are checked, and failed attempts
+     * per email and client IP. The client IP is taken from forwarded headers set by trusted proxies.
      *
      * @param request the request object containing login credentials
+     * @param httpRequest the HTTP request, used to identify the client IP
      * @return a {@link ResponseEntity} containing an {@link APIResponse} with the login token
      */
     @PostMapping("/login")
-    public ResponseEntity<APIResponse> login(@RequestBody @Valid LoginRequest request) {
-        return ResponseEntity.ok(new APIResponse(MessageResponse.SUCCESS_REQUEST,
-                authenticationService.login(request)));
+    public ResponseEntity<APIResponse> login(@RequestBody @Valid LoginRequest request, HttpServletRequest httpRequest) {
+        String clientIp = httpRequest.getRemoteAddr();
+        loginThrottle.acquire(request.getEmail(), clientIp);
+        try {
+            return ResponseEntity.ok(new APIResponse(MessageResponse.SUCCESS_REQUEST,
+                    authenticationService.login(request)));
+        } catch (AppException ex) {
+            if (ex.getErrorCode() == ErrorCode.LOGIN_FAILED) {
+                loginThrottle.recordFailure(request.getEmail(), clientIp);
+            }
+            throw ex;
+        }
     }
 
     /**
@@ -4,6 +4,7 @@ import com.rookies.ecommerce.constant.MessageResponse;
 import com.rookies.ecommerce.dto.request.CreateUpdateCartItemRequest;
 import com.rookies.ecommerce.dto.request.RemoveCartItemRequest;
 import com.rookies.ecommerce.dto.response.APIResponse;
+import com.rookies.ecommerce.dto.response.SliceResponse;
 import com.rookies.ecommerce.service.cart.CartService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -47,6 +48,7 @@ public class CartController {
      * @param size the number of items per page (default is 10)
      * @param sortBy the field to sort the items by (default is "createdAt")
      * @param sortDir the direction of sorting (asc for ascending, desc for descending; default is "asc")
+     * @param withTotal whether to compute the total count (default is true); false returns a slice without totals
      * @return a {@link ResponseEntity} containing an {@link APIResponse} with the cart details
      */
     @GetMapping()
@@ -54,9 +56,10 @@ public class CartController {
     public ResponseEntity<APIResponse> getCartDetail(@RequestParam(defaultValue = "0") int page,
                                                      @RequestParam(defaultValue = "10") int size,
                                                      @RequestParam(defaultValue = "createdAt") String sortBy,
-                                                     @RequestParam(defaultValue = "asc") String sortDir) {
+                                                     @RequestParam(defaultValue = "asc") String sortDir,
+                                                     @RequestParam(defaultValue = "true") boolean withTotal) {
         return ResponseEntity.ok(new APIResponse(MessageResponse.RESOURCE_FOUND,
-                cartService.getCartDetail(page, size, sortBy, sortDir)));
+                SliceResponse.of(cartService.getCartDetail(page, size, sortBy, sortDir, withTotal))));
     }
 
     /**
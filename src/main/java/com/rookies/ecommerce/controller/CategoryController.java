@@ -3,16 +3,24 @@ package com.rookies.ecommerce.controller;
 import com.rookies.ecommerce.dto.request.CreateUpdateCategoryRequest;
 import com.rookies.ecommerce.dto.response.APIResponse;
 import com.rookies.ecommerce.constant.MessageResponse;
+import com.rookies.ecommerce.service.catalog.CatalogResponseCache;
+import com.rookies.ecommerce.service.catalog.CatalogSection;
 import com.rookies.ecommerce.service.category.CategoryService;
+import com.rookies.ecommerce.utils.ETagUtil;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+import java.util.Set;
 
 /**
  * Controller for managing and retrieving category information.
@@ -26,15 +34,28 @@ public class CategoryController {
 
     CategoryService categoryService;
 
+    CatalogResponseCache catalogResponseCache;
+
     /**
-     * Retrieves a list of all active categories.
+     * Retrieves a list of all active categories, served from the {@link CatalogResponseCache}.
+     * Responds with 304 Not Modified when the request's {@code If-None-Match} matches the tag of the
+     * cached body.
      *
-     * @return a {@link ResponseEntity} containing an {@link APIResponse} with the list of active categories
+     * @param request the current request, used to evaluate conditional headers
+     * @param acceptEncoding the encodings accepted by the client
+     * @return a {@link ResponseEntity} containing the serialized {@link APIResponse} with the list of active categories
      */
     @GetMapping()
-    public ResponseEntity<APIResponse> getActiveCategories() {
-        return ResponseEntity.ok(new APIResponse(MessageResponse.RESOURCE_FOUND,
-                categoryService.getActiveCategories()));
+    public ResponseEntity<byte[]> getActiveCategories(WebRequest request,
+                                                      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                                      String acceptEncoding) {
+        CatalogResponseCache.Body body = catalogResponseCache.get("categories", List.of(),
+                Set.of(CatalogSection.CATEGORIES), () ->
+                new APIResponse(MessageResponse.RESOURCE_FOUND, categoryService.getActiveCategories()));
+        if (request.checkNotModified(body.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(ETagUtil.REVALIDATE).build();
+        }
+        return body.toResponse(ResponseEntity.ok().cacheControl(ETagUtil.REVALIDATE), acceptEncoding);
     }
 
     /**
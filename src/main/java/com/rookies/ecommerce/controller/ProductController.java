@@ -2,26 +2,41 @@ package com.rookies.ecommerce.controller;
 
 import com.rookies.ecommerce.dto.request.CreateFeaturedProduct;
 import com.rookies.ecommerce.dto.request.CreateUpdateProductRequest;
+import com.rookies.ecommerce.dto.request.ProductFilterRequest;
 import com.rookies.ecommerce.dto.request.UpdateFeaturedProduct;
 import com.rookies.ecommerce.dto.response.APIResponse;
+import com.rookies.ecommerce.dto.response.SliceResponse;
 import com.rookies.ecommerce.constant.MessageResponse;
 import com.rookies.ecommerce.exception.AppException;
 import com.rookies.ecommerce.exception.ErrorCode;
+import com.rookies.ecommerce.service.catalog.CatalogResponseCache;
+import com.rookies.ecommerce.service.catalog.CatalogSection;
+import com.rookies.ecommerce.service.importer.ProductImportFormat;
+import com.rookies.ecommerce.service.importer.ProductImportService;
 import com.rookies.ecommerce.service.product.ProductService;
+import com.rookies.ecommerce.service.product.VersionedProductDetail;
+import com.rookies.ecommerce.utils.ETagUtil;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -36,6 +51,10 @@ public class ProductController {
 
     ProductService productService;
 
+    CatalogResponseCache catalogResponseCache;
+
+    ProductImportService productImportService;
+
     /**
      * Retrieves a paginated list of active products.
      *
@@ -43,15 +62,37 @@ public class ProductController {
      * @param size the number of products per page (default is 10)
      * @param sortBy the field to sort the products by (default is "name")
      * @param sortDir the direction of sorting (asc for ascending, desc for descending; default is "asc")
+     * @param withTotal whether to compute the total count (default is true); false returns a slice without totals
      * @return a {@link ResponseEntity} containing an {@link APIResponse} with the list of active products
      */
     @GetMapping()
     public ResponseEntity<APIResponse> getActiveProducts(@RequestParam(defaultValue = "0") int page,
                                                          @RequestParam(defaultValue = "10") int size,
                                                          @RequestParam(defaultValue = "name") String sortBy,
-                                                         @RequestParam(defaultValue = "asc") String sortDir) {
+                                                         @RequestParam(defaultValue = "asc") String sortDir,
+                                                         @RequestParam(defaultValue = "true") boolean withTotal) {
+        return ResponseEntity.ok(new APIResponse(MessageResponse.RESOURCE_FOUND,
+                SliceResponse.of(productService.getProductsByIsDeleted(false, page, size, sortBy, sortDir, withTotal))));
+    }
+
+    /**
+     * Retrieves active products with cursor-based pagination, for infinite scrolling.
+     * Unlike the paged listing, the cost of a request does not grow with the depth of the page
+     * and no total count is computed.
+     *
+     * @param cursor the {@code nextCursor} or {@code prevCursor} of a previous response; omit for the first page
+     * @param size the number of products to return (default is 10)
+     * @param sortBy the field to sort the products by (default is "name")
+     * @param sortDir the direction of sorting (asc for ascending, desc for descending; default is "asc")
+     * @return a {@link ResponseEntity} containing an {@link APIResponse} with the products and the adjacent cursors
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<APIResponse> scrollActiveProducts(@RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "10") int size,
+                                                            @RequestParam(defaultValue = "name") String sortBy,
+                                                            @RequestParam(defaultValue = "asc") String sortDir) {
         return ResponseEntity.ok(new APIResponse(MessageResponse.RESOURCE_FOUND,
-                productService.getProductsByIsDeleted(false, page, size, sortBy, sortDir)));
+                productService.scrollActiveProducts(null, cursor, size, sortBy, sortDir)));
     }
 
     /**
@@ -61,6 +102,7 @@ public class ProductController {
      * @param size the number of products per page (default is 10)
      * @param sortBy the field to sort the products by (default is "name")
      * @param sortDir the direction of sorting (asc for ascending, desc for descending; default is "asc")
+     * @param withTotal whether to compute the total count (default is true); false returns a slice without totals
      * @return a {@link ResponseEntity} containing an {@link APIResponse} with the list of hidden products
      */
     @PreAuthorize("hasRole('ADMIN')")
@@ -68,21 +110,24 @@ public class ProductController {
     public ResponseEntity<APIResponse> getHiddenProducts(@RequestParam(defaultValue = "0") int page,
                                                          @RequestParam(defaultValue = "10") int size,
                                                          @RequestParam(defaultValue = "name") String sortBy,
-                                                         @RequestParam(defaultValue = "asc") String sortDir) {
+                                                         @RequestParam(defaultValue = "asc") String sortDir,
+                                                         @RequestParam(defaultValue = "true") boolean withTotal) {
         return ResponseEntity.ok(new APIResponse(MessageResponse.RESOURCE_FOUND,
-                productService.getProductsByIsDeleted(true, page, size, sortBy, sortDir)));
+                SliceResponse.of(productService.getProductsByIsDeleted(true, page, size, sortBy, sortDir, withTotal))));
     }
 
     /**
-     * Retrieves a product by its unique identifier.
+     * Retrieves a product by its unique identifier. Responds with 304 Not Modified when the request's
+     * {@code If-None-Match} or {@code If-Modified-Since} matches the version of the details served,
+     * which come from the detail cache when possible.
      *
      * @param id the unique identifier of the product
+     * @param request the current request, used to evaluate conditional headers
      * @return a {@link ResponseEntity} containing an {@link APIResponse} with the product details
      */
     @GetMapping("/{id}")
-    public ResponseEntity<APIResponse> getProductById(@PathVariable String id) {
-        return ResponseEntity.ok(new APIResponse(MessageResponse.RESOURCE_FOUND,
-                productService.getProductById(id)));
+    public ResponseEntity<APIResponse> getProductById(@PathVariable String id, WebRequest request) {
+        return conditionalDetail(productService.getVersionedProductById(id), request);
     }
 
     /**
@@ -99,15 +144,26 @@ public class ProductController {
     }
 
     /**
-     * Retrieves a product by its slug.
+     * Retrieves a product by its slug. Responds with 304 Not Modified when the request's conditional
+     * headers match the version of the details served.
      *
      * @param slug the slug of the product
+     * @param request the current request, used to evaluate conditional headers
      * @return a {@link ResponseEntity} containing an {@link APIResponse} with the product details
      */
     @GetMapping("/slug/{slug}")
-    public ResponseEntity<APIResponse> getProductBySlug(@PathVariable String slug) {
-        return ResponseEntity.ok(new APIResponse(MessageResponse.RESOURCE_FOUND,
-                productService.getProductBySlug(slug)));
+    public ResponseEntity<APIResponse> getProductBySlug(@PathVariable String slug, WebRequest request) {
+        return conditionalDetail(productService.getVersionedProductBySlug(slug), request);
+    }
+
+    private static ResponseEntity<APIResponse> conditionalDetail(VersionedProductDetail product, WebRequest request) {
+        Instant version = product.version();
+        if (version != null && request.checkNotModified(ETagUtil.weak(version), version.toEpochMilli())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(ETagUtil.REVALIDATE).build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(ETagUtil.REVALIDATE)
+                .body(new APIResponse(MessageResponse.RESOURCE_FOUND, product.detail()));
     }
 
     /**
@@ -118,6 +174,7 @@ public class ProductController {
      * @param size the number of products per page (default is 10)
      * @param sortBy the field to sort the products by (default is "name")
      * @param sortDir the direction of sorting (asc for ascending, desc for descending; default is "asc")
+     * @param withTotal whether to compute the total count (default is true); false returns a slice without totals
      * @return a {@link ResponseEntity} containing an {@link APIResponse} with the list of products
      */
     @GetMapping("/category/{categoryId}")
@@ -125,9 +182,31 @@ public class ProductController {
                                                                @RequestParam(defaultValue = "0") int page,
                                                                @RequestParam(defaultValue = "10") int size,
                                                                @RequestParam(defaultValue = "name") String sortBy,
-                                                               @RequestParam(defaultValue = "asc") String sortDir) {
+                                                               @RequestParam(defaultValue = "asc") String sortDir,
+                                                               @RequestParam(defaultValue = "true") boolean withTotal) {
+        return ResponseEntity.ok(new APIResponse(MessageResponse.RESOURCE_FOUND,
+                SliceResponse.of(productService.getProductsByCategoryIdAndIsDeleted(categoryId, false, page, size,
+                        sortBy, sortDir, withTotal))));
+    }
+
+    /**
+     * Retrieves active products of a category with cursor-based pagination.
+     *
+     * @param categoryId the unique identifier of the category
+     * @param cursor the {@code nextCursor} or {@code prevCursor} of a previous response; omit for the first page
+     * @param size the number of products to return (default is 10)
+     * @param sortBy the field to sort the products by (default is "name")
+     * @param sortDir the direction of sorting (asc for ascending, desc for descending; default is "asc")
+     * @return a {@link ResponseEntity} containing an {@link APIResponse} with the products and the adjacent cursors
+     */
+    @GetMapping("/category/{categoryId}/scroll")
+    public ResponseEntity<APIResponse> scrollActiveProductsByCategoryId(@PathVariable String categoryId,
+                                                                        @RequestParam(required = false) String cursor,
+                                                                        @RequestParam(defaultValue = "10") int size,
+                                                                        @RequestParam(defaultValue = "name") String sortBy,
+                                                                        @RequestParam(defaultValue = "asc") String sortDir) {
         return ResponseEntity.ok(new APIResponse(MessageResponse.RESOURCE_FOUND,
-                productService.getProductsByCategoryIdAndIsDeleted(categoryId, false, page, size, sortBy, sortDir)));
+                productService.scrollActiveProducts(categoryId, cursor, size, sortBy, sortDir)));
     }
 
     /**
@@ -138,6 +217,7 @@ public class ProductController {
      * @param size the number of products per page (default is 10)
      * @param sortBy the field to sort the products by (default is "name")
      * @param sortDir the direction of sorting (asc for ascending, desc for descending; default is "asc")
+     * @param withTotal whether to compute the total count (default is true); false returns a slice without totals
      * @return a {@link ResponseEntity} containing an {@link APIResponse} with the list of products
      */
     @GetMapping("/category/{categoryId}/hidden")
@@ -146,9 +226,11 @@ public class ProductController {
                                                                      @RequestParam(defaultValue = "0") int page,
                                                                      @RequestParam(defaultValue = "10") int size,
                                                                      @RequestParam(defaultValue = "name") String sortBy,
-                                                                     @RequestParam(defaultValue = "asc") String sortDir) {
+                                                                     @RequestParam(defaultValue = "asc") String sortDir,
+                                                                     @RequestParam(defaultValue = "true") boolean withTotal) {
         return ResponseEntity.ok(new APIResponse(MessageResponse.RESOURCE_FOUND,
-                productService.getProductsByCategoryIdAndIsDeleted(categoryId, true, page, size, sortBy, sortDir)));
+                SliceResponse.of(productService.getProductsByCategoryIdAndIsDeleted(categoryId, true, page, size,
+                        sortBy, sortDir, withTotal))));
     }
 
     /**
@@ -185,6 +267,27 @@ public class ProductController {
                 .body(new APIResponse(MessageResponse.CREATED_SUCCESSFULLY, null));
     }
 
+    /**
+     * Imports products in bulk from a CSV or NDJSON request body. The body is read as a stream and
+     * saved in batches; invalid rows are skipped and reported by line number.
+     *
+     * @param contentType the content type of the request body, {@code text/csv} or {@code application/x-ndjson}
+     * @param input the request body
+     * @return a {@link ResponseEntity} containing an {@link APIResponse} with the import result
+     * @throws IOException if an error occurs while reading the request body
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/import", consumes = {ProductImportFormat.CSV_VALUE, ProductImportFormat.NDJSON_VALUE})
+    public ResponseEntity<APIResponse> importProducts(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                      InputStream input) throws IOException {
+        ProductImportFormat format = MediaType.parseMediaType(contentType).isCompatibleWith(
+                MediaType.parseMediaType(ProductImportFormat.NDJSON_VALUE))
+                ? ProductImportFormat.NDJSON
+                : ProductImportFormat.CSV;
+        return ResponseEntity.ok(new APIResponse(MessageResponse.SUCCESS_REQUEST,
+                productImportService.importProducts(input, format)));
+    }
+
     /**
      * Updates an existing product by its ID, with an optional image file.
      *
@@ -275,6 +378,7 @@ public class ProductController {
      * @param size the number of featured products per page (default is 10)
      * @param sortBy the field to sort the featured products by (default is "createdAt")
      * @param sortDir the direction of sorting (asc for ascending, desc for descending; default is "asc")
+     * @param withTotal whether to compute the total count (default is true); false returns a slice without totals
      * @return a {@link ResponseEntity} containing an {@link APIResponse} with the list of featured products
      */
     @PreAuthorize("hasRole('ADMIN')")
@@ -282,9 +386,10 @@ public class ProductController {
     public ResponseEntity<APIResponse> getAllFeaturedProduct(@RequestParam(defaultValue = "0") int page,
                                                              @RequestParam(defaultValue = "10") int size,
                                                              @RequestParam(defaultValue = "createdAt") String sortBy,
-                                                             @RequestParam(defaultValue = "asc") String sortDir) {
+                                                             @RequestParam(defaultValue = "asc") String sortDir,
+                                                             @RequestParam(defaultValue = "true") boolean withTotal) {
         return ResponseEntity.ok(new APIResponse(MessageResponse.RESOURCE_FOUND,
-                productService.getAllFeaturedProduct(page, size, sortBy, sortDir)));
+                SliceResponse.of(productService.getAllFeaturedProduct(page, size, sortBy, sortDir, withTotal))));
     }
 
     /**
@@ -306,24 +411,35 @@ public class ProductController {
      * @param size the number of active featured products per page (default is 10)
      * @param sortBy the field to sort the active featured products by (default is "createdAt")
      * @param sortDir the direction of sorting (asc for ascending, desc for descending; default is "asc")
-     * @return a {@link ResponseEntity} containing an {@link APIResponse} with the list of active featured products
+     * @param withTotal whether to compute the total count (default is true); false returns a slice without totals
+     * @param acceptEncoding the encodings accepted by the client
+     * @return a {@link ResponseEntity} containing the serialized {@link APIResponse} with the list of active
+     * featured products, served from the {@link CatalogResponseCache}
      */
     @GetMapping("/feature/active")
-    public ResponseEntity<APIResponse> getActiveFeaturedProduct(@RequestParam(defaultValue = "0") int page,
-                                                                @RequestParam(defaultValue = "10") int size,
-                                                                @RequestParam(defaultValue = "createdAt") String sortBy,
-                                                                @RequestParam(defaultValue = "asc") String sortDir) {
-        return ResponseEntity.ok(new APIResponse(MessageResponse.RESOURCE_FOUND,
-                productService.getActiveFeaturedProducts(page, size, sortBy, sortDir)));
+    public ResponseEntity<byte[]> getActiveFeaturedProduct(@RequestParam(defaultValue = "0") int page,
+                                                           @RequestParam(defaultValue = "10") int size,
+                                                           @RequestParam(defaultValue = "createdAt") String sortBy,
+                                                           @RequestParam(defaultValue = "asc") String sortDir,
+                                                           @RequestParam(defaultValue = "true") boolean withTotal,
+                                                           @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                                           String acceptEncoding) {
+        // featured entries start and end on whole days, so the active set only changes with the date
+        return catalogResponseCache.get("products/feature/active",
+                        List.of(page, size, sortBy, sortDir, withTotal, LocalDate.now()),
+                        Set.of(CatalogSection.FEATURED, CatalogSection.PRODUCTS), () ->
+                        new APIResponse(MessageResponse.RESOURCE_FOUND, SliceResponse.of(
+                                productService.getActiveFeaturedProducts(page, size, sortBy, sortDir, withTotal))))
+                .toResponse(ResponseEntity.ok(), acceptEncoding);
     }
 
     /**
-     * Searches for products by name.
+     * Searches for products by name and description, ignoring case and diacritics.
      *
-     * @param name the name of the product to search for
+     * @param name the search terms; every term must match
      * @param page the page number to retrieve (default is 0)
      * @param size the number of products per page (default is 10)
-     * @param sortBy the field to sort the products by (default is "createdAt")
+     * @param sortBy the field to sort the products by (default is "relevance")
      * @param sortDir the direction of sorting (asc for ascending, desc for descending; default is "asc")
      * @return a {@link ResponseEntity} containing an {@link APIResponse} with the list of matching products
      */
@@ -331,10 +447,45 @@ public class ProductController {
     public ResponseEntity<APIResponse> searchByName(@RequestParam String name,
                                                     @RequestParam(defaultValue = "0") int page,
                                                     @RequestParam(defaultValue = "10") int size,
-                                                    @RequestParam(defaultValue = "createdAt") String sortBy,
+                                                    @RequestParam(defaultValue = "relevance") String sortBy,
                                                     @RequestParam(defaultValue = "asc") String sortDir) {
         return ResponseEntity.ok(new APIResponse(MessageResponse.RESOURCE_FOUND,
                 productService.searchByName(name, page, size, sortBy, sortDir)));
     }
 
+    /**
+     * Filters active products by category, price range, stock and minimum average rating, and returns
+     * the number of matching products for each facet value.
+     *
+     * @param filter the filters to apply: categoryIds, minPrice, maxPrice, inStock and minRating (1-5)
+     * @param page the page number to retrieve (default is 0)
+     * @param size the number of products per page (default is 10)
+     * @param sortBy the field to sort the products by (default is "name")
+     * @param sortDir the direction of sorting (asc for ascending, desc for descending; default is "asc")
+     * @return a {@link ResponseEntity} containing an {@link APIResponse} with the matching products and facet counts
+     */
+    @GetMapping("/filter")
+    public ResponseEntity<APIResponse> filterProducts(@Valid ProductFilterRequest filter,
+                                                      @RequestParam(defaultValue = "0") int page,
+                                                      @RequestParam(defaultValue = "10") int size,
+                                                      @RequestParam(defaultValue = "name") String sortBy,
+                                                      @RequestParam(defaultValue = "asc") String sortDir) {
+        return ResponseEntity.ok(new APIResponse(MessageResponse.RESOURCE_FOUND,
+                productService.filterProducts(filter, page, size, sortBy, sortDir)));
+    }
+
+    /**
+     * Suggests products and categories for a search box as the user types.
+     *
+     * @param q the text typed so far; matched against the start of each word, ignoring case and diacritics
+     * @param limit the maximum number of suggestions (default is 10)
+     * @return a {@link ResponseEntity} containing an {@link APIResponse} with the suggestions, most popular first
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<APIResponse> suggest(@RequestParam String q,
+                                               @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(new APIResponse(MessageResponse.RESOURCE_FOUND,
+                productService.suggest(q, limit)));
+    }
+
 }
\ No newline at end of file
@@ -4,7 +4,10 @@ import com.rookies.ecommerce.constant.MessageResponse;
 import com.rookies.ecommerce.dto.request.CreateReviewRequest;
 import com.rookies.ecommerce.dto.request.UpdateReviewRequest;
 import com.rookies.ecommerce.dto.response.APIResponse;
+import com.rookies.ecommerce.dto.response.SliceResponse;
+import com.rookies.ecommerce.repository.projection.VersionView;
 import com.rookies.ecommerce.service.review.ReviewService;
+import com.rookies.ecommerce.utils.ETagUtil;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.AccessLevel;
@@ -14,6 +17,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.UUID;
 
@@ -67,27 +71,39 @@ public class ReviewController {
      * @param size the number of reviews per page (default is 10)
      * @param sortBy the field to sort the reviews by (default is "createdAt")
      * @param sortDir the direction of sorting (asc for ascending, desc for descending; default is "asc")
+     * @param withTotal whether to compute the total count (default is true); false returns a slice without totals
      * @return a {@link ResponseEntity} containing an {@link APIResponse} with the user's reviews
      */
     @GetMapping("/user")
     public ResponseEntity<APIResponse> getReviewByUser(@RequestParam(defaultValue = "0") int page,
                                                        @RequestParam(defaultValue = "10") int size,
                                                        @RequestParam(defaultValue = "createdAt") String sortBy,
-                                                       @RequestParam(defaultValue = "asc") String sortDir) {
+                                                       @RequestParam(defaultValue = "asc") String sortDir,
+                                                       @RequestParam(defaultValue = "true") boolean withTotal) {
         return ResponseEntity.ok(new APIResponse(MessageResponse.RESOURCE_FOUND,
-                reviewService.getReviewByUser(page, size, sortBy, sortDir)));
+                SliceResponse.of(reviewService.getReviewByUser(page, size, sortBy, sortDir, withTotal))));
     }
 
     /**
-     * Retrieves review statistics for a specific product by its unique identifier.
+     * Retrieves review statistics for a specific product by its unique identifier. Responds with
+     * 304 Not Modified, without computing the statistics, when the request's {@code If-None-Match}
+     * matches the current version of the product's reviews.
      *
      * @param id the unique identifier of the product
+     * @param request the current request, used to evaluate conditional headers
      * @return a {@link ResponseEntity} containing an {@link APIResponse} with the review statistics
      */
     @GetMapping("/product/{id}/statistic")
-    public ResponseEntity<APIResponse> getReviewStatisticByProductId(@PathVariable UUID id) {
-        return ResponseEntity.ok(new APIResponse(MessageResponse.RESOURCE_FOUND,
-                reviewService.getReviewStatisticByProductId(id)));
+    public ResponseEntity<APIResponse> getReviewStatisticByProductId(@PathVariable UUID id, WebRequest request) {
+        VersionView version = reviewService.getReviewStatisticVersion(id);
+        // reviews are hard deleted, so the latest update time alone can go backwards; only the
+        // count-qualified entity tag is a reliable validator
+        if (request.checkNotModified(ETagUtil.weak(version.getCount(), version.getLastModified()))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(ETagUtil.REVALIDATE).build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(ETagUtil.REVALIDATE)
+                .body(new APIResponse(MessageResponse.RESOURCE_FOUND, reviewService.getReviewStatisticByProductId(id)));
     }
 
     /**
@@ -98,6 +114,7 @@ public class ReviewController {
      * @param size the number of reviews per page (default is 10)
      * @param sortBy the field to sort the reviews by (default is "createdAt")
      * @param sortDir the direction of sorting (asc for ascending, desc for descending; default is "asc")
+     * @param withTotal whether to compute the total count (default is true); false returns a slice without totals
      * @return a {@link ResponseEntity} containing an {@link APIResponse} with the product's reviews
      */
     @GetMapping("/product/{id}")
@@ -105,9 +122,10 @@ public class ReviewController {
                                                             @RequestParam(defaultValue = "0") int page,
                                                             @RequestParam(defaultValue = "10") int size,
                                                             @RequestParam(defaultValue = "createdAt") String sortBy,
-                                                            @RequestParam(defaultValue = "asc") String sortDir) {
+                                                            @RequestParam(defaultValue = "asc") String sortDir,
+                                                            @RequestParam(defaultValue = "true") boolean withTotal) {
         return ResponseEntity.ok(new APIResponse(MessageResponse.RESOURCE_FOUND,
-                reviewService.getReviewByProductId(id, page, size, sortBy, sortDir)));
+                SliceResponse.of(reviewService.getReviewByProductId(id, page, size, sortBy, sortDir, withTotal))));
     }
 
     /**
@@ -0,0 +1,33 @@
+package com.rookies.ecommerce.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductFilterRequest {
+
+    List<UUID> categoryIds;
+
+    @PositiveOrZero
+    Double minPrice;
+
+    @PositiveOrZero
+    Double maxPrice;
+
+    boolean inStock;
+
+    @Min(1)
+    @Max(5)
+    Integer minRating;
+
+}
@@ -0,0 +1,23 @@
+package com.rookies.ecommerce.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CursorPageResponse<T> {
+
+    List<T> content;
+
+    int size;
+
+    String nextCursor;
+
+    String prevCursor;
+
+}
@@ -0,0 +1,19 @@
+package com.rookies.ecommerce.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class FacetCount {
+
+    String value;
+
+    String label;
+
+    long count;
+
+}
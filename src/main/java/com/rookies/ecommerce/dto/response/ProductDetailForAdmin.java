@@ -1,5 +1,6 @@
 package com.rookies.ecommerce.dto.response;
 
+import com.rookies.ecommerce.enums.ImageStatus;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
@@ -20,6 +21,8 @@ public class ProductDetailForAdmin {
 
     String imageUrl;
 
+    ImageStatus imageStatus;
+
     int availableQuantity;
 
     double price;
@@ -0,0 +1,26 @@
+package com.rookies.ecommerce.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ProductFilterResponse {
+
+    Page<ProductResponse> products;
+
+    List<FacetCount> categories;
+
+    List<FacetCount> priceRanges;
+
+    List<FacetCount> ratings;
+
+    long inStock;
+
+}
@@ -0,0 +1,17 @@
+package com.rookies.ecommerce.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ProductImportError {
+
+    long line;
+
+    String message;
+
+}
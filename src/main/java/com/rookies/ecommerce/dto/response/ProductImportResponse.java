@@ -0,0 +1,24 @@
+package com.rookies.ecommerce.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ProductImportResponse {
+
+    long imported;
+
+    long failed;
+
+    /**
+     * Errors of the first failed rows; {@code failed} counts all of them.
+     */
+    List<ProductImportError> errors;
+
+}
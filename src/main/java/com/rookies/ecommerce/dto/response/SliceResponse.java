@@ -0,0 +1,44 @@
+package com.rookies.ecommerce.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Page of results without a total count, returned by listings called with {@code withTotal=false}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SliceResponse<T> {
+
+    List<T> content;
+
+    int page;
+
+    int size;
+
+    boolean hasNext;
+
+    /**
+     * Returns a {@link Page} as is, so it keeps its usual serialized form, and wraps any other
+     * {@link Slice} in a {@link SliceResponse}.
+     */
+    public static <T> Object of(Slice<T> slice) {
+        if (slice instanceof Page<T> page) {
+            return page;
+        }
+        return SliceResponse.<T>builder()
+                .content(slice.getContent())
+                .page(slice.getNumber())
+                .size(slice.getSize())
+                .hasNext(slice.hasNext())
+                .build();
+    }
+
+}
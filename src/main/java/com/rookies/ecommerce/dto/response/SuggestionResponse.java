@@ -0,0 +1,21 @@
+package com.rookies.ecommerce.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SuggestionResponse {
+
+    String type;
+
+    String id;
+
+    String name;
+
+    String slug;
+
+}
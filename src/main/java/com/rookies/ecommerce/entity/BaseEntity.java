@@ -1,24 +1,31 @@
 package com.rookies.ecommerce.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.experimental.FieldDefaults;
 import lombok.experimental.SuperBuilder;
+import org.springframework.data.domain.Persistable;
 
-import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.UUID;
 
 @MappedSuperclass
 @Data
-@FieldDefaults(level = lombok.AccessLevel.PRIVATE)
+@FieldDefaults(level = AccessLevel.PRIVATE)
 @SuperBuilder
 @NoArgsConstructor
-public abstract class BaseEntity {
+public abstract class BaseEntity implements Persistable<UUID> {
 
     @Id
-    @GeneratedValue
+    @TimeOrderedId
     @Column(updatable = false, nullable = false)
     UUID id;
 
@@ -28,6 +35,34 @@ public abstract class BaseEntity {
     @Column(nullable = false)
     Instant updatedAt;
 
+    @Transient
+    @JsonIgnore
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    boolean newEntity = true;
+
+    /**
+     * An entity is new until it has been persisted once, even when its id was assigned up front. Without
+     * this, {@code save} would treat an entity with an assigned id as detached and merge it, which costs
+     * an extra SELECT before the INSERT. The flag is only cleared once the insert has happened, so a save
+     * retried after a failed flush still persists instead of merging.
+     */
+    @Override
+    @Transient
+    @JsonIgnore
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostPersist
+    @PostLoad
+    protected void markNotNew() {
+        this.newEntity = false;
+    }
+
     @PrePersist
     protected void onCreate() {
         Instant now = Instant.now();
@@ -7,7 +7,8 @@ import lombok.experimental.FieldDefaults;
 import java.time.Instant;
 
 @Entity
-@Table(name = "invalidated_tokens")
+@Table(name = "invalidated_tokens",
+        indexes = { @Index(name = "idx_invalidated_tokens_expiration_time", columnList = "expirationTime") })
 @Getter
 @Setter
 @AllArgsConstructor
@@ -20,8 +21,8 @@ public class InvalidatedToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     Long id;
 
-    @Column(length = 512, nullable = false, unique = true)
-    String token;
+    @Column(length = 32, unique = true)
+    byte[] tokenDigest;
 
     @Column
     Instant expirationTime;
@@ -1,6 +1,8 @@
 package com.rookies.ecommerce.entity;
 
 import jakarta.persistence.*;
+import com.rookies.ecommerce.enums.ImageStatus;
+import com.rookies.ecommerce.utils.TextUtil;
 import jakarta.validation.constraints.Min;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
@@ -19,12 +21,17 @@ import java.util.List;
 @SuperBuilder
 public class Product extends BaseEntityAudit {
 
+    public static final int SHORT_DESCRIPTION_LENGTH = 200;
+
     @Column(nullable = false)
     String name;
 
     @Column(nullable = false, columnDefinition = "TEXT")
     String description;
 
+    @Column(length = SHORT_DESCRIPTION_LENGTH + 1)
+    String shortDescription;
+
     @Column(nullable = false, precision = 10, scale = 0)
     BigDecimal price;
 
@@ -35,6 +42,11 @@ public class Product extends BaseEntityAudit {
     @Column(columnDefinition = "TEXT")
     String imageUrl;
 
+    // null for products without an uploaded image and rows written before image uploads were asynchronous
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    ImageStatus imageStatus;
+
     @Column(nullable = false, columnDefinition = "boolean default false")
     boolean isDeleted;
 
@@ -55,4 +67,17 @@ public class Product extends BaseEntityAudit {
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     List<FeaturedProduct> featuredProducts;
+
+    public String getShortDescription() {
+        // rows written before the column existed are filled in on their next update
+        return shortDescription != null
+                ? shortDescription
+                : TextUtil.excerpt(description, SHORT_DESCRIPTION_LENGTH);
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void updateShortDescription() {
+        this.shortDescription = TextUtil.excerpt(description, SHORT_DESCRIPTION_LENGTH);
+    }
 }
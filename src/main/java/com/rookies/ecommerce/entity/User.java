@@ -33,6 +33,9 @@ public class User extends BaseEntity implements UserDetails {
     @Column(nullable = false, columnDefinition = "boolean default true")
     boolean isActive;
 
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    int statusVersion;
+
     @ManyToOne(cascade = {CascadeType.PERSIST, CascadeType.DETACH,
             CascadeType.MERGE, CascadeType.REFRESH},
             fetch = FetchType.LAZY)
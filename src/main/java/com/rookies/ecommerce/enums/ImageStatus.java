@@ -0,0 +1,7 @@
+package com.rookies.ecommerce.enums;
+
+public enum ImageStatus {
+    PENDING,
+    READY,
+    FAILED
+}
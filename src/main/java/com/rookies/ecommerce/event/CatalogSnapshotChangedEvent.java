@@ -0,0 +1,17 @@
+package com.rookies.ecommerce.event;
+
+import com.rookies.ecommerce.service.catalog.CatalogSnapshot;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published after a new {@link CatalogSnapshot} replaced the current one. {@code productIds} and
+ * {@code categoryIds} are those whose entry differs from the previous snapshot: present in
+ * {@code snapshot} when added or changed, absent when removed. Products whose category was renamed
+ * are included. The first snapshot has nothing to be compared with, so it is published with
+ * {@code initial} set and no ids, and listeners index all of its products.
+ */
+public record CatalogSnapshotChangedEvent(CatalogSnapshot snapshot, boolean initial, Set<UUID> productIds,
+                                          Set<UUID> categoryIds) {
+}
@@ -0,0 +1,9 @@
+package com.rookies.ecommerce.event;
+
+import java.util.UUID;
+
+/**
+ * Published when a category is renamed or has its status toggled.
+ */
+public record CategoryChangedEvent(UUID categoryId) {
+}
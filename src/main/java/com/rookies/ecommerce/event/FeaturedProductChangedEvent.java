@@ -0,0 +1,9 @@
+package com.rookies.ecommerce.event;
+
+import java.util.UUID;
+
+/**
+ * Published when a featured product entry is created, updated or deleted.
+ */
+public record FeaturedProductChangedEvent(UUID featuredProductId) {
+}
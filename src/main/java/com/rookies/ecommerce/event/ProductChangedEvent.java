@@ -0,0 +1,9 @@
+package com.rookies.ecommerce.event;
+
+import java.util.UUID;
+
+/**
+ * Published when a product is created, updated or has its status toggled.
+ */
+public record ProductChangedEvent(UUID productId) {
+}
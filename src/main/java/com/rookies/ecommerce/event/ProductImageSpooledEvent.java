@@ -0,0 +1,10 @@
+package com.rookies.ecommerce.event;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * Published when a new product image has been written to the local spool and waits to be uploaded.
+ */
+public record ProductImageSpooledEvent(UUID productId, Path file) {
+}
@@ -0,0 +1,11 @@
+package com.rookies.ecommerce.event;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published once per committed batch of a bulk product import, instead of one
+ * {@link ProductChangedEvent} per product.
+ */
+public record ProductsImportedEvent(List<UUID> productIds) {
+}
@@ -0,0 +1,9 @@
+package com.rookies.ecommerce.event;
+
+import java.util.UUID;
+
+/**
+ * Published when a review of a product is created, updated or deleted.
+ */
+public record ReviewChangedEvent(UUID productId) {
+}
@@ -0,0 +1,9 @@
+package com.rookies.ecommerce.event;
+
+import java.util.UUID;
+
+/**
+ * Published when a user registers or has their active status toggled.
+ */
+public record UserChangedEvent(UUID userId) {
+}
@@ -25,6 +25,12 @@ public enum ErrorCode {
     ACCESS_DENIED("Denied access", HttpStatus.FORBIDDEN),
     QUANTITY_EXCEED("Not enough items in stock", HttpStatus.BAD_REQUEST),
     OVERLAPPING_FEATURED_PRODUCT("Overlapping featured product", HttpStatus.BAD_REQUEST),
+    TOO_MANY_REQUESTS("Too many requests", HttpStatus.TOO_MANY_REQUESTS),
+    INVALID_CURSOR("Invalid cursor", HttpStatus.BAD_REQUEST),
+    INVALID_SORT_FIELD("Invalid sort field", HttpStatus.BAD_REQUEST),
+    INVALID_LIMIT("Invalid limit", HttpStatus.BAD_REQUEST),
+    INDEX_NOT_READY("Product index is still loading", HttpStatus.SERVICE_UNAVAILABLE),
+    UNSUPPORTED_FORMAT("Unsupported format", HttpStatus.BAD_REQUEST),
     ;
 
     ErrorCode(String message, HttpStatusCode httpStatusCode) {
@@ -9,6 +9,7 @@ import com.rookies.ecommerce.dto.response.ProductResponse;
 import com.rookies.ecommerce.dto.response.ProductDetailResponse;
 import com.rookies.ecommerce.entity.FeaturedProduct;
 import com.rookies.ecommerce.entity.Product;
+import com.rookies.ecommerce.repository.projection.ProductListingView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
@@ -23,8 +24,12 @@ public interface ProductMapper {
 
     @Named("toProductDTO")
     @Mapping(source = "product.category.name", target = "categoryName")
+    @Mapping(source = "product.shortDescription", target = "description")
     ProductResponse toProductDTO(Product product);
 
+    @Mapping(source = "shortDescription", target = "description")
+    ProductResponse toProductResponse(ProductListingView view);
+
     @Mapping(source = "product.category.name", target = "categoryName")
     ProductDetailForAdmin toProductDetailForAdmin(Product product);
 
@@ -2,9 +2,9 @@ package com.rookies.ecommerce.repository;
 
 import com.rookies.ecommerce.entity.Cart;
 import com.rookies.ecommerce.entity.CartItem;
-import com.rookies.ecommerce.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.UUID;
@@ -13,7 +13,11 @@ public interface CartItemRepository extends JpaRepository<CartItem, UUID> {
 
     long countByCart(Cart cart);
 
-    CartItem findByCartAndProduct(Cart cart, Product product);
+    long countByCartId(UUID cartId);
 
-    Page<CartItem> findByCart(Cart cart, Pageable pageable);
+    CartItem findByCartIdAndProductId(UUID cartId, UUID productId);
+
+    Page<CartItem> findByCartId(UUID cartId, Pageable pageable);
+
+    Slice<CartItem> findSliceByCartId(UUID cartId, Pageable pageable);
 }
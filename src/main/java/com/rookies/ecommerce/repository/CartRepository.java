@@ -0,0 +1,9 @@
+package com.rookies.ecommerce.repository;
+
+import com.rookies.ecommerce.entity.Cart;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface CartRepository extends JpaRepository<Cart, UUID> {
+}
@@ -0,0 +1,9 @@
+package com.rookies.ecommerce.repository;
+
+import com.rookies.ecommerce.entity.Customer;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface CustomerRepository extends JpaRepository<Customer, UUID> {
+}
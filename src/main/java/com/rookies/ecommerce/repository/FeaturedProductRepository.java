@@ -3,6 +3,8 @@ package com.rookies.ecommerce.repository;
 import com.rookies.ecommerce.entity.FeaturedProduct;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,6 +15,13 @@ import java.util.UUID;
 
 public interface FeaturedProductRepository extends JpaRepository<FeaturedProduct, UUID> {
 
+    String ACTIVE_FEATURED_PRODUCTS_QUERY = """
+    SELECT fp FROM FeaturedProduct fp
+    WHERE ((fp.startDate <= :now AND fp.endDate >= :now)
+    OR (:now BETWEEN fp.startDate AND fp.endDate))
+    AND (fp.product.isDeleted = false)
+    """;
+
     @Query("""
     SELECT fp FROM FeaturedProduct fp
     WHERE fp.product.id = :productId
@@ -47,16 +56,22 @@ public interface FeaturedProductRepository extends JpaRepository<FeaturedProduct
             @Param("endDate") Date endDate
     );
 
-    @Query("""
-    SELECT fp FROM FeaturedProduct fp
-    WHERE ((fp.startDate <= :now AND fp.endDate >= :now)
-    OR (:now BETWEEN fp.startDate AND fp.endDate))
-    AND (fp.product.isDeleted = false)
-    """)
+    @Query(ACTIVE_FEATURED_PRODUCTS_QUERY)
     Page<FeaturedProduct> findActiveFeaturedProducts(
             @Param("now") Date now,
             Pageable pageable
     );
 
+    @Query(ACTIVE_FEATURED_PRODUCTS_QUERY)
+    Slice<FeaturedProduct> findActiveFeaturedProductsSlice(
+            @Param("now") Date now,
+            Pageable pageable
+    );
+
+    Slice<FeaturedProduct> findSliceBy(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"product"})
+    List<FeaturedProduct> findAllByProductIsDeleted(boolean isDeleted);
+
 
 }
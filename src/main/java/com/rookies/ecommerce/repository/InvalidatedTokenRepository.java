@@ -2,11 +2,32 @@ package com.rookies.ecommerce.repository;
 
 import com.rookies.ecommerce.entity.InvalidatedToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
 
 @Repository
 public interface InvalidatedTokenRepository extends JpaRepository<InvalidatedToken, Integer> {
 
-    boolean existsByToken(String token);
+    List<InvalidatedToken> findAllByExpirationTimeAfter(Instant time);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+    DELETE FROM invalidated_tokens
+    WHERE id IN (
+        SELECT id FROM invalidated_tokens
+        WHERE expiration_time < :now
+        ORDER BY expiration_time
+        LIMIT :batchSize
+        FOR UPDATE SKIP LOCKED
+    )
+    """, nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") Instant now, @Param("batchSize") int batchSize);
 
 }
@@ -0,0 +1,25 @@
+package com.rookies.ecommerce.repository;
+
+import com.rookies.ecommerce.entity.Category;
+import com.rookies.ecommerce.repository.projection.ProductListingView;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+/**
+ * Keyset scrolling over the listing projection. Spring Data only scrolls derived queries by keyset,
+ * which would load whole entities, so the keyset predicate is added to
+ * {@link ProductRepository#LISTING_SELECT} here.
+ */
+public interface ProductListingScrollRepository {
+
+    /**
+     * Scrolls products with the given deleted flag, optionally restricted to {@code category}.
+     * Every property of {@code sort} must be one of the aliases of {@link ProductRepository#LISTING_SELECT},
+     * and the keys of a non-initial {@code position} must be exactly those properties.
+     */
+    Window<ProductListingView> scrollListing(Category category, boolean isDeleted, KeysetScrollPosition position,
+                                             Limit limit, Sort sort);
+
+}
@@ -0,0 +1,109 @@
+package com.rookies.ecommerce.repository;
+
+import com.rookies.ecommerce.entity.Category;
+import com.rookies.ecommerce.repository.projection.ProductListingView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.TypedQuery;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+class ProductListingScrollRepositoryImpl implements ProductListingScrollRepository {
+
+    private static final SpelAwareProxyProjectionFactory PROJECTION_FACTORY = new SpelAwareProxyProjectionFactory();
+
+    EntityManager entityManager;
+
+    @Override
+    public Window<ProductListingView> scrollListing(Category category, boolean isDeleted,
+                                                    KeysetScrollPosition position, Limit limit, Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        boolean backward = position.scrollsBackward();
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("isDeleted", isDeleted);
+
+        StringBuilder jpql = new StringBuilder(ProductRepository.LISTING_SELECT).append("WHERE p.isDeleted = :isDeleted");
+        if (category != null) {
+            jpql.append(" AND p.category = :category");
+            parameters.put("category", category);
+        }
+        if (!position.isInitial()) {
+            jpql.append(" AND (").append(keysetPredicate(orders, position, backward, parameters)).append(')');
+        }
+        StringJoiner orderBy = new StringJoiner(", ", " ORDER BY ", "");
+        // a backward scroll reads the rows before the keys in reverse and flips them back afterwards
+        orders.forEach(order -> orderBy.add("p." + order.getProperty() + " "
+                + (order.isAscending() != backward ? "ASC" : "DESC")));
+        jpql.append(orderBy);
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class);
+        parameters.forEach(query::setParameter);
+        query.setMaxResults(limit.max() + 1);
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : query.getResultList()) {
+            Map<String, Object> row = new HashMap<>();
+            for (TupleElement<?> element : tuple.getElements()) {
+                row.put(element.getAlias(), tuple.get(element));
+            }
+            rows.add(row);
+        }
+        boolean hasMore = rows.size() > limit.max();
+        if (hasMore) {
+            rows = rows.subList(0, limit.max());
+        }
+        if (backward) {
+            Collections.reverse(rows);
+        }
+
+        List<Map<String, Object>> content = rows;
+        List<ProductListingView> views = content.stream()
+                .map(row -> PROJECTION_FACTORY.createProjection(ProductListingView.class, row))
+                .toList();
+        return Window.from(views, index -> {
+            Map<String, Object> keys = new LinkedHashMap<>();
+            orders.forEach(order -> keys.put(order.getProperty(), content.get(index).get(order.getProperty())));
+            return ScrollPosition.forward(keys);
+        }, hasMore);
+    }
+
+    /**
+     * Expands the keys into "after this row in sort order", e.g. {@code p.name > :k0 OR
+     * (p.name = :k0 AND p.id > :k1)}.
+     */
+    private static String keysetPredicate(List<Sort.Order> orders, KeysetScrollPosition position, boolean backward,
+                                          Map<String, Object> parameters) {
+        StringJoiner disjunction = new StringJoiner(" OR ");
+        for (int i = 0; i < orders.size(); i++) {
+            StringJoiner conjunction = new StringJoiner(" AND ", "(", ")");
+            for (int j = 0; j <= i; j++) {
+                Sort.Order order = orders.get(j);
+                String parameter = "k" + j;
+                parameters.put(parameter, position.getKeys().get(order.getProperty()));
+                String operator = j < i ? "=" : order.isAscending() != backward ? ">" : "<";
+                conjunction.add("p." + order.getProperty() + " " + operator + " :" + parameter);
+            }
+            disjunction.add(conjunction.toString());
+        }
+        return disjunction.toString();
+    }
+
+}
@@ -2,25 +2,71 @@ package com.rookies.ecommerce.repository;
 
 import com.rookies.ecommerce.entity.Category;
 import com.rookies.ecommerce.entity.Product;
+import com.rookies.ecommerce.repository.projection.ProductListingView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, UUID> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, ProductListingScrollRepository {
+
+    String LISTING_SELECT = """
+    SELECT p.id AS id, p.name AS name, p.imageUrl AS imageUrl,
+           COALESCE(p.shortDescription, SUBSTRING(p.description, 1, 200)) AS shortDescription,
+           p.availableQuantity AS availableQuantity, p.price AS price, p.slug AS slug,
+           p.isDeleted AS deleted, p.createdAt AS createdAt, c.name AS categoryName
+    FROM Product p LEFT JOIN p.category c
+    """;
+
+    @Query(LISTING_SELECT + "WHERE p.isDeleted = :isDeleted")
+    Slice<ProductListingView> findListingByIsDeleted(@Param("isDeleted") boolean isDeleted, Pageable pageable);
+
+    @Query(LISTING_SELECT + "WHERE p.category = :category AND p.isDeleted = :isDeleted")
+    Slice<ProductListingView> findListingByCategoryAndIsDeleted(@Param("category") Category category,
+                                                               @Param("isDeleted") boolean isDeleted,
+                                                               Pageable pageable);
+
+    @Query(value = LISTING_SELECT + "WHERE p.name LIKE CONCAT('%', :name, '%') AND p.isDeleted = :isDeleted",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.name LIKE CONCAT('%', :name, '%') AND p.isDeleted = :isDeleted")
+    Page<ProductListingView> findListingByNameContainingAndIsDeleted(@Param("name") String name,
+                                                                     @Param("isDeleted") boolean isDeleted,
+                                                                     Pageable pageable);
+
+    long countByIsDeleted(boolean isDeleted);
+
+    long countByCategoryAndIsDeleted(Category category, boolean isDeleted);
+
+    @EntityGraph(attributePaths = {"category"})
+    Optional<Product> findWithCategoryById(UUID id);
 
     @EntityGraph(attributePaths = {"category"})
-    Page<Product> findAllByIsDeleted(boolean isDeleted, Pageable pageable);
+    List<Product> findWithCategoryByIdIn(Collection<UUID> ids);
 
-    Page<Product> findAllByCategoryAndIsDeleted(Category category, boolean isDeleted, Pageable pageable);
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category ORDER BY p.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Product> streamAllForExport();
 
+    @EntityGraph(attributePaths = {"category"})
     Optional<Product> findBySlug(String slug);
 
-    Page<Product> findByNameContainingAndIsDeleted(String name, boolean isDeleted, Pageable pageable);
+    @EntityGraph(attributePaths = {"category"})
+    List<Product> findByIsDeletedAndIdGreaterThanOrderByIdAsc(boolean isDeleted, UUID id, Limit limit);
 }
@@ -3,25 +3,72 @@ package com.rookies.ecommerce.repository;
 import com.rookies.ecommerce.entity.Customer;
 import com.rookies.ecommerce.entity.Product;
 import com.rookies.ecommerce.entity.Review;
+import com.rookies.ecommerce.repository.projection.ProductRatingView;
+import com.rookies.ecommerce.repository.projection.VersionView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.security.cert.CertPathBuilder;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface ReviewRepository extends JpaRepository<Review, UUID> {
 
     Page<Review> findAllByProduct(Product product, Pageable pageable);
 
+    Slice<Review> findSliceByProduct(Product product, Pageable pageable);
+
     long countByProduct(Product product);
 
+    long countByProductId(UUID productId);
+
     @Query("SELECT AVG(r.rating) FROM Review r WHERE r.product = :product")
     double getAvgRatingByProduct(@Param("product") Product product);
 
+    @Query("SELECT AVG(r.rating) FROM Review r WHERE r.product.id = :productId")
+    Double findAverageRatingByProductId(@Param("productId") UUID productId);
+
+    @Query("""
+    SELECT r.product.id AS productId, AVG(r.rating) AS averageRating, COUNT(r) AS reviewCount
+    FROM Review r GROUP BY r.product.id
+    """)
+    List<ProductRatingView> findAverageRatings();
+
+    @Query("""
+    SELECT r.product.id AS productId, AVG(r.rating) AS averageRating, COUNT(r) AS reviewCount
+    FROM Review r WHERE r.product.id IN :productIds GROUP BY r.product.id
+    """)
+    List<ProductRatingView> findAverageRatingsByProductIdIn(@Param("productIds") Collection<UUID> productIds);
+
+    @Query("""
+    SELECT COUNT(r) AS count, MAX(r.updatedAt) AS lastModified
+    FROM Product p LEFT JOIN Review r ON r.product = p
+    WHERE p.id = :productId GROUP BY p.id
+    """)
+    Optional<VersionView> findVersionByProductId(@Param("productId") UUID productId);
+
     Page<Review> findAllByCustomer(Customer customer, Pageable pageable);
 
+    Page<Review> findAllByCustomerId(UUID customerId, Pageable pageable);
+
+    Slice<Review> findSliceByCustomerId(UUID customerId, Pageable pageable);
+
     long countByProductAndRating(Product product, int i);
+
+    @Query("SELECT r FROM Review r ORDER BY r.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Review> streamAllForExport();
 }
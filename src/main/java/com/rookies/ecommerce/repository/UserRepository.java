@@ -2,13 +2,21 @@ package com.rookies.ecommerce.repository;
 
 import com.rookies.ecommerce.entity.Role;
 import com.rookies.ecommerce.entity.User;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import com.rookies.ecommerce.service.user.CurrentUser;
+import com.rookies.ecommerce.repository.projection.UserExportView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
 
@@ -20,5 +28,30 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     @EntityGraph(attributePaths = {"role"})
     Optional<User> findByEmailAndIsActive(String email, boolean isActive);
 
-    Page<User> findAllByRoleAndIsActive(Role role, boolean isActive, PageRequest of);
+    Slice<User> findSliceByRoleAndIsActive(Role role, boolean isActive, Pageable pageable);
+
+    long countByRoleAndIsActive(Role role, boolean isActive);
+
+    @Query("""
+    SELECT new com.rookies.ecommerce.service.user.CurrentUser(u.id, c.id, ca.id)
+    FROM User u
+    LEFT JOIN u.customer c
+    LEFT JOIN c.cart ca
+    WHERE u.email = :email
+    """)
+    Optional<CurrentUser> findCurrentUserByEmail(@Param("email") String email);
+
+    @Query("SELECT u.statusVersion FROM User u WHERE u.id = :id AND u.isActive = true")
+    Optional<Integer> findActiveStatusVersionById(@Param("id") UUID id);
+
+    @Query("""
+    SELECT u.id AS id, u.email AS email, p.firstName AS firstName, p.lastName AS lastName,
+           p.phoneNumber AS phoneNumber, r.name AS role, u.isActive AS active, u.createdAt AS createdAt
+    FROM User u
+    LEFT JOIN u.role r
+    LEFT JOIN u.userProfile p
+    ORDER BY u.id
+    """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<UserExportView> streamAllForExport();
 }
@@ -0,0 +1,29 @@
+package com.rookies.ecommerce.repository.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * The columns shown on product listings, selected together with the category name in a single query.
+ */
+public interface ProductListingView {
+
+    UUID getId();
+
+    String getName();
+
+    String getImageUrl();
+
+    String getShortDescription();
+
+    int getAvailableQuantity();
+
+    BigDecimal getPrice();
+
+    String getSlug();
+
+    boolean isDeleted();
+
+    String getCategoryName();
+
+}
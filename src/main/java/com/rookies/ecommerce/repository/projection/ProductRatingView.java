@@ -0,0 +1,16 @@
+package com.rookies.ecommerce.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * The average review rating and number of reviews of a product.
+ */
+public interface ProductRatingView {
+
+    UUID getProductId();
+
+    double getAverageRating();
+
+    long getReviewCount();
+
+}
@@ -0,0 +1,27 @@
+package com.rookies.ecommerce.repository.projection;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The exported fields of a user, read without loading the user entity or its password.
+ */
+public interface UserExportView {
+
+    UUID getId();
+
+    String getEmail();
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getPhoneNumber();
+
+    String getRole();
+
+    boolean isActive();
+
+    Instant getCreatedAt();
+
+}
@@ -0,0 +1,14 @@
+package com.rookies.ecommerce.repository.projection;
+
+import java.time.Instant;
+
+/**
+ * The number of rows behind a resource and the latest of their update times, used as its version.
+ */
+public interface VersionView {
+
+    long getCount();
+
+    Instant getLastModified();
+
+}
@@ -6,6 +6,7 @@ import com.rookies.ecommerce.dto.request.CreateUserRequest;
 import com.rookies.ecommerce.dto.request.LoginRequest;
 import com.rookies.ecommerce.dto.response.LoginResponse;
 import com.rookies.ecommerce.entity.*;
+import com.rookies.ecommerce.event.UserChangedEvent;
 import com.rookies.ecommerce.exception.AppException;
 import com.rookies.ecommerce.exception.ErrorCode;
 import com.rookies.ecommerce.mapper.UserMapper;
@@ -14,12 +15,15 @@ import com.rookies.ecommerce.repository.RoleRepository;
 import com.rookies.ecommerce.repository.UserRepository;
 import com.rookies.ecommerce.service.invalidatedtoken.InvalidatedTokenService;
 import com.rookies.ecommerce.service.jwt.JWTService;
+import com.rookies.ecommerce.service.password.PasswordHashingExecutor;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.experimental.NonFinal;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
@@ -51,6 +55,10 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
     InvalidatedTokenService invalidatedTokenService;
 
+    PasswordHashingExecutor passwordHashingExecutor;
+
+    ApplicationEventPublisher eventPublisher;
+
     @Value("${security.jwt.refresh-duration}")
     @NonFinal
     long refreshDuration;
@@ -64,7 +72,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
         User user = userMapper.toUser(request);
         UserProfile userProfile = userMapper.toUserProfile(request);
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setPassword(passwordHashingExecutor.execute(() -> passwordEncoder.encode(user.getPassword())));
         Role role = roleRepository.findByName(RoleName.USER_ROLE.getName());
         user.setRole(role);
         user.setUserProfile(userProfile);
@@ -77,17 +85,18 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         cart.setCustomer(customer);
         user.setCustomer(customer);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId()));
     }
 
     @Override
     public LoginResponse login(LoginRequest request) {
         try {
-            authenticationManager.authenticate(
+            passwordHashingExecutor.execute(() -> authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
                             request.getEmail(),
                             request.getPassword()
                     )
-            );
+            ));
 
             User user = userRepository.findByEmail(request.getEmail())
                     .orElseThrow(() -> new AppException(ErrorCode.LOGIN_FAILED));
@@ -121,7 +130,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         }
 
         String token = authHeader.substring(7);
-        Instant expirationTime = jwtService.extractExpiration(token).toInstant();
+        Instant expirationTime = getVerifiedClaims(request, token).getExpiration().toInstant();
 
         invalidatedTokenService.invalidateToken(token, expirationTime);
     }
@@ -134,16 +143,17 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         }
 
         String token = authHeader.substring(7);
-        Instant expirationTime = jwtService.extractExpiration(token).toInstant();
+        Claims claims = getVerifiedClaims(request, token);
+        Instant expirationTime = claims.getExpiration().toInstant();
         invalidatedTokenService.invalidateToken(token, expirationTime);
 
-        Instant issuedAt = jwtService.extractIssuedAt(token).toInstant();
+        Instant issuedAt = claims.getIssuedAt().toInstant();
 
         if (Instant.now().isAfter(issuedAt.plusMillis(refreshDuration))) {
             throw new AppException(ErrorCode.UNAUTHORIZED_REQUEST);
         }
 
-        String email = jwtService.extractUsername(token);
+        String email = claims.getSubject();
 
         User user = userRepository.findByEmailAndIsActive(email, true)
                 .orElseThrow(() -> new AppException(ErrorCode.UNAUTHORIZED_REQUEST));
@@ -155,4 +165,12 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                 .build();
 
     }
+
+    private Claims getVerifiedClaims(HttpServletRequest request, String token) {
+        Object claims = request.getAttribute(JWTService.VERIFIED_CLAIMS_ATTRIBUTE);
+        if (claims instanceof Claims verifiedClaims) {
+            return verifiedClaims;
+        }
+        return jwtService.verifyToken(token);
+    }
 }
@@ -0,0 +1,143 @@
+package com.rookies.ecommerce.service.authentication;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rookies.ecommerce.exception.AppException;
+import com.rookies.ecommerce.exception.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory token buckets for login attempts, one set keyed by client IP and one by email and client IP.
+ * Every attempt takes a token from the IP bucket before any password verification happens. The email
+ * bucket is only charged by failed attempts, so neither a user's own logins nor another client's
+ * guesses can lock them out.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class LoginThrottle {
+
+    Cache<String, TokenBucket> ipBuckets;
+
+    Cache<String, TokenBucket> emailBuckets;
+
+    int ipCapacity;
+
+    int ipRefillPerMinute;
+
+    int emailCapacity;
+
+    int emailRefillPerMinute;
+
+    Counter ipRejectedCounter;
+
+    Counter emailRejectedCounter;
+
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${security.login-throttle.ip.capacity}") int ipCapacity,
+                         @Value("${security.login-throttle.ip.refill-per-minute}") int ipRefillPerMinute,
+                         @Value("${security.login-throttle.email.capacity}") int emailCapacity,
+                         @Value("${security.login-throttle.email.refill-per-minute}") int emailRefillPerMinute,
+                         @Value("${security.login-throttle.max-keys}") long maxKeys,
+                         @Value("${security.login-throttle.idle-expiry-ms}") long idleExpiryMillis) {
+        this.ipBuckets = newBucketCache(maxKeys, idleExpiryMillis);
+        this.emailBuckets = newBucketCache(maxKeys, idleExpiryMillis);
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerMinute = ipRefillPerMinute;
+        this.emailCapacity = emailCapacity;
+        this.emailRefillPerMinute = emailRefillPerMinute;
+        this.ipRejectedCounter = meterRegistry.counter("login_throttle.rejected", "key", "ip");
+        this.emailRejectedCounter = meterRegistry.counter("login_throttle.rejected", "key", "email");
+    }
+
+    private static Cache<String, TokenBucket> newBucketCache(long maxKeys, long idleExpiryMillis) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofMillis(idleExpiryMillis))
+                .build();
+    }
+
+    /**
+     * Takes one login attempt from the bucket of the given client IP and checks that the email has
+     * failed attempts left from that IP. Does not charge the email bucket; see {@link #recordFailure}.
+     *
+     * @throws AppException with {@link ErrorCode#TOO_MANY_REQUESTS} when either bucket is empty
+     */
+    public void acquire(String email, String clientIp) {
+        long now = System.nanoTime();
+
+        TokenBucket ipBucket = ipBuckets.get(clientIp, key -> new TokenBucket(ipCapacity, ipRefillPerMinute, now));
+        if (!ipBucket.tryConsume(now)) {
+            ipRejectedCounter.increment();
+            throw new AppException(ErrorCode.TOO_MANY_REQUESTS);
+        }
+
+        TokenBucket emailBucket = emailBuckets.getIfPresent(emailKey(email, clientIp));
+        if (emailBucket != null && !emailBucket.hasToken(now)) {
+            emailRejectedCounter.increment();
+            throw new AppException(ErrorCode.TOO_MANY_REQUESTS);
+        }
+    }
+
+    /**
+     * Charges a failed login attempt to the bucket of the given email and client IP.
+     */
+    public void recordFailure(String email, String clientIp) {
+        long now = System.nanoTime();
+        emailBuckets.get(emailKey(email, clientIp), key -> new TokenBucket(emailCapacity, emailRefillPerMinute, now))
+                .tryConsume(now);
+    }
+
+    private static String emailKey(String email, String clientIp) {
+        return email.trim().toLowerCase(Locale.ROOT) + '|' + clientIp;
+    }
+
+    private static final class TokenBucket {
+
+        private final double capacity;
+
+        private final double tokensPerNano;
+
+        private double tokens;
+
+        private long lastRefillNanos;
+
+        private TokenBucket(int capacity, int refillPerMinute, long now) {
+            this.capacity = capacity;
+            this.tokensPerNano = (double) refillPerMinute / TimeUnit.MINUTES.toNanos(1);
+            this.tokens = capacity;
+            this.lastRefillNanos = now;
+        }
+
+        private synchronized boolean hasToken(long now) {
+            refill(now);
+            return tokens >= 1;
+        }
+
+        private synchronized boolean tryConsume(long now) {
+            refill(now);
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+
+        private void refill(long now) {
+            if (now > lastRefillNanos) {
+                tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+                lastRefillNanos = now;
+            }
+        }
+
+    }
+
+}
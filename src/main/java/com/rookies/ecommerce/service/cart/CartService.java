@@ -4,13 +4,13 @@ import com.rookies.ecommerce.dto.request.CreateUpdateCartItemRequest;
 import com.rookies.ecommerce.dto.request.RemoveCartItemRequest;
 import com.rookies.ecommerce.dto.response.CartDetailResponse;
 import com.rookies.ecommerce.dto.response.CartQuantityResponse;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 public interface CartService {
 
     CartQuantityResponse addToCart(CreateUpdateCartItemRequest request);
 
-    Page<CartDetailResponse> getCartDetail(int page, int size, String sortBy, String sortDir);
+    Slice<CartDetailResponse> getCartDetail(int page, int size, String sortBy, String sortDir, boolean withTotal);
 
     CartQuantityResponse updateCart(CreateUpdateCartItemRequest request);
 
@@ -4,21 +4,21 @@ import com.rookies.ecommerce.dto.request.CreateUpdateCartItemRequest;
 import com.rookies.ecommerce.dto.request.RemoveCartItemRequest;
 import com.rookies.ecommerce.dto.response.CartDetailResponse;
 import com.rookies.ecommerce.dto.response.CartQuantityResponse;
-import com.rookies.ecommerce.entity.Cart;
 import com.rookies.ecommerce.entity.CartItem;
 import com.rookies.ecommerce.entity.Product;
-import com.rookies.ecommerce.entity.User;
 import com.rookies.ecommerce.exception.AppException;
 import com.rookies.ecommerce.exception.ErrorCode;
 import com.rookies.ecommerce.mapper.CartItemMapper;
 import com.rookies.ecommerce.repository.CartItemRepository;
+import com.rookies.ecommerce.repository.CartRepository;
 import com.rookies.ecommerce.service.product.ProductService;
+import com.rookies.ecommerce.service.user.CurrentUser;
 import com.rookies.ecommerce.service.user.UserService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -32,6 +32,8 @@ public class CartServiceImpl implements CartService{
 
     CartItemRepository cartItemRepository;
 
+    CartRepository cartRepository;
+
     UserService userService;
 
     ProductService productService;
@@ -41,20 +43,18 @@ public class CartServiceImpl implements CartService{
     @Override
     @Transactional(rollbackFor = Exception.class)
     public CartQuantityResponse addToCart(CreateUpdateCartItemRequest request) {
-        User user = userService.getUserFromToken();
+        CurrentUser currentUser = userService.getCurrentUser();
         Product product = productService.getProductEntityById(request.getProductId());
 
         if (product.getAvailableQuantity() < request.getQuantity()) {
             throw new AppException(ErrorCode.QUANTITY_EXCEED);
         }
 
-        Cart cart = user.getCustomer().getCart();
-
-        CartItem cartItem = cartItemRepository.findByCartAndProduct(cart, product);
+        CartItem cartItem = cartItemRepository.findByCartIdAndProductId(currentUser.cartId(), product.getId());
 
         if (cartItem == null) {
             cartItem = CartItem.builder()
-                    .cart(cart)
+                    .cart(cartRepository.getReferenceById(currentUser.cartId()))
                     .product(product)
                     .quantity(request.getQuantity())
                     .build();
@@ -69,27 +69,28 @@ public class CartServiceImpl implements CartService{
         cartItemRepository.save(cartItem);
 
         return CartQuantityResponse.builder()
-                .count(cartItemRepository.countByCart(cart))
+                .count(cartItemRepository.countByCartId(currentUser.cartId()))
                 .build();
 
     }
 
     @Override
-    public Page<CartDetailResponse> getCartDetail(int page, int size, String sortBy, String sortDir) {
-        User user = userService.getUserFromToken();
-        Cart cart = user.getCustomer().getCart();
-
-        return cartItemRepository.findByCart(cart, PageRequest.of(page, size,
-                Sort.by(Sort.Direction.fromString(sortDir), sortBy))).map(cartItemMapper::toCartDetailResponse);
+    public Slice<CartDetailResponse> getCartDetail(int page, int size, String sortBy, String sortDir, boolean withTotal) {
+        CurrentUser currentUser = userService.getCurrentUser();
+
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(sortDir), sortBy));
+        Slice<CartItem> cartItems = withTotal
+                ? cartItemRepository.findByCartId(currentUser.cartId(), pageRequest)
+                : cartItemRepository.findSliceByCartId(currentUser.cartId(), pageRequest);
+        return cartItems.map(cartItemMapper::toCartDetailResponse);
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public CartQuantityResponse updateCart(CreateUpdateCartItemRequest request) {
-        User user = userService.getUserFromToken();
+        CurrentUser currentUser = userService.getCurrentUser();
         Product product = productService.getProductEntityById(request.getProductId());
-        Cart cart = user.getCustomer().getCart();
-        CartItem cartItem = cartItemRepository.findByCartAndProduct(cart, product);
+        CartItem cartItem = cartItemRepository.findByCartIdAndProductId(currentUser.cartId(), product.getId());
 
         if (cartItem == null) {
             throw new AppException(ErrorCode.RESOURCE_NOT_FOUND);
@@ -103,18 +104,16 @@ public class CartServiceImpl implements CartService{
         cartItemRepository.save(cartItem);
 
         return CartQuantityResponse.builder()
-                .count(cartItemRepository.countByCart(cart))
+                .count(cartItemRepository.countByCartId(currentUser.cartId()))
                 .build();
     }
 
     @Override
     public CartQuantityResponse removeCartItem(RemoveCartItemRequest request) {
-        User user = userService.getUserFromToken();
-        Cart cart = user.getCustomer().getCart();
+        CurrentUser currentUser = userService.getCurrentUser();
 
         for (UUID id: request.getProductIds()) {
-            Product product = productService.getProductEntityById(id);
-            CartItem cartItem = cartItemRepository.findByCartAndProduct(cart, product);
+            CartItem cartItem = cartItemRepository.findByCartIdAndProductId(currentUser.cartId(), id);
 
             if (cartItem == null) {
                 throw new AppException(ErrorCode.RESOURCE_NOT_FOUND);
@@ -124,7 +123,7 @@ public class CartServiceImpl implements CartService{
         }
 
         return CartQuantityResponse.builder()
-                .count(cartItemRepository.countByCart(cart))
+                .count(cartItemRepository.countByCartId(currentUser.cartId()))
                 .build();
 
     }
@@ -0,0 +1,192 @@
+package com.rookies.ecommerce.service.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rookies.ecommerce.dto.response.APIResponse;
+import com.rookies.ecommerce.event.CategoryChangedEvent;
+import com.rookies.ecommerce.event.FeaturedProductChangedEvent;
+import com.rookies.ecommerce.event.ProductChangedEvent;
+import com.rookies.ecommerce.event.ProductsImportedEvent;
+import com.rookies.ecommerce.utils.ETagUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of serialized {@link APIResponse} bodies for catalog endpoints that return the same
+ * payload to every visitor, with a gzip variant compressed once at the best compression level.
+ * <p>
+ * Entries are keyed by endpoint, parameters and the generations of the {@link CatalogSection}s
+ * the response is built from, so a product write does not discard the categories body. Each
+ * section has two generations: one bumped when a change to it commits, and the
+ * {@link CatalogSnapshotService} one, bumped when the snapshot applies it some time later; a body
+ * loaded in between is no longer served once the snapshot has the change. Entries of older
+ * generations are left to expire after {@code catalog.response-cache.ttl-ms}, which also picks up
+ * writes made by other instances.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CatalogResponseCache {
+
+    private static final String GZIP = "gzip";
+
+    private static final Pattern NOT_ACCEPTABLE = Pattern.compile("q=0(\\.0{0,3})?");
+
+    ObjectMapper objectMapper;
+
+    CatalogSnapshotService catalogSnapshotService;
+
+    Cache<Key, Body> bodies;
+
+    Map<CatalogSection, AtomicLong> committed = new EnumMap<>(CatalogSection.class);
+
+    public CatalogResponseCache(ObjectMapper objectMapper, CatalogSnapshotService catalogSnapshotService,
+                                MeterRegistry meterRegistry,
+                                @Value("${catalog.response-cache.max-size}") long maxSize,
+                                @Value("${catalog.response-cache.ttl-ms}") long ttlMillis) {
+        this.objectMapper = objectMapper;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.bodies = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, bodies, "catalog_response");
+        for (CatalogSection section : CatalogSection.values()) {
+            committed.put(section, new AtomicLong());
+        }
+    }
+
+    /**
+     * Returns the cached body for the endpoint and parameters, serializing the response from
+     * {@code loader} on a miss. {@code sections} are the parts of the catalog the response is built
+     * from; a change to any other part keeps the cached body.
+     */
+    public Body get(String endpoint, List<?> params, Set<CatalogSection> sections, Supplier<APIResponse> loader) {
+        // read before loading: the loader then sees these generations or newer ones, never older ones
+        List<Long> generations = new ArrayList<>(sections.size() * 2);
+        for (CatalogSection section : CatalogSection.values()) {
+            if (!sections.contains(section)) {
+                continue;
+            }
+            generations.add(committed.get(section).get());
+            generations.add(catalogSnapshotService.generation(section));
+        }
+        return bodies.get(new Key(endpoint, List.copyOf(params), generations), key -> serialize(loader.get()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        committed.get(CatalogSection.PRODUCTS).incrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        committed.get(CatalogSection.PRODUCTS).incrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        committed.get(CatalogSection.CATEGORIES).incrementAndGet();
+        // product responses carry the category name
+        committed.get(CatalogSection.PRODUCTS).incrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFeaturedProductChanged(FeaturedProductChangedEvent event) {
+        committed.get(CatalogSection.FEATURED).incrementAndGet();
+    }
+
+    private Body serialize(APIResponse response) {
+        try {
+            byte[] identity = objectMapper.writeValueAsBytes(response);
+            byte[] gzip = gzip(identity);
+            return new Body(identity, gzip.length < identity.length ? gzip : null,
+                    ETagUtil.weak(DigestUtils.md5DigestAsHex(identity)));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize catalog response", ex);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(bytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase(GZIP) || parts[0].trim().equals("*")) {
+                for (int i = 1; i < parts.length; i++) {
+                    if (NOT_ACCEPTABLE.matcher(parts[i].trim()).matches()) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Key(String endpoint, List<?> params, List<Long> generations) {
+    }
+
+    /**
+     * A serialized response body, with its gzip variant when compressing made it smaller, and an
+     * entity tag computed from the bytes, so the tag always describes the body that is served.
+     */
+    public record Body(byte[] identity, byte[] gzip, String etag) {
+
+        /**
+         * Completes {@code builder} with the variant matching the request's {@code Accept-Encoding};
+         * the bytes are written to the response as they are.
+         */
+        public ResponseEntity<byte[]> toResponse(ResponseEntity.BodyBuilder builder, String acceptEncoding) {
+            builder.contentType(MediaType.APPLICATION_JSON).varyBy(HttpHeaders.ACCEPT_ENCODING);
+            if (gzip != null && acceptsGzip(acceptEncoding)) {
+                return builder.header(HttpHeaders.CONTENT_ENCODING, GZIP).contentLength(gzip.length).body(gzip);
+            }
+            return builder.contentLength(identity.length).body(identity);
+        }
+
+    }
+
+}
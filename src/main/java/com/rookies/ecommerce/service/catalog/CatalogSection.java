@@ -0,0 +1,15 @@
+package com.rookies.ecommerce.service.catalog;
+
+/**
+ * The parts of the public catalog that change independently, so that cached responses built from
+ * one part are kept when another part changes.
+ */
+public enum CatalogSection {
+
+    PRODUCTS,
+
+    CATEGORIES,
+
+    FEATURED
+
+}
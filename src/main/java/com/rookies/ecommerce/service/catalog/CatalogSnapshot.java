@@ -0,0 +1,376 @@
+package com.rookies.ecommerce.service.catalog;
+
+import com.rookies.ecommerce.dto.response.FeaturedProductResponse;
+import com.rookies.ecommerce.dto.response.ProductResponse;
+import com.rookies.ecommerce.entity.Category;
+import com.rookies.ecommerce.utils.TextUtil;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.sql.Date;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * An immutable view of the public catalog: active products, active categories and featured
+ * entries, with the product listings pre-sorted by every sortable field. A snapshot is never
+ * modified; changes produce a new snapshot through the {@code with...} methods, which update the
+ * sorted listings instead of sorting them again.
+ */
+public final class CatalogSnapshot {
+
+    static final Map<String, Comparator<ProductEntry>> PRODUCT_ORDERS = Map.of(
+            "name", Comparator.comparing((ProductEntry entry) -> entry.response().getName(),
+                    TextUtil.NAME_ORDER),
+            "price", Comparator.comparingDouble((ProductEntry entry) -> entry.response().getPrice()),
+            "availableQuantity", Comparator.comparingInt((ProductEntry entry) -> entry.response().getAvailableQuantity()),
+            "createdAt", Comparator.comparing(ProductEntry::createdAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+    );
+
+    static final Map<String, Comparator<FeaturedEntry>> FEATURED_ORDERS = Map.of(
+            "createdAt", Comparator.comparing(FeaturedEntry::createdAt, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "startDate", Comparator.comparing(FeaturedEntry::startDate, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "endDate", Comparator.comparing(FeaturedEntry::endDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+    );
+
+    // product changes up to this size are applied by binary search; larger ones are merged in one pass
+    private static final int BINARY_SEARCH_LIMIT = 16;
+
+    private final Instant builtAt;
+
+    private final Map<UUID, ProductEntry> products;
+
+    private final Map<String, List<ProductEntry>> sortedProducts;
+
+    private final Map<UUID, Map<String, List<ProductEntry>>> sortedProductsByCategory;
+
+    private final List<Category> categories;
+
+    private final Map<UUID, Category> categoriesById;
+
+    private final Map<String, Category> categoriesBySlug;
+
+    private final Map<UUID, FeaturedEntry> featured;
+
+    private CatalogSnapshot(Instant builtAt, Map<UUID, ProductEntry> products,
+                            Map<String, List<ProductEntry>> sortedProducts,
+                            Map<UUID, Map<String, List<ProductEntry>>> sortedProductsByCategory,
+                            List<Category> categories, Map<UUID, FeaturedEntry> featured) {
+        this.builtAt = builtAt;
+        this.products = products;
+        this.sortedProducts = sortedProducts;
+        this.sortedProductsByCategory = sortedProductsByCategory;
+        this.categories = categories.stream()
+                .sorted(Comparator.comparing(Category::getName, TextUtil.NAME_ORDER).thenComparing(Category::getId))
+                .toList();
+        this.categoriesById = this.categories.stream()
+                .collect(Collectors.toUnmodifiableMap(Category::getId, Function.identity()));
+        this.categoriesBySlug = this.categories.stream()
+                .filter(category -> category.getSlug() != null)
+                .collect(Collectors.toUnmodifiableMap(Category::getSlug, Function.identity(), (first, second) -> first));
+        this.featured = featured;
+    }
+
+    /**
+     * Builds a snapshot from scratch, sorting the products by every sortable field.
+     */
+    public static CatalogSnapshot of(Instant builtAt, Map<UUID, ProductEntry> products, List<Category> categories,
+                              Map<UUID, FeaturedEntry> featured) {
+        Map<String, List<ProductEntry>> sorted = new HashMap<>();
+        Map<UUID, Map<String, List<ProductEntry>>> sortedByCategory = new HashMap<>();
+        PRODUCT_ORDERS.forEach((field, order) -> {
+            List<ProductEntry> all = products.values().stream()
+                    .sorted(order.thenComparing(ProductEntry::id))
+                    .toList();
+            sorted.put(field, all);
+            all.stream()
+                    .filter(entry -> entry.categoryId() != null)
+                    .collect(Collectors.groupingBy(ProductEntry::categoryId, Collectors.toUnmodifiableList()))
+                    .forEach((categoryId, entries) -> sortedByCategory
+                            .computeIfAbsent(categoryId, key -> new HashMap<>())
+                            .put(field, entries));
+        });
+        sortedByCategory.replaceAll((categoryId, lists) -> Map.copyOf(lists));
+        return new CatalogSnapshot(builtAt, Map.copyOf(products), Map.copyOf(sorted), Map.copyOf(sortedByCategory),
+                categories, Map.copyOf(featured));
+    }
+
+    public Instant builtAt() {
+        return builtAt;
+    }
+
+    /**
+     * Returns a page of active products, of a single category when {@code categoryId} is not null,
+     * or empty when the pageable is not sorted by exactly one of the pre-sorted fields.
+     */
+    public Optional<Slice<ProductResponse>> products(UUID categoryId, Pageable pageable, boolean withTotal) {
+        Sort.Order order = singleOrder(pageable.getSort());
+        if (order == null || !PRODUCT_ORDERS.containsKey(order.getProperty())) {
+            return Optional.empty();
+        }
+
+        List<ProductEntry> sorted = categoryId == null
+                ? sortedProducts.get(order.getProperty())
+                : sortedProductsByCategory.getOrDefault(categoryId, Map.of())
+                        .getOrDefault(order.getProperty(), List.of());
+        return Optional.of(page(sorted, order.isDescending(), pageable, withTotal, ProductEntry::response));
+    }
+
+    /**
+     * Returns a page of the featured entries active at {@code now} whose product is active, or empty
+     * when the pageable is not sorted by exactly one of createdAt, startDate or endDate.
+     */
+    public Optional<Slice<FeaturedProductResponse>> activeFeatured(java.util.Date now, Pageable pageable,
+                                                                   boolean withTotal) {
+        Sort.Order order = singleOrder(pageable.getSort());
+        if (order == null || !FEATURED_ORDERS.containsKey(order.getProperty())) {
+            return Optional.empty();
+        }
+
+        List<FeaturedEntry> active = featured.values().stream()
+                .filter(entry -> products.containsKey(entry.productId()))
+                .filter(entry -> entry.startDate() != null && !entry.startDate().after(now))
+                .filter(entry -> entry.endDate() != null && !entry.endDate().before(now))
+                .sorted(FEATURED_ORDERS.get(order.getProperty()).thenComparing(FeaturedEntry::id))
+                .toList();
+        return Optional.of(page(active, order.isDescending(), pageable, withTotal, entry ->
+                FeaturedProductResponse.builder()
+                        .id(entry.id())
+                        .startDate(entry.startDate())
+                        .endDate(entry.endDate())
+                        .description(entry.description())
+                        .product(products.get(entry.productId()).response())
+                        .build()));
+    }
+
+    public List<Category> categories() {
+        return categories;
+    }
+
+    public Optional<Category> categoryBySlug(String slug) {
+        return Optional.ofNullable(categoriesBySlug.get(slug));
+    }
+
+    public Optional<Category> category(UUID categoryId) {
+        return Optional.ofNullable(categoriesById.get(categoryId));
+    }
+
+    public boolean hasCategory(UUID categoryId) {
+        return categoriesById.containsKey(categoryId);
+    }
+
+    public Optional<ProductEntry> product(UUID productId) {
+        return Optional.ofNullable(products.get(productId));
+    }
+
+    public Collection<ProductEntry> productEntries() {
+        return products.values();
+    }
+
+    /**
+     * Returns the ids of the products added, changed or removed since {@code previous}. Entries
+     * that were not changed are shared between the snapshots, so most comparisons are by identity.
+     */
+    public Set<UUID> changedProductIds(CatalogSnapshot previous) {
+        Set<UUID> changed = new HashSet<>();
+        products.forEach((productId, entry) -> {
+            if (!entry.equals(previous.products.get(productId))) {
+                changed.add(productId);
+            }
+        });
+        previous.products.keySet().stream()
+                .filter(productId -> !products.containsKey(productId))
+                .forEach(changed::add);
+        return changed;
+    }
+
+    public boolean sameFeatured(CatalogSnapshot previous) {
+        return featured.equals(previous.featured);
+    }
+
+    /**
+     * Returns the ids of the categories added, changed or removed since {@code previous}. Categories
+     * are reloaded as new instances, so they are compared by their fields and modification time.
+     */
+    public Set<UUID> changedCategoryIds(CatalogSnapshot previous) {
+        Set<UUID> changed = new HashSet<>();
+        categoriesById.forEach((categoryId, category) -> {
+            Category before = previous.categoriesById.get(categoryId);
+            if (before == null || !Objects.equals(before.getName(), category.getName())
+                    || !Objects.equals(before.getSlug(), category.getSlug())
+                    || !Objects.equals(before.getDescription(), category.getDescription())
+                    || !Objects.equals(before.getUpdatedAt(), category.getUpdatedAt())) {
+                changed.add(categoryId);
+            }
+        });
+        previous.categoriesById.keySet().stream()
+                .filter(categoryId -> !categoriesById.containsKey(categoryId))
+                .forEach(changed::add);
+        return changed;
+    }
+
+    /**
+     * Returns a snapshot with the given products replaced, or removed where the entry is null. Only
+     * the changed entries are removed from and inserted into the sorted lists; lists of categories
+     * without changes are shared with this snapshot.
+     */
+    CatalogSnapshot withProducts(Map<UUID, ProductEntry> changes) {
+        if (changes.isEmpty()) {
+            return this;
+        }
+        Map<UUID, ProductEntry> copy = new HashMap<>(products);
+        List<ProductEntry> removed = new ArrayList<>();
+        List<ProductEntry> added = new ArrayList<>();
+        Set<UUID> changedCategories = new HashSet<>();
+        changes.forEach((productId, entry) -> {
+            ProductEntry previous = entry == null ? copy.remove(productId) : copy.put(productId, entry);
+            if (previous != null) {
+                removed.add(previous);
+                changedCategories.add(previous.categoryId());
+            }
+            if (entry != null) {
+                added.add(entry);
+                changedCategories.add(entry.categoryId());
+            }
+        });
+        changedCategories.remove(null);
+
+        Map<String, List<ProductEntry>> sorted = new HashMap<>();
+        PRODUCT_ORDERS.forEach((field, order) -> sorted.put(field,
+                update(sortedProducts.get(field), order.thenComparing(ProductEntry::id), removed, added)));
+
+        Map<UUID, Map<String, List<ProductEntry>>> sortedByCategory = new HashMap<>(sortedProductsByCategory);
+        for (UUID categoryId : changedCategories) {
+            List<ProductEntry> removedInCategory = inCategory(removed, categoryId);
+            List<ProductEntry> addedInCategory = inCategory(added, categoryId);
+            Map<String, List<ProductEntry>> previousLists = sortedProductsByCategory.getOrDefault(categoryId, Map.of());
+            Map<String, List<ProductEntry>> lists = new HashMap<>();
+            PRODUCT_ORDERS.forEach((field, order) -> lists.put(field,
+                    update(previousLists.getOrDefault(field, List.of()), order.thenComparing(ProductEntry::id),
+                            removedInCategory, addedInCategory)));
+            if (lists.values().iterator().next().isEmpty()) {
+                sortedByCategory.remove(categoryId);
+            } else {
+                sortedByCategory.put(categoryId, Map.copyOf(lists));
+            }
+        }
+        return new CatalogSnapshot(builtAt, Collections.unmodifiableMap(copy), Map.copyOf(sorted),
+                Collections.unmodifiableMap(sortedByCategory), categories, featured);
+    }
+
+    /**
+     * Returns a snapshot with the given categories replaced, or removed where the category is null,
+     * and the category name of their products updated.
+     */
+    CatalogSnapshot withCategories(Map<UUID, Category> changes) {
+        if (changes.isEmpty()) {
+            return this;
+        }
+        List<Category> copy = new ArrayList<>(categories);
+        copy.removeIf(existing -> changes.containsKey(existing.getId()));
+        changes.values().stream().filter(Objects::nonNull).forEach(copy::add);
+
+        Map<UUID, ProductEntry> renamed = new HashMap<>();
+        changes.forEach((categoryId, category) -> {
+            if (category == null) {
+                return;
+            }
+            for (ProductEntry entry : sortedProductsByCategory.getOrDefault(categoryId, Map.of())
+                    .getOrDefault("name", List.of())) {
+                if (!Objects.equals(category.getName(), entry.response().getCategoryName())) {
+                    renamed.put(entry.id(), new ProductEntry(entry.id(),
+                            entry.response().toBuilder().categoryName(category.getName()).build(),
+                            entry.categoryId(), entry.createdAt(), entry.description()));
+                }
+            }
+        });
+        return new CatalogSnapshot(builtAt, products, sortedProducts, sortedProductsByCategory, copy, featured)
+                .withProducts(renamed);
+    }
+
+    CatalogSnapshot withFeatured(Map<UUID, FeaturedEntry> featured) {
+        return new CatalogSnapshot(builtAt, products, sortedProducts, sortedProductsByCategory, categories,
+                Map.copyOf(featured));
+    }
+
+    private static List<ProductEntry> inCategory(List<ProductEntry> entries, UUID categoryId) {
+        return entries.stream().filter(entry -> categoryId.equals(entry.categoryId())).toList();
+    }
+
+    /**
+     * Returns {@code sorted} without the {@code removed} entries and with the {@code added} ones at
+     * their sorted positions. The order must be total, so every entry has exactly one position.
+     */
+    private static List<ProductEntry> update(List<ProductEntry> sorted, Comparator<ProductEntry> order,
+                                             List<ProductEntry> removed, List<ProductEntry> added) {
+        if (removed.isEmpty() && added.isEmpty()) {
+            return sorted;
+        }
+        if (removed.size() + added.size() <= BINARY_SEARCH_LIMIT) {
+            List<ProductEntry> result = new ArrayList<>(sorted);
+            for (ProductEntry entry : removed) {
+                int index = Collections.binarySearch(result, entry, order);
+                if (index >= 0) {
+                    result.remove(index);
+                }
+            }
+            for (ProductEntry entry : added) {
+                int index = Collections.binarySearch(result, entry, order);
+                result.add(index < 0 ? -index - 1 : index, entry);
+            }
+            return Collections.unmodifiableList(result);
+        }
+
+        Set<ProductEntry> removedEntries = Collections.newSetFromMap(new IdentityHashMap<>());
+        removedEntries.addAll(removed);
+        List<ProductEntry> additions = added.stream().sorted(order).toList();
+        List<ProductEntry> result = new ArrayList<>(sorted.size() + additions.size());
+        int next = 0;
+        for (ProductEntry entry : sorted) {
+            if (removedEntries.contains(entry)) {
+                continue;
+            }
+            while (next < additions.size() && order.compare(additions.get(next), entry) < 0) {
+                result.add(additions.get(next++));
+            }
+            result.add(entry);
+        }
+        result.addAll(additions.subList(next, additions.size()));
+        return Collections.unmodifiableList(result);
+    }
+
+    private static Sort.Order singleOrder(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        return orders.size() == 1 ? orders.get(0) : null;
+    }
+
+    private static <E, R> Slice<R> page(List<E> sorted, boolean descending, Pageable pageable, boolean withTotal,
+                                        Function<E, R> mapper) {
+        int from = (int) Math.min(pageable.getOffset(), sorted.size());
+        int to = Math.min(from + pageable.getPageSize(), sorted.size());
+        List<R> content = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            content.add(mapper.apply(sorted.get(descending ? sorted.size() - 1 - i : i)));
+        }
+        return withTotal
+                ? new PageImpl<>(content, pageable, sorted.size())
+                : new SliceImpl<>(content, pageable, to < sorted.size());
+    }
+
+    /**
+     * An active product: its listing response, and the full description for the search index.
+     */
+    public record ProductEntry(UUID id, ProductResponse response, UUID categoryId, Instant createdAt,
+                               String description) {
+    }
+
+    record FeaturedEntry(UUID id, UUID productId, String description, Date startDate, Date endDate,
+                         Instant createdAt) {
+    }
+
+}
@@ -0,0 +1,310 @@
+package com.rookies.ecommerce.service.catalog;
+
+import com.rookies.ecommerce.entity.Category;
+import com.rookies.ecommerce.entity.FeaturedProduct;
+import com.rookies.ecommerce.entity.Product;
+import com.rookies.ecommerce.event.CatalogSnapshotChangedEvent;
+import com.rookies.ecommerce.event.CategoryChangedEvent;
+import com.rookies.ecommerce.event.FeaturedProductChangedEvent;
+import com.rookies.ecommerce.event.ProductChangedEvent;
+import com.rookies.ecommerce.event.ProductsImportedEvent;
+import com.rookies.ecommerce.mapper.ProductMapper;
+import com.rookies.ecommerce.repository.CategoryRepository;
+import com.rookies.ecommerce.repository.FeaturedProductRepository;
+import com.rookies.ecommerce.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Holds the current {@link CatalogSnapshot} for the public read endpoints. Committed product,
+ * category and featured product writes produce a new snapshot that replaces the current one
+ * (copy-on-write), so readers never lock and never see a partially applied change.
+ * <p>
+ * Changes are collected as they commit and applied on a single background thread; all changes
+ * that arrived since the last swap are loaded together and produce one new snapshot. A full
+ * rebuild from the database every {@code catalog.snapshot.refresh-interval-ms} picks up writes
+ * made by other instances. A snapshot older than {@code catalog.snapshot.max-staleness-ms}, or with
+ * changes waiting longer than that, is not served, so callers fall back to the database.
+ * <p>
+ * Every swap publishes a {@link CatalogSnapshotChangedEvent} with what changed, from which the
+ * search, suggest and facet indexes are kept up to date without loading products themselves.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CatalogSnapshotService {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    ProductRepository productRepository;
+
+    CategoryRepository categoryRepository;
+
+    FeaturedProductRepository featuredProductRepository;
+
+    ProductMapper productMapper;
+
+    ApplicationEventPublisher eventPublisher;
+
+    Duration maxStaleness;
+
+    AtomicReference<CatalogSnapshot> snapshot = new AtomicReference<>();
+
+    AtomicBoolean rebuildQueued = new AtomicBoolean();
+
+    AtomicBoolean changesQueued = new AtomicBoolean();
+
+    Set<UUID> pendingProducts = ConcurrentHashMap.newKeySet();
+
+    Set<UUID> pendingCategories = ConcurrentHashMap.newKeySet();
+
+    AtomicBoolean pendingFeatured = new AtomicBoolean();
+
+    // when the oldest change not yet applied was committed, or null when there is none
+    AtomicReference<Instant> pendingSince = new AtomicReference<>();
+
+    Map<CatalogSection, AtomicLong> generations = new EnumMap<>(CatalogSection.class);
+
+    ExecutorService writer = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("catalog-snapshot-"));
+
+    public CatalogSnapshotService(ProductRepository productRepository, CategoryRepository categoryRepository,
+                                  FeaturedProductRepository featuredProductRepository, ProductMapper productMapper,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${catalog.snapshot.max-staleness-ms}") long maxStalenessMillis) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.featuredProductRepository = featuredProductRepository;
+        this.productMapper = productMapper;
+        this.eventPublisher = eventPublisher;
+        this.maxStaleness = Duration.ofMillis(maxStalenessMillis);
+        for (CatalogSection section : CatalogSection.values()) {
+            generations.put(section, new AtomicLong());
+        }
+    }
+
+    /**
+     * Returns the current snapshot, or empty while the first one is being built, when the last
+     * full rebuild is older than the staleness bound, or when committed changes have been waiting
+     * to be applied for longer than that.
+     */
+    public Optional<CatalogSnapshot> current() {
+        CatalogSnapshot current = snapshot.get();
+        Instant staleBefore = Instant.now().minus(maxStaleness);
+        Instant oldestPending = pendingSince.get();
+        if (current == null || current.builtAt().isBefore(staleBefore)
+                || oldestPending != null && oldestPending.isBefore(staleBefore)) {
+            return Optional.empty();
+        }
+        return Optional.of(current);
+    }
+
+    /**
+     * Returns a number that changes whenever a new snapshot changes the data of {@code section}.
+     */
+    public long generation(CatalogSection section) {
+        return generations.get(section).get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${catalog.snapshot.refresh-interval-ms}",
+            initialDelayString = "${catalog.snapshot.refresh-interval-ms}")
+    public void scheduleRebuild() {
+        if (rebuildQueued.compareAndSet(false, true)) {
+            writer.execute(() -> {
+                rebuildQueued.set(false);
+                rebuild();
+            });
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        pendingProducts.add(event.productId());
+        scheduleChanges();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        pendingProducts.addAll(event.productIds());
+        scheduleChanges();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        pendingCategories.add(event.categoryId());
+        scheduleChanges();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFeaturedProductChanged(FeaturedProductChangedEvent event) {
+        pendingFeatured.set(true);
+        scheduleChanges();
+    }
+
+    private void scheduleChanges() {
+        pendingSince.compareAndSet(null, Instant.now());
+        // at most one task is queued; it applies every change that arrived before it runs
+        if (changesQueued.compareAndSet(false, true)) {
+            writer.execute(() -> {
+                changesQueued.set(false);
+                pendingSince.set(null);
+                applyChanges(take(pendingCategories), take(pendingProducts), pendingFeatured.getAndSet(false));
+            });
+        }
+    }
+
+    private static List<UUID> take(Set<UUID> pending) {
+        List<UUID> taken = new ArrayList<>();
+        for (Iterator<UUID> it = pending.iterator(); it.hasNext(); ) {
+            taken.add(it.next());
+            it.remove();
+        }
+        return taken;
+    }
+
+    public void rebuild() {
+        try {
+            long start = System.nanoTime();
+            Map<UUID, CatalogSnapshot.ProductEntry> products = new HashMap<>();
+            UUID lastId = new UUID(0L, 0L);
+            List<Product> batch;
+            do {
+                batch = productRepository.findByIsDeletedAndIdGreaterThanOrderByIdAsc(false, lastId,
+                        Limit.of(LOAD_BATCH_SIZE));
+                batch.forEach(product -> products.put(product.getId(), toEntry(product)));
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+
+            CatalogSnapshot previous = snapshot.get();
+            CatalogSnapshot next = CatalogSnapshot.of(Instant.now(), products,
+                    categoryRepository.findAllByIsDeletedOrderByNameAsc(false), loadFeatured());
+            swap(previous, next);
+            log.info("Built catalog snapshot with {} products in {} ms", products.size(),
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } catch (RuntimeException ex) {
+            log.warn("Could not rebuild the catalog snapshot, keeping the previous one", ex);
+        }
+    }
+
+    /**
+     * Loads the given categories and products, and the featured entries when {@code reloadFeatured}
+     * is set, and replaces the current snapshot with one new snapshot containing all of them.
+     */
+    public void applyChanges(Collection<UUID> categoryIds, Collection<UUID> productIds, boolean reloadFeatured) {
+        if (categoryIds.isEmpty() && productIds.isEmpty() && !reloadFeatured) {
+            return;
+        }
+        update(current -> {
+            Map<UUID, Category> categories = new HashMap<>();
+            categoryIds.forEach(categoryId -> categories.put(categoryId, null));
+            if (!categoryIds.isEmpty()) {
+                categoryRepository.findAllById(categoryIds).stream()
+                        .filter(category -> !category.isDeleted())
+                        .forEach(category -> categories.put(category.getId(), category));
+            }
+
+            Map<UUID, CatalogSnapshot.ProductEntry> products = new HashMap<>();
+            productIds.forEach(productId -> products.put(productId, null));
+            if (!productIds.isEmpty()) {
+                productRepository.findWithCategoryByIdIn(productIds).stream()
+                        .filter(product -> !product.isDeleted())
+                        .forEach(product -> products.put(product.getId(), toEntry(product)));
+            }
+
+            CatalogSnapshot next = current.withCategories(categories).withProducts(products);
+            return reloadFeatured ? next.withFeatured(loadFeatured()) : next;
+        });
+    }
+
+    private void update(UnaryOperator<CatalogSnapshot> change) {
+        try {
+            // only the writer thread swaps snapshots, so a plain get/set cannot lose an update
+            CatalogSnapshot current = snapshot.get();
+            if (current != null) {
+                swap(current, change.apply(current));
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Could not update the catalog snapshot, it will be corrected by the next rebuild", ex);
+        }
+    }
+
+    /**
+     * Replaces the current snapshot, then advances the generation of each section that differs and
+     * tells the indexes what changed.
+     */
+    private void swap(CatalogSnapshot previous, CatalogSnapshot next) {
+        snapshot.set(next);
+        CatalogSnapshotChangedEvent event;
+        if (previous == null) {
+            event = new CatalogSnapshotChangedEvent(next, true, Set.of(), Set.of());
+            generations.values().forEach(AtomicLong::incrementAndGet);
+        } else {
+            event = new CatalogSnapshotChangedEvent(next, false, next.changedProductIds(previous),
+                    next.changedCategoryIds(previous));
+            if (!event.productIds().isEmpty()) {
+                generations.get(CatalogSection.PRODUCTS).incrementAndGet();
+            }
+            if (!event.categoryIds().isEmpty()) {
+                generations.get(CatalogSection.CATEGORIES).incrementAndGet();
+            }
+            if (!next.sameFeatured(previous)) {
+                generations.get(CatalogSection.FEATURED).incrementAndGet();
+            }
+            if (event.productIds().isEmpty() && event.categoryIds().isEmpty()) {
+                return;
+            }
+        }
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException ex) {
+            log.warn("Could not apply the catalog snapshot to every index", ex);
+        }
+    }
+
+    private Map<UUID, CatalogSnapshot.FeaturedEntry> loadFeatured() {
+        Map<UUID, CatalogSnapshot.FeaturedEntry> featured = new HashMap<>();
+        for (FeaturedProduct featuredProduct : featuredProductRepository.findAllByProductIsDeleted(false)) {
+            featured.put(featuredProduct.getId(), new CatalogSnapshot.FeaturedEntry(featuredProduct.getId(),
+                    featuredProduct.getProduct().getId(), featuredProduct.getDescription(),
+                    featuredProduct.getStartDate(), featuredProduct.getEndDate(), featuredProduct.getCreatedAt()));
+        }
+        return featured;
+    }
+
+    private CatalogSnapshot.ProductEntry toEntry(Product product) {
+        UUID categoryId = product.getCategory() != null ? product.getCategory().getId() : null;
+        return new CatalogSnapshot.ProductEntry(product.getId(), productMapper.toProductDTO(product), categoryId,
+                product.getCreatedAt(), product.getDescription());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+    }
+
+}
@@ -2,15 +2,19 @@ package com.rookies.ecommerce.service.category;
 
 import com.rookies.ecommerce.dto.request.CreateUpdateCategoryRequest;
 import com.rookies.ecommerce.entity.Category;
-import com.rookies.ecommerce.entity.User;
+import com.rookies.ecommerce.event.CategoryChangedEvent;
 import com.rookies.ecommerce.exception.AppException;
 import com.rookies.ecommerce.exception.ErrorCode;
 import com.rookies.ecommerce.repository.CategoryRepository;
+import com.rookies.ecommerce.service.catalog.CatalogSnapshot;
+import com.rookies.ecommerce.service.catalog.CatalogSnapshotService;
+import com.rookies.ecommerce.service.user.CurrentUser;
 import com.rookies.ecommerce.service.user.UserService;
 import com.rookies.ecommerce.utils.SlugUtil;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,10 +30,14 @@ public class CategoryServiceImpl implements CategoryService{
 
     UserService userService;
 
+    ApplicationEventPublisher eventPublisher;
+
+    CatalogSnapshotService catalogSnapshotService;
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Category createCategory(CreateUpdateCategoryRequest request) {
-        User user = userService.getUserFromToken();
+        CurrentUser currentUser = userService.getCurrentUser();
 
         Category category = Category.builder()
                 .name(request.getName())
@@ -37,10 +45,12 @@ public class CategoryServiceImpl implements CategoryService{
                 .slug(SlugUtil.createSlug(request.getName()))
                 .build();
 
-        category.setCreatedBy(user.getId());
-        category.setModifiedBy(user.getId());
+        category.setCreatedBy(currentUser.userId());
+        category.setModifiedBy(currentUser.userId());
 
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(saved.getId()));
+        return saved;
     }
 
     @Override
@@ -51,13 +61,17 @@ public class CategoryServiceImpl implements CategoryService{
 
     @Override
     public Category getCategoryBySlug(String slug) {
-        return categoryRepository.findBySlug(slug)
+        return catalogSnapshotService.current()
+                .flatMap(snapshot -> snapshot.categoryBySlug(slug))
+                .or(() -> categoryRepository.findBySlug(slug))
                 .orElseThrow(() -> new AppException(ErrorCode.CATEGORY_NOT_FOUND));
     }
 
     @Override
     public List<Category> getActiveCategories() {
-        return categoryRepository.findAllByIsDeletedOrderByNameAsc(false);
+        return catalogSnapshotService.current()
+                .map(CatalogSnapshot::categories)
+                .orElseGet(() -> categoryRepository.findAllByIsDeletedOrderByNameAsc(false));
     }
 
     @Override
@@ -68,7 +82,7 @@ public class CategoryServiceImpl implements CategoryService{
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Category updateCategory(String id, CreateUpdateCategoryRequest request) {
-        User user = userService.getUserFromToken();
+        CurrentUser currentUser = userService.getCurrentUser();
 
         Category category = categoryRepository.findById(UUID.fromString(id))
                 .orElseThrow(() -> new AppException(ErrorCode.CATEGORY_NOT_FOUND));
@@ -76,22 +90,26 @@ public class CategoryServiceImpl implements CategoryService{
         category.setName(request.getName());
         category.setDescription(request.getDescription());
         category.setSlug(SlugUtil.createSlug(request.getName()));
-        category.setModifiedBy(user.getId());
+        category.setModifiedBy(currentUser.userId());
 
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(category.getId()));
+        return saved;
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Category toggleCategory(String id) {
-        User user = userService.getUserFromToken();
+        CurrentUser currentUser = userService.getCurrentUser();
 
         Category category = categoryRepository.findById(UUID.fromString(id))
                 .orElseThrow(() -> new AppException(ErrorCode.CATEGORY_NOT_FOUND));
 
         category.setDeleted(!category.isDeleted());
-        category.setModifiedBy(user.getId());
+        category.setModifiedBy(currentUser.userId());
 
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(category.getId()));
+        return saved;
     }
 }
@@ -0,0 +1,9 @@
+package com.rookies.ecommerce.service.exporter;
+
+import java.util.function.Function;
+
+/**
+ * A named column of an export and how to read it from a row.
+ */
+record ExportColumn<E>(String name, Function<E, Object> value) {
+}
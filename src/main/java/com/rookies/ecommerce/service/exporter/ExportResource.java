@@ -0,0 +1,12 @@
+package com.rookies.ecommerce.service.exporter;
+
+/**
+ * Data sets that can be exported.
+ */
+public enum ExportResource {
+
+    PRODUCTS,
+    REVIEWS,
+    USERS
+
+}
@@ -0,0 +1,23 @@
+package com.rookies.ecommerce.service.exporter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Service interface for exporting whole data sets.
+ */
+public interface ExportService {
+
+    /**
+     * Writes every record of a data set to the output stream. Records are read through a
+     * forward-only cursor and written as they are read, so memory use does not depend on the
+     * size of the data set.
+     *
+     * @param resource the data set to export
+     * @param format the format to write
+     * @param output the stream to write to; it is flushed but not closed
+     * @throws IOException if an error occurs while writing
+     */
+    void export(ExportResource resource, ExportFormat format, OutputStream output) throws IOException;
+
+}
@@ -0,0 +1,159 @@
+package com.rookies.ecommerce.service.exporter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rookies.ecommerce.entity.Product;
+import com.rookies.ecommerce.entity.Review;
+import com.rookies.ecommerce.repository.ProductRepository;
+import com.rookies.ecommerce.repository.ReviewRepository;
+import com.rookies.ecommerce.repository.UserRepository;
+import com.rookies.ecommerce.repository.projection.UserExportView;
+import jakarta.persistence.EntityManager;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Exports data sets from a read-only transaction over a forward-only JDBC cursor. The persistence
+ * context is cleared every {@value #CLEAR_INTERVAL} rows, so entities that were written out can be
+ * garbage collected.
+ */
+@Slf4j
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ExportServiceImpl implements ExportService {
+
+    static final int CLEAR_INTERVAL = 1000;
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private static final List<ExportColumn<Product>> PRODUCT_COLUMNS = List.of(
+            new ExportColumn<>("id", Product::getId),
+            new ExportColumn<>("name", Product::getName),
+            new ExportColumn<>("slug", Product::getSlug),
+            new ExportColumn<>("description", Product::getDescription),
+            new ExportColumn<>("price", Product::getPrice),
+            new ExportColumn<>("availableQuantity", Product::getAvailableQuantity),
+            new ExportColumn<>("imageUrl", Product::getImageUrl),
+            new ExportColumn<>("categoryId", product -> product.getCategory() != null
+                    ? product.getCategory().getId() : null),
+            new ExportColumn<>("categoryName", product -> product.getCategory() != null
+                    ? product.getCategory().getName() : null),
+            new ExportColumn<>("deleted", Product::isDeleted),
+            new ExportColumn<>("createdAt", Product::getCreatedAt),
+            new ExportColumn<>("updatedAt", Product::getUpdatedAt)
+    );
+
+    // the ids of lazy associations are read from their proxies without loading them
+    private static final List<ExportColumn<Review>> REVIEW_COLUMNS = List.of(
+            new ExportColumn<>("id", Review::getId),
+            new ExportColumn<>("productId", review -> review.getProduct() != null
+                    ? review.getProduct().getId() : null),
+            new ExportColumn<>("customerId", review -> review.getCustomer() != null
+                    ? review.getCustomer().getId() : null),
+            new ExportColumn<>("rating", Review::getRating),
+            new ExportColumn<>("comment", Review::getComment),
+            new ExportColumn<>("createdAt", Review::getCreatedAt),
+            new ExportColumn<>("updatedAt", Review::getUpdatedAt)
+    );
+
+    private static final List<ExportColumn<UserExportView>> USER_COLUMNS = List.of(
+            new ExportColumn<>("id", UserExportView::getId),
+            new ExportColumn<>("email", UserExportView::getEmail),
+            new ExportColumn<>("firstName", UserExportView::getFirstName),
+            new ExportColumn<>("lastName", UserExportView::getLastName),
+            new ExportColumn<>("phoneNumber", UserExportView::getPhoneNumber),
+            new ExportColumn<>("role", UserExportView::getRole),
+            new ExportColumn<>("active", UserExportView::isActive),
+            new ExportColumn<>("createdAt", UserExportView::getCreatedAt)
+    );
+
+    ProductRepository productRepository;
+
+    ReviewRepository reviewRepository;
+
+    UserRepository userRepository;
+
+    EntityManager entityManager;
+
+    ObjectMapper objectMapper;
+
+    TransactionTemplate readOnlyTransaction;
+
+    public ExportServiceImpl(ProductRepository productRepository, ReviewRepository reviewRepository,
+                             UserRepository userRepository, EntityManager entityManager, ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.reviewRepository = reviewRepository;
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        // PostgreSQL only honors the fetch size inside a transaction; outside one it reads the whole result
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void export(ExportResource resource, ExportFormat format, OutputStream output) throws IOException {
+        OutputStream buffered = new BufferedOutputStream(output, WRITE_BUFFER_SIZE);
+        ExportWriter writer = format == ExportFormat.NDJSON
+                ? new NdjsonExportWriter(objectMapper.getFactory().createGenerator(buffered))
+                : new CsvExportWriter(new OutputStreamWriter(buffered, StandardCharsets.UTF_8));
+
+        long start = System.nanoTime();
+        long rows = switch (resource) {
+            case PRODUCTS -> write(productRepository::streamAllForExport, PRODUCT_COLUMNS, writer);
+            case REVIEWS -> write(reviewRepository::streamAllForExport, REVIEW_COLUMNS, writer);
+            case USERS -> write(userRepository::streamAllForExport, USER_COLUMNS, writer);
+        };
+        writer.flush();
+        buffered.flush();
+        log.info("Exported {} {} in {} ms", rows, resource.name().toLowerCase(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private <E> long write(Supplier<Stream<E>> query, List<ExportColumn<E>> columns, ExportWriter writer)
+            throws IOException {
+        List<String> names = columns.stream().map(ExportColumn::name).toList();
+        try {
+            Long rows = readOnlyTransaction.execute(status -> {
+                long count = 0;
+                try (Stream<E> stream = query.get()) {
+                    writer.writeHeader(names);
+                    for (Iterator<E> it = stream.iterator(); it.hasNext(); ) {
+                        E row = it.next();
+                        List<Object> values = new ArrayList<>(columns.size());
+                        for (ExportColumn<E> column : columns) {
+                            values.add(column.value().apply(row));
+                        }
+                        writer.writeRow(names, values);
+                        if (++count % CLEAR_INTERVAL == 0) {
+                            entityManager.clear();
+                        }
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                return count;
+            });
+            return rows != null ? rows : 0;
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.rookies.ecommerce.service.exporter;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes an export one row at a time. Flushing does not close the underlying stream.
+ */
+interface ExportWriter extends Flushable {
+
+    void writeHeader(List<String> columns) throws IOException;
+
+    void writeRow(List<String> columns, List<Object> values) throws IOException;
+
+}
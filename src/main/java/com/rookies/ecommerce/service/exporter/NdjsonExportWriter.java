@@ -0,0 +1,40 @@
+package com.rookies.ecommerce.service.exporter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes newline-delimited JSON: one object per row, keyed by column name.
+ */
+class NdjsonExportWriter implements ExportWriter {
+
+    private final JsonGenerator generator;
+
+    NdjsonExportWriter(JsonGenerator generator) {
+        this.generator = generator;
+        generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void writeHeader(List<String> columns) {
+        // every row carries its own keys
+    }
+
+    @Override
+    public void writeRow(List<String> columns, List<Object> values) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < columns.size(); i++) {
+            generator.writeObjectField(columns.get(i), values.get(i));
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.rookies.ecommerce.service.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads RFC 4180 CSV: a header row naming the columns, fields optionally enclosed in double
+ * quotes, quotes inside quoted fields doubled, and line breaks allowed inside quoted fields.
+ */
+class CsvProductImportReader implements ProductImportReader {
+
+    private final Reader reader;
+
+    private final List<String> columns;
+
+    private long line = 1;
+
+    private int pushedBack = -2;
+
+    CsvProductImportReader(Reader reader) throws IOException {
+        this.reader = reader;
+        List<String> header = readRow();
+        this.columns = header == null ? List.of() : header.stream().map(ProductImportRecord::normalize).toList();
+    }
+
+    @Override
+    public ProductImportRecord next() throws IOException {
+        List<String> row;
+        long start;
+        do {
+            start = line;
+            try {
+                row = readRow();
+            } catch (MalformedRowException ex) {
+                return ProductImportRecord.failed(start, ex.getMessage());
+            }
+            if (row == null) {
+                return null;
+            }
+        } while (row.size() == 1 && row.get(0).isEmpty());
+
+        if (row.size() != columns.size()) {
+            return ProductImportRecord.failed(start,
+                    "Expected " + columns.size() + " fields but found " + row.size());
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            fields.put(columns.get(i), row.get(i));
+        }
+        return ProductImportRecord.of(start, fields);
+    }
+
+    private List<String> readRow() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new MalformedRowException("Unterminated quoted field");
+                }
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int following = read();
+                    if (following != '\n') {
+                        pushedBack = following;
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (pushedBack != -2) {
+            c = pushedBack;
+            pushedBack = -2;
+        } else {
+            c = reader.read();
+        }
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static class MalformedRowException extends IOException {
+
+        MalformedRowException(String message) {
+            super(message);
+        }
+
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.rookies.ecommerce.service.importer;
+
+/**
+ * Formats accepted by the bulk product import.
+ */
+public enum ProductImportFormat {
+
+    CSV,
+    NDJSON;
+
+    public static final String CSV_VALUE = "text/csv";
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+}
@@ -0,0 +1,16 @@
+package com.rookies.ecommerce.service.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads an import file one record at a time, so memory use does not depend on the file size.
+ */
+interface ProductImportReader extends Closeable {
+
+    /**
+     * Returns the next record, or null at the end of the input.
+     */
+    ProductImportRecord next() throws IOException;
+
+}
@@ -0,0 +1,36 @@
+package com.rookies.ecommerce.service.importer;
+
+import java.util.Map;
+
+/**
+ * One record of an import file: its fields keyed by normalized column name, or the reason it
+ * could not be read.
+ *
+ * @param line the line the record starts on
+ */
+record ProductImportRecord(long line, Map<String, String> fields, String error) {
+
+    static ProductImportRecord of(long line, Map<String, String> fields) {
+        return new ProductImportRecord(line, fields, null);
+    }
+
+    static ProductImportRecord failed(long line, String error) {
+        return new ProductImportRecord(line, Map.of(), error);
+    }
+
+    /**
+     * Lower-cases a column name and drops everything but letters and digits, so "imageUrl",
+     * "image_url" and "Image URL" are the same column.
+     */
+    static String normalize(String column) {
+        StringBuilder normalized = new StringBuilder(column.length());
+        for (int i = 0; i < column.length(); i++) {
+            char c = column.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.rookies.ecommerce.service.importer;
+
+import com.rookies.ecommerce.dto.response.ProductImportResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Service interface for importing products in bulk.
+ */
+public interface ProductImportService {
+
+    /**
+     * Imports the products of a CSV or NDJSON stream. The input is read incrementally and saved in
+     * batches; invalid rows are skipped and reported without stopping the import.
+     * <p>
+     * Every row has a name, description, price, available quantity, category (its id, slug or
+     * name) and an optional image URL, which is uploaded to the image storage.
+     *
+     * @param input the import file
+     * @param format the format of the import file
+     * @return a {@link ProductImportResponse} with the number of imported and failed rows and the row errors
+     * @throws IOException if the input cannot be read
+     */
+    ProductImportResponse importProducts(InputStream input, ProductImportFormat format) throws IOException;
+
+}
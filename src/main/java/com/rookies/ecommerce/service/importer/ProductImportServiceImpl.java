@@ -0,0 +1,394 @@
+package com.rookies.ecommerce.service.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rookies.ecommerce.dto.response.ProductImportError;
+import com.rookies.ecommerce.dto.response.ProductImportResponse;
+import com.rookies.ecommerce.entity.Category;
+import com.rookies.ecommerce.entity.Product;
+import com.rookies.ecommerce.enums.ImageStatus;
+import com.rookies.ecommerce.event.ProductsImportedEvent;
+import com.rookies.ecommerce.repository.CategoryRepository;
+import com.rookies.ecommerce.service.upload.UploadService;
+import com.rookies.ecommerce.service.user.UserService;
+import com.rookies.ecommerce.utils.SlugUtil;
+import com.rookies.ecommerce.utils.TextUtil;
+import com.rookies.ecommerce.utils.UuidUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imports products with plain JDBC batch inserts: ids are generated up front, so each batch is a
+ * single round trip with no read-back. Categories are loaded once per import, and image URLs of a
+ * batch are uploaded in parallel on a bounded pool before the batch is inserted. A batch that
+ * fails is retried row by row, so only the offending rows are reported and lose their images.
+ */
+@Slf4j
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO products (id, created_at, updated_at, created_by, modified_by, name, description,
+                                  short_description, price, available_quantity, image_url, is_deleted, slug,
+                                  category_id, image_status)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, false, ?, ?, ?)
+            """;
+
+    private static final String IMAGE_FOLDER = "products";
+
+    private static final int MAX_PRICE_DIGITS = 10;
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    JdbcTemplate jdbcTemplate;
+
+    TransactionTemplate transactionTemplate;
+
+    CategoryRepository categoryRepository;
+
+    UserService userService;
+
+    UploadService uploadService;
+
+    ApplicationEventPublisher eventPublisher;
+
+    ObjectMapper objectMapper;
+
+    ThreadPoolExecutor imageExecutor;
+
+    Counter importedCounter;
+
+    Counter failedCounter;
+
+    int batchSize;
+
+    boolean uploadImages;
+
+    int maxReportedErrors;
+
+    public ProductImportServiceImpl(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                    CategoryRepository categoryRepository, UserService userService,
+                                    UploadService uploadService, ApplicationEventPublisher eventPublisher,
+                                    ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                    @Value("${catalog.import.batch-size}") int batchSize,
+                                    @Value("${catalog.import.image-pool-size}") int imagePoolSize,
+                                    @Value("${catalog.import.upload-images}") boolean uploadImages,
+                                    @Value("${catalog.import.max-reported-errors}") int maxReportedErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.categoryRepository = categoryRepository;
+        this.userService = userService;
+        this.uploadService = uploadService;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        // a full queue makes the importing thread upload itself, which throttles concurrent imports
+        this.imageExecutor = new ThreadPoolExecutor(imagePoolSize, imagePoolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(batchSize),
+                new CustomizableThreadFactory("product-import-image-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.importedCounter = meterRegistry.counter("product_import.rows", "outcome", "imported");
+        this.failedCounter = meterRegistry.counter("product_import.rows", "outcome", "failed");
+        this.batchSize = batchSize;
+        this.uploadImages = uploadImages;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    @Override
+    public ProductImportResponse importProducts(InputStream input, ProductImportFormat format) throws IOException {
+        UUID userId = userService.getCurrentUser().userId();
+        Map<String, Category> categories = loadCategories();
+        ImportResult result = new ImportResult();
+
+        List<PendingProduct> batch = new ArrayList<>(batchSize);
+        try (ProductImportReader reader = open(input, format)) {
+            ProductImportRecord record;
+            while ((record = reader.next()) != null) {
+                PendingProduct product = validate(record, categories, result);
+                if (product == null) {
+                    continue;
+                }
+                batch.add(product);
+                if (batch.size() == batchSize) {
+                    save(batch, userId, result);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            save(batch, userId, result);
+        }
+
+        log.info("Imported {} products, {} rows failed", result.imported, result.failed);
+        return ProductImportResponse.builder()
+                .imported(result.imported)
+                .failed(result.failed)
+                .errors(result.errors)
+                .build();
+    }
+
+    private ProductImportReader open(InputStream input, ProductImportFormat format) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8),
+                READ_BUFFER_SIZE);
+        return format == ProductImportFormat.NDJSON
+                ? new NdjsonProductImportReader(reader, objectMapper)
+                : new CsvProductImportReader(reader);
+    }
+
+    /**
+     * Indexes every category by id, slug and lower-cased name, so rows may reference either.
+     */
+    private Map<String, Category> loadCategories() {
+        Map<String, Category> categories = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            categories.putIfAbsent(category.getName().toLowerCase(Locale.ROOT), category);
+            if (category.getSlug() != null) {
+                categories.put(category.getSlug(), category);
+            }
+            categories.put(category.getId().toString(), category);
+        }
+        return categories;
+    }
+
+    private PendingProduct validate(ProductImportRecord record, Map<String, Category> categories,
+                                    ImportResult result) {
+        if (record.error() != null) {
+            result.fail(record.line(), record.error());
+            return null;
+        }
+
+        Map<String, String> fields = record.fields();
+        String name = trimToNull(fields.get("name"));
+        if (name == null) {
+            result.fail(record.line(), "Name is required");
+            return null;
+        }
+
+        String description = fields.get("description");
+        if (description == null) {
+            result.fail(record.line(), "Description is required");
+            return null;
+        }
+
+        String priceText = trimToNull(fields.get("price"));
+        if (priceText == null) {
+            result.fail(record.line(), "Price is required");
+            return null;
+        }
+        BigDecimal price;
+        try {
+            price = new BigDecimal(priceText);
+        } catch (NumberFormatException ex) {
+            result.fail(record.line(), "Invalid price");
+            return null;
+        }
+        // the price column has no fractional digits
+        if (price.stripTrailingZeros().scale() > 0) {
+            result.fail(record.line(), "Price must be a whole number");
+            return null;
+        }
+        price = price.setScale(0);
+        if (price.signum() < 0 || price.precision() - price.scale() > MAX_PRICE_DIGITS) {
+            result.fail(record.line(), "Price must be between 0 and " + "9".repeat(MAX_PRICE_DIGITS));
+            return null;
+        }
+
+        int availableQuantity;
+        try {
+            String quantity = trimToNull(fields.get("availablequantity"));
+            availableQuantity = quantity != null ? Integer.parseInt(quantity) : 0;
+        } catch (NumberFormatException ex) {
+            result.fail(record.line(), "Invalid available quantity");
+            return null;
+        }
+        if (availableQuantity < 0) {
+            result.fail(record.line(), "Quantity must be greater than or equal to 0");
+            return null;
+        }
+
+        String categoryKey = trimToNull(fields.getOrDefault("category", fields.get("categoryid")));
+        Category category = categoryKey != null
+                ? categories.getOrDefault(categoryKey, categories.get(categoryKey.toLowerCase(Locale.ROOT)))
+                : null;
+        if (category == null) {
+            result.fail(record.line(), categoryKey == null ? "Category is required" : "Category not found: " + categoryKey);
+            return null;
+        }
+
+        String imageUrl = trimToNull(fields.get("imageurl"));
+        if (imageUrl != null && !isHttpUrl(imageUrl)) {
+            result.fail(record.line(), "Invalid image URL");
+            return null;
+        }
+
+        return new PendingProduct(record.line(), UuidUtil.timeOrdered(), name, description, price, availableQuantity,
+                category.getId(), imageUrl, null);
+    }
+
+    private void save(List<PendingProduct> batch, UUID userId, ImportResult result) {
+        List<PendingProduct> ready = uploadImages ? uploadImages(batch, result) : List.copyOf(batch);
+        if (ready.isEmpty()) {
+            return;
+        }
+
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        List<Object[]> rows = new ArrayList<>(ready.size());
+        for (PendingProduct product : ready) {
+            rows.add(new Object[]{
+                    product.id(), now, now, userId, userId, product.name(), product.description(),
+                    TextUtil.excerpt(product.description(), Product.SHORT_DESCRIPTION_LENGTH), product.price(),
+                    product.availableQuantity(), product.imageUrl(),
+                    SlugUtil.createSlug(product.name()) + "-" + product.id(), product.categoryId(),
+                    product.imageUrl() != null ? ImageStatus.READY.name() : null
+            });
+        }
+
+        try {
+            insert(ready, rows);
+            result.imported += ready.size();
+            importedCounter.increment(ready.size());
+        } catch (DataAccessException ex) {
+            log.warn("Could not save an import batch of {} products starting at line {}, retrying row by row",
+                    ready.size(), ready.get(0).line(), ex);
+            for (int i = 0; i < ready.size(); i++) {
+                PendingProduct product = ready.get(i);
+                try {
+                    insert(List.of(product), List.<Object[]>of(rows.get(i)));
+                    result.imported++;
+                    importedCounter.increment();
+                } catch (DataAccessException rowEx) {
+                    log.debug("Could not save the product at line {}", product.line(), rowEx);
+                    result.fail(product.line(), "Could not save the product");
+                    deleteImage(product);
+                }
+            }
+        }
+    }
+
+    private void insert(List<PendingProduct> products, List<Object[]> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            eventPublisher.publishEvent(new ProductsImportedEvent(
+                    products.stream().map(PendingProduct::id).toList()));
+        });
+    }
+
+    private void deleteImage(PendingProduct product) {
+        if (product.imagePublicId() == null) {
+            return;
+        }
+        try {
+            uploadService.deleteFile(product.imagePublicId());
+        } catch (RuntimeException ex) {
+            log.warn("Could not delete image {} of an unsaved product", product.imagePublicId(), ex);
+        }
+    }
+
+    private List<PendingProduct> uploadImages(List<PendingProduct> batch, ImportResult result) {
+        List<Future<String>> uploads = new ArrayList<>(batch.size());
+        for (PendingProduct product : batch) {
+            uploads.add(product.imageUrl() == null ? null : imageExecutor.submit(() ->
+                    uploadService.uploadFromUrl(product.imageUrl(), IMAGE_FOLDER, product.id().toString())));
+        }
+
+        List<PendingProduct> uploaded = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            PendingProduct product = batch.get(i);
+            Future<String> upload = uploads.get(i);
+            if (upload == null) {
+                uploaded.add(product);
+                continue;
+            }
+            try {
+                uploaded.add(product.withUploadedImage(upload.get(), IMAGE_FOLDER + "/" + product.id()));
+            } catch (ExecutionException ex) {
+                log.debug("Could not upload image {} at line {}", product.imageUrl(), product.line(), ex.getCause());
+                result.fail(product.line(), "Could not upload image: " + product.imageUrl());
+            } catch (InterruptedException ex) {
+                uploads.stream().filter(Objects::nonNull).forEach(future -> future.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            }
+        }
+        return uploaded;
+    }
+
+    private static boolean isHttpUrl(String url) {
+        try {
+            URI uri = new URI(url);
+            return ("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme()))
+                    && uri.getHost() != null;
+        } catch (URISyntaxException ex) {
+            return false;
+        }
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        imageExecutor.shutdown();
+    }
+
+    private record PendingProduct(long line, UUID id, String name, String description, BigDecimal price,
+                                  int availableQuantity, UUID categoryId, String imageUrl, String imagePublicId) {
+
+        PendingProduct withUploadedImage(String imageUrl, String imagePublicId) {
+            return new PendingProduct(line, id, name, description, price, availableQuantity, categoryId, imageUrl,
+                    imagePublicId);
+        }
+
+    }
+
+    private final class ImportResult {
+
+        long imported;
+
+        long failed;
+
+        final List<ProductImportError> errors = new ArrayList<>();
+
+        void fail(long line, String message) {
+            failed++;
+            failedCounter.increment();
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ProductImportError(line, message));
+            }
+        }
+
+    }
+
+}
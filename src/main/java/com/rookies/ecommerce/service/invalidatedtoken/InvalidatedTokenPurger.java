@@ -0,0 +1,56 @@
+package com.rookies.ecommerce.service.invalidatedtoken;
+
+import com.rookies.ecommerce.repository.InvalidatedTokenRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically deletes expired rows from the invalidated tokens table in bounded batches,
+ * so that each delete only holds its row locks for a short time.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class InvalidatedTokenPurger {
+
+    InvalidatedTokenRepository invalidatedTokenRepository;
+
+    MeterRegistry meterRegistry;
+
+    @Value("${security.jwt.revocation.purge-batch-size}")
+    @NonFinal
+    int batchSize;
+
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.purge-interval-ms}")
+    public void purgeExpiredTokens() {
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        long purged = 0;
+        int deleted;
+
+        do {
+            deleted = invalidatedTokenRepository.deleteExpiredBatch(now, batchSize);
+            purged += deleted;
+        } while (deleted == batchSize);
+
+        long elapsed = System.nanoTime() - start;
+        meterRegistry.counter("invalidated_tokens.purged").increment(purged);
+        meterRegistry.timer("invalidated_tokens.purge").record(elapsed, TimeUnit.NANOSECONDS);
+
+        if (purged > 0) {
+            log.info("Purged {} expired invalidated tokens in {} ms", purged, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+}
@@ -2,31 +2,50 @@ package com.rookies.ecommerce.service.invalidatedtoken;
 
 import com.rookies.ecommerce.entity.InvalidatedToken;
 import com.rookies.ecommerce.repository.InvalidatedTokenRepository;
+import com.rookies.ecommerce.utils.TokenDigestUtil;
+import jakarta.annotation.PostConstruct;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 
 @Service
+@Slf4j
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class InvalidatedTokenServiceImpl implements InvalidatedTokenService {
 
     InvalidatedTokenRepository invalidatedTokenRepository;
 
+    RevokedTokenStore revokedTokens = new RevokedTokenStore();
+
+    @PostConstruct
+    public void loadRevokedTokens() {
+        Instant now = Instant.now();
+        for (InvalidatedToken invalidatedToken : invalidatedTokenRepository.findAllByExpirationTimeAfter(now)) {
+            revokedTokens.add(TokenDigestUtil.toHex(invalidatedToken.getTokenDigest()),
+                    invalidatedToken.getExpirationTime());
+        }
+        log.info("Loaded {} revoked tokens", revokedTokens.size());
+    }
 
     @Override
     public void invalidateToken(String token, Instant expirationTime) {
+        byte[] tokenDigest = TokenDigestUtil.sha256(token);
         invalidatedTokenRepository.save(InvalidatedToken.builder()
-                        .token(token)
+                        .tokenDigest(tokenDigest)
                         .expirationTime(expirationTime)
                 .build());
+
+        revokedTokens.evictExpired(Instant.now());
+        revokedTokens.add(TokenDigestUtil.toHex(tokenDigest), expirationTime);
     }
 
     @Override
     public boolean isTokenInvalidated(String token) {
-        return invalidatedTokenRepository.existsByToken(token);
+        return revokedTokens.contains(TokenDigestUtil.toHex(TokenDigestUtil.sha256(token)), Instant.now());
     }
 }
@@ -0,0 +1,54 @@
+package com.rookies.ecommerce.service.invalidatedtoken;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory set of revoked tokens, keyed by the hex encoded SHA-256 digest of each token.
+ * <p>
+ * Entries are kept in a hash map for lookups and in an expiry-ordered set so that tokens
+ * can be evicted as soon as their expiration time has passed.
+ */
+class RevokedTokenStore {
+
+    private record Entry(String token, Instant expirationTime) {
+    }
+
+    private final Map<String, Instant> tokens = new ConcurrentHashMap<>();
+
+    private final NavigableSet<Entry> expiryQueue = new ConcurrentSkipListSet<>(
+            Comparator.comparing(Entry::expirationTime).thenComparing(Entry::token));
+
+    void add(String token, Instant expirationTime) {
+        Instant previous = tokens.put(token, expirationTime);
+        if (previous != null) {
+            expiryQueue.remove(new Entry(token, previous));
+        }
+        expiryQueue.add(new Entry(token, expirationTime));
+    }
+
+    boolean contains(String token, Instant now) {
+        Instant expirationTime = tokens.get(token);
+        return expirationTime != null && expirationTime.isAfter(now);
+    }
+
+    void evictExpired(Instant now) {
+        Entry head;
+        while ((head = expiryQueue.pollFirst()) != null) {
+            if (head.expirationTime().isAfter(now)) {
+                expiryQueue.add(head);
+                return;
+            }
+            tokens.remove(head.token(), head.expirationTime());
+        }
+    }
+
+    int size() {
+        return tokens.size();
+    }
+
+}
@@ -12,6 +12,27 @@ import java.util.function.Function;
  */
 public interface JWTService {
 
+    /**
+     * Request attribute under which the verified claims of the bearer token are stored,
+     * so that the token is parsed only once per request.
+     */
+    String VERIFIED_CLAIMS_ATTRIBUTE = JWTService.class.getName() + ".VERIFIED_CLAIMS";
+
+    /**
+     * Claim holding the identifier of the user the token was issued to.
+     */
+    String USER_ID_CLAIM = "uid";
+
+    /**
+     * Claim holding the role name of the user the token was issued to.
+     */
+    String ROLE_CLAIM = "role";
+
+    /**
+     * Claim holding the account status version of the user at the time the token was issued.
+     */
+    String STATUS_VERSION_CLAIM = "sv";
+
     /**
      * Extracts the username from the given JWT token.
      *
@@ -31,7 +52,16 @@ public interface JWTService {
     <T> T extractClaim(String token, Function<Claims, T> claimsResolver);
 
     /**
-     * Generates a JWT token for the given user details.
+     * Verifies the signature and expiration of the given JWT token and returns all of its claims.
+     *
+     * @param token the JWT token
+     * @return the verified claims of the token
+     */
+    Claims verifyToken(String token);
+
+    /**
+     * Generates a JWT token for the given user details. Tokens issued to a {@link com.rookies.ecommerce.entity.User}
+     * also carry the user id, role and account status version claims.
      *
      * @param userDetails the user details to include in the token
      * @return the generated JWT token
@@ -63,6 +93,15 @@ public interface JWTService {
      */
     boolean isTokenValid(String token, UserDetails userDetails);
 
+    /**
+     * Validates already verified claims against the provided user details.
+     *
+     * @param claims the verified claims of the token
+     * @param userDetails the user details to validate the claims against
+     * @return true if the claims belong to the user and are not expired, false otherwise
+     */
+    boolean isTokenValid(Claims claims, UserDetails userDetails);
+
     /**
      * Extracts the expiration date from the given JWT token.
      *
@@ -0,0 +1,56 @@
+package com.rookies.ecommerce.service.jwt;
+
+import io.jsonwebtoken.Claims;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Lightweight principal built from the verified claims of a JWT, without loading the user from the database.
+ */
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class JwtUserPrincipal implements UserDetails {
+
+    UUID id;
+
+    String email;
+
+    String role;
+
+    int statusVersion;
+
+    public static JwtUserPrincipal fromClaims(Claims claims) {
+        return new JwtUserPrincipal(
+                UUID.fromString(claims.get(JWTService.USER_ID_CLAIM, String.class)),
+                claims.getSubject(),
+                claims.get(JWTService.ROLE_CLAIM, String.class),
+                claims.get(JWTService.STATUS_VERSION_CLAIM, Integer.class)
+        );
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+}
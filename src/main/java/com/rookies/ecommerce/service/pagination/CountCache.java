@@ -0,0 +1,115 @@
+package com.rookies.ecommerce.service.pagination;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rookies.ecommerce.entity.Product;
+import com.rookies.ecommerce.entity.User;
+import com.rookies.ecommerce.event.ProductChangedEvent;
+import com.rookies.ecommerce.event.ProductsImportedEvent;
+import com.rookies.ecommerce.event.UserChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches the total counts of paged listings per entity and filter for a short time, so that
+ * paging through a grid does not recount the table on every request. Counts of an entity are
+ * dropped as soon as a write to that entity commits.
+ * <p>
+ * When {@code pagination.count-cache.estimate-threshold} is positive, the PostgreSQL planner's
+ * row estimate is consulted first and returned as is once it reaches the threshold.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CountCache {
+
+    JdbcTemplate jdbcTemplate;
+
+    ObjectMapper objectMapper;
+
+    Cache<CountKey, Long> counts;
+
+    long estimateThreshold;
+
+    public CountCache(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                      @Value("${pagination.count-cache.ttl-ms}") long ttlMillis,
+                      @Value("${pagination.count-cache.estimate-threshold}") long estimateThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.estimateThreshold = estimateThreshold;
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, "page_count");
+    }
+
+    /**
+     * Returns the number of {@code entity} rows matching {@code filter}.
+     *
+     * @param entity the entity being counted, used for invalidation
+     * @param filter a string identifying the filter values, e.g. {@code "isDeleted=true"}
+     * @param exactCount runs the exact count query
+     * @param estimateSql a {@code SELECT} over the same rows, used to ask the planner for an estimate
+     * @param args the bind parameters of {@code estimateSql}
+     */
+    public long count(Class<?> entity, String filter, LongSupplier exactCount, String estimateSql, Object... args) {
+        return counts.get(new CountKey(entity, filter), key -> {
+            if (estimateThreshold > 0) {
+                long estimate = estimate(estimateSql, args);
+                if (estimate >= estimateThreshold) {
+                    return estimate;
+                }
+            }
+            return exactCount.getAsLong();
+        });
+    }
+
+    public void invalidate(Class<?> entity) {
+        counts.asMap().keySet().removeIf(key -> key.entity() == entity);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate(Product.class);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        invalidate(Product.class);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(User.class);
+    }
+
+    private long estimate(String sql, Object... args) {
+        try {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class, args);
+            JsonNode root = objectMapper.readTree(plan);
+            return root.get(0).get("Plan").get("Plan Rows").asLong();
+        } catch (Exception ex) {
+            log.debug("Could not estimate row count, falling back to an exact count", ex);
+            return -1;
+        }
+    }
+
+    private record CountKey(Class<?> entity, String filter) {
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.rookies.ecommerce.service.password;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder whose cost factor is chosen at startup so a single hash stays within a latency budget
+ * on the current node. The cost is embedded in every hash, so hashes produced under a lower cost are
+ * reported by {@link #upgradeEncoding(String)} and get rehashed on the next successful login. Hashes with a
+ * higher cost are kept: nodes may calibrate to different costs, and downgrading would make them rehash each
+ * other's hashes on every login.
+ */
+@Slf4j
+public class CalibratedPasswordEncoder implements PasswordEncoder {
+
+    private static final Pattern BCRYPT_COST_PATTERN = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+    private static final String CALIBRATION_SAMPLE = "calibration-sample-password";
+
+    private final BCryptPasswordEncoder delegate;
+
+    @Getter
+    private final int strength;
+
+    public CalibratedPasswordEncoder(int strength) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+    }
+
+    /**
+     * Picks the highest cost in {@code [minStrength, maxStrength]} whose hash time fits {@code target}.
+     * {@code minStrength} is used even if it is already slower than the target.
+     */
+    public static CalibratedPasswordEncoder calibrate(int minStrength, int maxStrength, Duration target) {
+        long targetNanos = target.toNanos();
+        measure(minStrength);
+
+        int strength = minStrength;
+        long elapsed = 0;
+        for (int candidate = minStrength; candidate <= maxStrength; candidate++) {
+            elapsed = measure(candidate);
+            if (elapsed > targetNanos && candidate > minStrength) {
+                break;
+            }
+            strength = candidate;
+            // every extra cost round doubles the work, so stop before a candidate that cannot fit
+            if (elapsed * 2 > targetNanos) {
+                break;
+            }
+        }
+
+        log.info("Calibrated BCrypt strength {} (last sample {} ms, target {} ms)",
+                strength, Duration.ofNanos(elapsed).toMillis(), target.toMillis());
+        return new CalibratedPasswordEncoder(strength);
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long start = System.nanoTime();
+        encoder.encode(CALIBRATION_SAMPLE);
+        return System.nanoTime() - start;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST_PATTERN.matcher(encodedPassword);
+        return matcher.matches() && Integer.parseInt(matcher.group(1)) < strength;
+    }
+
+}
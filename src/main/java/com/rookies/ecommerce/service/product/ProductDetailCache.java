@@ -0,0 +1,92 @@
+package com.rookies.ecommerce.service.product;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rookies.ecommerce.event.CategoryChangedEvent;
+import com.rookies.ecommerce.event.ProductChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of product details, keyed by product id with a secondary slug index.
+ * Entries are evicted after the transaction that changed the product or its category commits.
+ * <p>
+ * Loads by id run inside the cache's atomic compute, which an eviction waits for. Loads by slug
+ * cannot, since the id is only known afterwards, so they count evictions and drop their result when
+ * one happened while they were loading.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ProductDetailCache {
+
+    Cache<UUID, VersionedProductDetail> details;
+
+    Cache<String, UUID> idsBySlug;
+
+    AtomicLong evictions = new AtomicLong();
+
+    public ProductDetailCache(MeterRegistry meterRegistry,
+                              @Value("${catalog.product-detail-cache.max-size}") long maxSize,
+                              @Value("${catalog.product-detail-cache.ttl-ms}") long ttlMillis) {
+        this.details = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .recordStats()
+                .build();
+        this.idsBySlug = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, details, "product_detail");
+    }
+
+    public VersionedProductDetail getById(UUID id, Function<UUID, VersionedProductDetail> loader) {
+        return details.get(id, loader);
+    }
+
+    public VersionedProductDetail getBySlug(String slug, Function<String, VersionedProductDetail> loader) {
+        UUID id = idsBySlug.getIfPresent(slug);
+        if (id != null) {
+            VersionedProductDetail cached = details.getIfPresent(id);
+            if (cached != null && slug.equals(cached.detail().getSlug())) {
+                return cached;
+            }
+        }
+
+        long evictionsBeforeLoad = evictions.get();
+        VersionedProductDetail detail = loader.apply(slug);
+        UUID productId = UUID.fromString(detail.detail().getId());
+        details.put(productId, detail);
+        idsBySlug.put(slug, productId);
+        // an eviction counted after this check removes the entry itself, so one of the two always does
+        if (evictions.get() != evictionsBeforeLoad) {
+            details.asMap().remove(productId, detail);
+        }
+        return detail;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        evictions.incrementAndGet();
+        details.invalidate(event.productId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        evictions.incrementAndGet();
+        String categoryId = event.categoryId().toString();
+        details.asMap().values().removeIf(detail -> categoryId.equals(detail.detail().getCategoryId()));
+    }
+
+}
@@ -2,17 +2,23 @@ package com.rookies.ecommerce.service.product;
 
 import com.rookies.ecommerce.dto.request.CreateFeaturedProduct;
 import com.rookies.ecommerce.dto.request.CreateUpdateProductRequest;
+import com.rookies.ecommerce.dto.request.ProductFilterRequest;
 import com.rookies.ecommerce.dto.request.UpdateFeaturedProduct;
+import com.rookies.ecommerce.dto.response.CursorPageResponse;
 import com.rookies.ecommerce.dto.response.FeaturedProductResponse;
 import com.rookies.ecommerce.dto.response.ProductDetailForAdmin;
 import com.rookies.ecommerce.dto.response.ProductResponse;
+import com.rookies.ecommerce.dto.response.SuggestionResponse;
 import com.rookies.ecommerce.dto.response.ProductDetailResponse;
+import com.rookies.ecommerce.dto.response.ProductFilterResponse;
 import com.rookies.ecommerce.entity.Product;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.sql.Date;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -21,7 +27,8 @@ import java.util.UUID;
 public interface ProductService {
 
     /**
-     * Creates a new product with the provided details and image file.
+     * Creates a new product with the provided details and image file. The image is uploaded in the
+     * background after the product is saved; until then the product's image status is pending.
      *
      * @param productRequest the request object containing product details
      * @param imageFile the image file associated with the product
@@ -30,7 +37,8 @@ public interface ProductService {
     void createProduct(CreateUpdateProductRequest productRequest, MultipartFile imageFile) throws IOException;
 
     /**
-     * Updates an existing product with the provided details and image file.
+     * Updates an existing product with the provided details and image file. A new image is uploaded
+     * in the background and replaces the current one once the upload has finished.
      *
      * @param id the unique identifier of the product to update
      * @param productRequest the request object containing updated product details
@@ -47,9 +55,11 @@ public interface ProductService {
      * @param size the number of products per page
      * @param sortBy the field to sort the products by
      * @param sortDir the direction of sorting (asc/desc)
+     * @param withTotal whether to compute the total count; when false a {@link Slice} without totals is returned
      * @return a paginated list of {@link ProductResponse} objects
      */
-    Page<ProductResponse> getProductsByIsDeleted(boolean isDeleted, int page, int size, String sortBy, String sortDir);
+    Slice<ProductResponse> getProductsByIsDeleted(boolean isDeleted, int page, int size, String sortBy, String sortDir,
+                                                  boolean withTotal);
 
     /**
      * Retrieves the details of a product by its unique identifier.
@@ -59,6 +69,15 @@ public interface ProductService {
      */
     ProductDetailResponse getProductById(String id);
 
+    /**
+     * Retrieves a product's details together with the version they were loaded at, so validators
+     * describe exactly the details served. Cached details are returned without a query.
+     *
+     * @param id the unique identifier of the product
+     * @return the {@link VersionedProductDetail} of the product
+     */
+    VersionedProductDetail getVersionedProductById(String id);
+
     /**
      * Retrieves detailed information about a product for administrative purposes.
      *
@@ -84,10 +103,12 @@ public interface ProductService {
      * @param size the number of products per page
      * @param sortBy the field to sort the products by
      * @param sortDir the direction of sorting (asc/desc)
+     * @param withTotal whether to compute the total count; when false a {@link Slice} without totals is returned
      * @return a paginated list of {@link ProductResponse} objects
      */
-    Page<ProductResponse> getProductsByCategoryIdAndIsDeleted(String categoryId, boolean isDeleted, int page,
-                                                              int size, String sortBy, String sortDir);
+    Slice<ProductResponse> getProductsByCategoryIdAndIsDeleted(String categoryId, boolean isDeleted, int page,
+                                                               int size, String sortBy, String sortDir,
+                                                               boolean withTotal);
 
     /**
      * Retrieves the details of a product by its slug.
@@ -97,6 +118,14 @@ public interface ProductService {
      */
     ProductDetailResponse getProductBySlug(String slug);
 
+    /**
+     * Retrieves a product's details by its slug together with the version they were loaded at.
+     *
+     * @param slug the slug of the product
+     * @return the {@link VersionedProductDetail} of the product
+     */
+    VersionedProductDetail getVersionedProductBySlug(String slug);
+
     /**
      * Adds a new featured product.
      *
@@ -119,9 +148,11 @@ public interface ProductService {
      * @param size the number of featured products per page
      * @param sortBy the field to sort the featured products by
      * @param sortDir the direction of sorting (asc/desc)
+     * @param withTotal whether to compute the total count; when false a {@link Slice} without totals is returned
      * @return a paginated list of {@link FeaturedProductResponse} objects
      */
-    Page<FeaturedProductResponse> getAllFeaturedProduct(int page, int size, String sortBy, String sortDir);
+    Slice<FeaturedProductResponse> getAllFeaturedProduct(int page, int size, String sortBy, String sortDir,
+                                                         boolean withTotal);
 
     /**
      * Deletes a featured product by its unique identifier.
@@ -145,9 +176,11 @@ public interface ProductService {
      * @param size the number of active featured products per page
      * @param sortBy the field to sort the active featured products by
      * @param sortDir the direction of sorting (asc/desc)
+     * @param withTotal whether to compute the total count; when false a {@link Slice} without totals is returned
      * @return a paginated list of {@link FeaturedProductResponse} objects
      */
-    Page<FeaturedProductResponse> getActiveFeaturedProducts(int page, int size, String sortBy, String sortDir);
+    Slice<FeaturedProductResponse> getActiveFeaturedProducts(int page, int size, String sortBy, String sortDir,
+                                                             boolean withTotal);
 
     /**
      * Retrieves the product entity by its unique identifier.
@@ -158,14 +191,53 @@ public interface ProductService {
     Product getProductEntityById(UUID id);
 
     /**
-     * Searches for products by their name.
+     * Retrieves active products with keyset pagination, optionally restricted to a category.
      *
-     * @param name the name of the product to search for
+     * @param categoryId the category to list, or {@code null} for all active products
+     * @param cursor the continuation token from a previous response with the same sort, or {@code null}
+     *               for the first page
+     * @param size the number of products to return
+     * @param sortBy the field to sort by (name, price, availableQuantity, createdAt or id)
+     * @param sortDir the direction of sorting (asc/desc)
+     * @return a {@link CursorPageResponse} with the products and the cursors of the adjacent pages
+     */
+    CursorPageResponse<ProductResponse> scrollActiveProducts(String categoryId, String cursor, int size,
+                                                             String sortBy, String sortDir);
+
+    /**
+     * Searches active products by name and description. Every term must match, ignoring case and
+     * Vietnamese diacritics.
+     *
+     * @param name the search terms
      * @param page the page number to retrieve
      * @param size the number of products per page
-     * @param sortBy the field to sort the products by
+     * @param sortBy the field to sort the products by, or "relevance" to rank by match quality
      * @param sortDir the direction of sorting (asc/desc)
      * @return a paginated list of {@link ProductResponse} objects matching the search criteria
      */
     Page<ProductResponse> searchByName(String name, int page, int size, String sortBy, String sortDir);
+
+    /**
+     * Filters active products by category, price range, stock and minimum average rating, and
+     * counts the matching products for each value of these facets.
+     *
+     * @param filter the filters to apply; unset filters match every product
+     * @param page the page number to retrieve
+     * @param size the number of products per page
+     * @param sortBy the field to sort the products by (name, price, availableQuantity or createdAt)
+     * @param sortDir the direction of sorting (asc/desc)
+     * @return a {@link ProductFilterResponse} with a page of matching products and the facet counts
+     */
+    ProductFilterResponse filterProducts(ProductFilterRequest filter, int page, int size, String sortBy,
+                                         String sortDir);
+
+    /**
+     * Suggests active products and categories whose name has a word starting with the query,
+     * ignoring case and Vietnamese diacritics, most popular first.
+     *
+     * @param query the text typed so far
+     * @param limit the maximum number of suggestions to return
+     * @return a list of {@link SuggestionResponse} objects
+     */
+    List<SuggestionResponse> suggest(String query, int limit);
 }
\ No newline at end of file
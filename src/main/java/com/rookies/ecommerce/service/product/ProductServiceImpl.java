@@ -2,76 +2,128 @@ package com.rookies.ecommerce.service.product;
 
 import com.rookies.ecommerce.dto.request.CreateFeaturedProduct;
 import com.rookies.ecommerce.dto.request.CreateUpdateProductRequest;
+import com.rookies.ecommerce.dto.request.ProductFilterRequest;
 import com.rookies.ecommerce.dto.request.UpdateFeaturedProduct;
+import com.rookies.ecommerce.dto.response.CursorPageResponse;
 import com.rookies.ecommerce.dto.response.FeaturedProductResponse;
 import com.rookies.ecommerce.dto.response.ProductDetailForAdmin;
 import com.rookies.ecommerce.dto.response.ProductResponse;
+import com.rookies.ecommerce.dto.response.SuggestionResponse;
 import com.rookies.ecommerce.dto.response.ProductDetailResponse;
+import com.rookies.ecommerce.dto.response.ProductFilterResponse;
 import com.rookies.ecommerce.entity.*;
+import com.rookies.ecommerce.enums.ImageStatus;
+import com.rookies.ecommerce.event.FeaturedProductChangedEvent;
+import com.rookies.ecommerce.event.ProductChangedEvent;
 import com.rookies.ecommerce.exception.AppException;
 import com.rookies.ecommerce.exception.ErrorCode;
 import com.rookies.ecommerce.mapper.ProductMapper;
 import com.rookies.ecommerce.repository.FeaturedProductRepository;
 import com.rookies.ecommerce.repository.ProductRepository;
+import com.rookies.ecommerce.repository.projection.ProductListingView;
+import com.rookies.ecommerce.service.catalog.CatalogSnapshotService;
 import com.rookies.ecommerce.service.category.CategoryService;
-import com.rookies.ecommerce.service.upload.UploadService;
+import com.rookies.ecommerce.service.pagination.CountCache;
+import com.rookies.ecommerce.service.search.ProductFacetIndex;
+import com.rookies.ecommerce.service.search.ProductSearchIndex;
+import com.rookies.ecommerce.service.search.ProductSuggestIndex;
+import com.rookies.ecommerce.service.upload.ImageUploadPipeline;
+import com.rookies.ecommerce.service.user.CurrentUser;
 import com.rookies.ecommerce.service.user.UserService;
+import com.rookies.ecommerce.utils.CursorUtil;
 import com.rookies.ecommerce.utils.SlugUtil;
+import com.rookies.ecommerce.utils.UuidUtil;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class ProductServiceImpl implements ProductService {
 
+    private static final Map<String, Function<String, Object>> SCROLL_KEY_PARSERS = Map.of(
+            "id", UUID::fromString,
+            "name", value -> value,
+            "price", BigDecimal::new,
+            "availableQuantity", Integer::valueOf,
+            "createdAt", Instant::parse
+    );
+
     ProductRepository productRepository;
 
     CategoryService categoryService;
 
     ProductMapper productMapper;
 
-    UploadService uploadService;
+    ImageUploadPipeline imageUploadPipeline;
 
     FeaturedProductRepository featuredProductRepository;
 
     UserService userService;
 
+    ProductDetailCache productDetailCache;
+
+    ProductSearchIndex productSearchIndex;
+
+    ProductFacetIndex productFacetIndex;
+
+    ProductSuggestIndex productSuggestIndex;
+
+    CountCache countCache;
+
+    CatalogSnapshotService catalogSnapshotService;
+
+    ApplicationEventPublisher eventPublisher;
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void createProduct(CreateUpdateProductRequest productRequest, MultipartFile imageFile) throws IOException {
-        User user = userService.getUserFromToken();
+        CurrentUser currentUser = userService.getCurrentUser();
 
         Category category = categoryService.getCategoryById(productRequest.getCategoryId());
         Product product = productMapper.toProduct(productRequest);
         product.setCategory(category);
-        productRepository.save(product);
-
-        String imageUrl = uploadService.uploadFile(imageFile, "products", product.getId().toString());
-        product.setImageUrl(imageUrl);
+        // the id is assigned up front so the slug is known before the single INSERT
+        product.setId(UuidUtil.timeOrdered());
         product.setSlug(SlugUtil.createSlug(productRequest.getName()) + "-" + product.getId());
-        product.setCreatedBy(user.getId());
-        product.setModifiedBy(user.getId());
+        product.setImageStatus(ImageStatus.PENDING);
+        product.setCreatedBy(currentUser.userId());
+        product.setModifiedBy(currentUser.userId());
 
         productRepository.save(product);
+        imageUploadPipeline.submit(product.getId(), imageFile);
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId()));
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void updateProduct(String id, CreateUpdateProductRequest productRequest, MultipartFile imageFile) throws IOException {
-        User user = userService.getUserFromToken();
+        CurrentUser currentUser = userService.getCurrentUser();
 
         Product product = productRepository.findById(UUID.fromString(id))
                 .orElseThrow(() -> new AppException(ErrorCode.PRODUCT_NOT_FOUND));
@@ -80,27 +132,51 @@ public class ProductServiceImpl implements ProductService {
         product.setCategory(category);
         productMapper.updateProduct(productRequest, product);
         product.setSlug(SlugUtil.createSlug(productRequest.getName()) + "-" + product.getId());
-        product.setModifiedBy(user.getId());
+        product.setModifiedBy(currentUser.userId());
 
         if (imageFile != null) {
-            String imageUrl = uploadService.uploadFile(imageFile, "products", product.getId().toString());
-            product.setImageUrl(imageUrl);
+            product.setImageStatus(ImageStatus.PENDING);
         }
 
         productRepository.save(product);
+        if (imageFile != null) {
+            imageUploadPipeline.submit(product.getId(), imageFile);
+        }
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId()));
     }
 
     @Override
-    public Page<ProductResponse> getProductsByIsDeleted(boolean isDeleted, int page, int size, String sortBy, String sortDir) {
-        return productRepository.findAllByIsDeleted(isDeleted, PageRequest.of(page, size,
-                Sort.by(Sort.Direction.fromString(sortDir), sortBy))).map(productMapper::toProductDTO);
+    public Slice<ProductResponse> getProductsByIsDeleted(boolean isDeleted, int page, int size, String sortBy,
+                                                         String sortDir, boolean withTotal) {
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(sortDir), sortBy));
+        if (!isDeleted) {
+            Optional<Slice<ProductResponse>> fromSnapshot = catalogSnapshotService.current()
+                    .flatMap(snapshot -> snapshot.products(null, pageRequest, withTotal));
+            if (fromSnapshot.isPresent()) {
+                return fromSnapshot.get();
+            }
+        }
+
+        Slice<ProductListingView> products = productRepository.findListingByIsDeleted(isDeleted, pageRequest);
+        if (withTotal) {
+            products = PageableExecutionUtils.getPage(products.getContent(), pageRequest,
+                    () -> countCache.count(Product.class, "isDeleted=" + isDeleted,
+                            () -> productRepository.countByIsDeleted(isDeleted),
+                            "SELECT 1 FROM products WHERE is_deleted = ?", isDeleted));
+        }
+        return products.map(productMapper::toProductResponse);
     }
 
     @Override
     public ProductDetailResponse getProductById(String id) {
-        Product product = productRepository.findById(UUID.fromString(id))
-                .orElseThrow(() -> new AppException(ErrorCode.PRODUCT_NOT_FOUND));
-        return productMapper.toProductDetail(product);
+        return getVersionedProductById(id).detail();
+    }
+
+    @Override
+    public VersionedProductDetail getVersionedProductById(String id) {
+        return productDetailCache.getById(UUID.fromString(id), productId -> toVersionedDetail(
+                productRepository.findWithCategoryById(productId)
+                        .orElseThrow(() -> new AppException(ErrorCode.PRODUCT_NOT_FOUND))));
     }
 
     @Override
@@ -119,37 +195,113 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean toggleProductStatus(String id) {
-        User user = userService.getUserFromToken();
+        CurrentUser currentUser = userService.getCurrentUser();
         Product product = productRepository.findById(UUID.fromString(id))
                 .orElseThrow(() -> new AppException(ErrorCode.PRODUCT_NOT_FOUND));
         product.setDeleted(!product.isDeleted());
-        product.setModifiedBy(user.getId());
+        product.setModifiedBy(currentUser.userId());
         productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId()));
         return product.isDeleted();
     }
 
     @Override
-    public Page<ProductResponse> getProductsByCategoryIdAndIsDeleted(String categoryId, boolean isDeleted, int page, int size,
-                                                                     String sortBy, String sortDir) {
+    public Slice<ProductResponse> getProductsByCategoryIdAndIsDeleted(String categoryId, boolean isDeleted, int page, int size,
+                                                                      String sortBy, String sortDir, boolean withTotal) {
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(sortDir), sortBy));
+        if (!isDeleted) {
+            UUID id = UUID.fromString(categoryId);
+            Optional<Slice<ProductResponse>> fromSnapshot = catalogSnapshotService.current()
+                    .filter(snapshot -> snapshot.hasCategory(id))
+                    .flatMap(snapshot -> snapshot.products(id, pageRequest, withTotal));
+            if (fromSnapshot.isPresent()) {
+                return fromSnapshot.get();
+            }
+        }
+
         Category category = categoryService.getCategoryById(categoryId);
+        Slice<ProductListingView> products = productRepository
+                .findListingByCategoryAndIsDeleted(category, isDeleted, pageRequest);
+        if (withTotal) {
+            products = PageableExecutionUtils.getPage(products.getContent(), pageRequest,
+                    () -> countCache.count(Product.class, "category=" + category.getId() + ",isDeleted=" + isDeleted,
+                            () -> productRepository.countByCategoryAndIsDeleted(category, isDeleted),
+                            "SELECT 1 FROM products WHERE category_id = ? AND is_deleted = ?",
+                            category.getId(), isDeleted));
+        }
+        return products.map(productMapper::toProductResponse);
+    }
 
-        return productRepository.findAllByCategoryAndIsDeleted(category, isDeleted,
-                PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(sortDir), sortBy)))
-                .map(productMapper::toProductDTO);
+    @Override
+    public CursorPageResponse<ProductResponse> scrollActiveProducts(String categoryId, String cursor, int size,
+                                                                    String sortBy, String sortDir) {
+        if (!SCROLL_KEY_PARSERS.containsKey(sortBy)) {
+            throw new AppException(ErrorCode.INVALID_SORT_FIELD);
+        }
+
+        Sort.Direction direction = Sort.Direction.fromString(sortDir);
+        Sort sort = "id".equals(sortBy)
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+        KeysetScrollPosition position = cursor == null
+                ? ScrollPosition.keyset()
+                : CursorUtil.decode(cursor, direction, Map.of(sortBy, SCROLL_KEY_PARSERS.get(sortBy),
+                        "id", SCROLL_KEY_PARSERS.get("id")));
+
+        Category category = categoryId == null ? null : categoryService.getCategoryById(categoryId);
+        Window<ProductListingView> window = productRepository.scrollListing(category, false, position,
+                Limit.of(size), sort);
+
+        String nextCursor = null;
+        String prevCursor = null;
+        if (!window.isEmpty()) {
+            KeysetScrollPosition first = (KeysetScrollPosition) window.positionAt(0);
+            KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            // when scrolling backward, hasNext() tells whether there are rows before this window
+            boolean hasNext = position.scrollsBackward() || window.hasNext();
+            boolean hasPrev = position.scrollsBackward() ? window.hasNext() : !position.isInitial();
+            if (hasNext) {
+                nextCursor = CursorUtil.encode(ScrollPosition.forward(last.getKeys()), direction);
+            }
+            if (hasPrev) {
+                prevCursor = CursorUtil.encode(ScrollPosition.backward(first.getKeys()), direction);
+            }
+        }
+
+        return CursorPageResponse.<ProductResponse>builder()
+                .content(window.map(productMapper::toProductResponse).getContent())
+                .size(window.size())
+                .nextCursor(nextCursor)
+                .prevCursor(prevCursor)
+                .build();
     }
 
     @Override
     public ProductDetailResponse getProductBySlug(String slug) {
-        Product product = productRepository.findBySlug(slug)
-                .orElseThrow(() -> new AppException(ErrorCode.PRODUCT_NOT_FOUND));
+        return getVersionedProductBySlug(slug).detail();
+    }
+
+    @Override
+    public VersionedProductDetail getVersionedProductBySlug(String slug) {
+        return productDetailCache.getBySlug(slug, productSlug -> toVersionedDetail(
+                productRepository.findBySlug(productSlug)
+                        .orElseThrow(() -> new AppException(ErrorCode.PRODUCT_NOT_FOUND))));
+    }
 
-        return productMapper.toProductDetail(product);
+    private VersionedProductDetail toVersionedDetail(Product product) {
+        Instant version = product.getUpdatedAt();
+        Category category = product.getCategory();
+        if (category != null && category.getUpdatedAt() != null
+                && (version == null || category.getUpdatedAt().isAfter(version))) {
+            version = category.getUpdatedAt();
+        }
+        return new VersionedProductDetail(productMapper.toProductDetail(product), version);
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void addFeaturedProduct(CreateFeaturedProduct request) {
-        User user = userService.getUserFromToken();
+        CurrentUser currentUser = userService.getCurrentUser();
 
         Product product = productRepository.findById(request.getProductId())
                 .orElseThrow(() -> new AppException(ErrorCode.PRODUCT_NOT_FOUND));
@@ -163,16 +315,17 @@ public class ProductServiceImpl implements ProductService {
 
         FeaturedProduct featuredProduct = productMapper.toFeaturedProduct(request);
         featuredProduct.setProduct(product);
-        featuredProduct.setCreatedBy(user.getId());
-        featuredProduct.setModifiedBy(user.getId());
+        featuredProduct.setCreatedBy(currentUser.userId());
+        featuredProduct.setModifiedBy(currentUser.userId());
 
         featuredProductRepository.save(featuredProduct);
+        eventPublisher.publishEvent(new FeaturedProductChangedEvent(featuredProduct.getId()));
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void updateFeatureProduct(UUID id, UpdateFeaturedProduct request) {
-        User user = userService.getUserFromToken();
+        CurrentUser currentUser = userService.getCurrentUser();
 
         FeaturedProduct featuredProduct = featuredProductRepository.findById(id)
                 .orElseThrow(() -> new AppException(ErrorCode.PRODUCT_NOT_FOUND));
@@ -190,16 +343,20 @@ public class ProductServiceImpl implements ProductService {
         }
 
         productMapper.updateFeaturedProduct(request, featuredProduct);
-        featuredProduct.setModifiedBy(user.getId());
+        featuredProduct.setModifiedBy(currentUser.userId());
 
         featuredProductRepository.save(featuredProduct);
+        eventPublisher.publishEvent(new FeaturedProductChangedEvent(featuredProduct.getId()));
     }
 
     @Override
-    public Page<FeaturedProductResponse> getAllFeaturedProduct(int page, int size, String sortBy, String sortDir) {
-        return featuredProductRepository
-                .findAll(PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(sortDir), sortBy)))
-                .map(productMapper::toFeaturedProductResponse);
+    public Slice<FeaturedProductResponse> getAllFeaturedProduct(int page, int size, String sortBy, String sortDir,
+                                                                boolean withTotal) {
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(sortDir), sortBy));
+        Slice<FeaturedProduct> featuredProducts = withTotal
+                ? featuredProductRepository.findAll(pageRequest)
+                : featuredProductRepository.findSliceBy(pageRequest);
+        return featuredProducts.map(productMapper::toFeaturedProductResponse);
     }
 
     @Override
@@ -208,6 +365,7 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> new AppException(ErrorCode.PRODUCT_NOT_FOUND));
 
         featuredProductRepository.delete(featuredProduct);
+        eventPublisher.publishEvent(new FeaturedProductChangedEvent(featuredProduct.getId()));
     }
 
     @Override
@@ -219,11 +377,20 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    public Page<FeaturedProductResponse> getActiveFeaturedProducts(int page, int size, String sortBy, String sortDir) {
+    public Slice<FeaturedProductResponse> getActiveFeaturedProducts(int page, int size, String sortBy, String sortDir,
+                                                                    boolean withTotal) {
         Date now = new Date();
-        return featuredProductRepository.findActiveFeaturedProducts(now,
-                PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(sortDir), sortBy)))
-                .map(productMapper::toFeaturedProductResponse);
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(sortDir), sortBy));
+        Optional<Slice<FeaturedProductResponse>> fromSnapshot = catalogSnapshotService.current()
+                .flatMap(snapshot -> snapshot.activeFeatured(now, pageRequest, withTotal));
+        if (fromSnapshot.isPresent()) {
+            return fromSnapshot.get();
+        }
+
+        Slice<FeaturedProduct> featuredProducts = withTotal
+                ? featuredProductRepository.findActiveFeaturedProducts(now, pageRequest)
+                : featuredProductRepository.findActiveFeaturedProductsSlice(now, pageRequest);
+        return featuredProducts.map(productMapper::toFeaturedProductResponse);
     }
 
     @Override
@@ -234,9 +401,36 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     public Page<ProductResponse> searchByName(String name, int page, int size, String sortBy, String sortDir) {
-        return productRepository.findByNameContainingAndIsDeleted(name, false,
-                        PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(sortDir), sortBy)))
-                .map(productMapper::toProductDTO);
+        Sort sort = ProductSearchIndex.RELEVANCE.equals(sortBy)
+                ? Sort.unsorted()
+                : Sort.by(Sort.Direction.fromString(sortDir), sortBy);
+        Pageable pageable = PageRequest.of(page, size, sort);
+
+        if (productSearchIndex.isReady()) {
+            return productSearchIndex.search(name, pageable);
+        }
+
+        // the index is still being built right after startup
+        return productRepository.findListingByNameContainingAndIsDeleted(name, false, pageable)
+                .map(productMapper::toProductResponse);
+    }
+
+    @Override
+    public ProductFilterResponse filterProducts(ProductFilterRequest filter, int page, int size, String sortBy,
+                                                String sortDir) {
+        if (!productFacetIndex.isReady()) {
+            throw new AppException(ErrorCode.INDEX_NOT_READY);
+        }
+        return productFacetIndex.filter(filter,
+                PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(sortDir), sortBy)));
+    }
+
+    @Override
+    public List<SuggestionResponse> suggest(String query, int limit) {
+        if (limit < 1) {
+            throw new AppException(ErrorCode.INVALID_LIMIT);
+        }
+        return productSuggestIndex.suggest(query, limit);
     }
 
 
@@ -0,0 +1,12 @@
+package com.rookies.ecommerce.service.product;
+
+import com.rookies.ecommerce.dto.response.ProductDetailResponse;
+
+import java.time.Instant;
+
+/**
+ * Product details together with the version they were loaded at: the latest update time of the
+ * product and its category.
+ */
+public record VersionedProductDetail(ProductDetailResponse detail, Instant version) {
+}
@@ -3,7 +3,9 @@ package com.rookies.ecommerce.service.review;
 import com.rookies.ecommerce.dto.request.CreateReviewRequest;
 import com.rookies.ecommerce.dto.request.UpdateReviewRequest;
 import com.rookies.ecommerce.dto.response.*;
+import com.rookies.ecommerce.repository.projection.VersionView;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.UUID;
 
@@ -35,9 +37,11 @@ public interface ReviewService {
      * @param size the number of reviews per page
      * @param sortBy the field to sort the reviews by
      * @param sortDir the direction of sorting (asc/desc)
+     * @param withTotal whether to compute the total count; when false a {@link Slice} without totals is returned
      * @return a paginated list of {@link ReviewResponse} objects
      */
-    Page<ReviewResponse> getReviewByProductId(UUID productId, int page, int size, String sortBy, String sortDir);
+    Slice<ReviewResponse> getReviewByProductId(UUID productId, int page, int size, String sortBy, String sortDir,
+                                               boolean withTotal);
 
     /**
      * Retrieves review statistics for a specific product.
@@ -47,6 +51,15 @@ public interface ReviewService {
      */
     ReviewStatistic getReviewStatisticByProductId(UUID id);
 
+    /**
+     * Retrieves the version of a product's review statistics: its number of reviews and their
+     * latest update time.
+     *
+     * @param id the unique identifier of the product
+     * @return a {@link VersionView} of the product's reviews
+     */
+    VersionView getReviewStatisticVersion(UUID id);
+
     /**
      * Deletes a review by its unique identifier.
      *
@@ -69,9 +82,10 @@ public interface ReviewService {
      * @param size the number of reviews per page
      * @param sortBy the field to sort the reviews by
      * @param sortDir the direction of sorting (asc/desc)
+     * @param withTotal whether to compute the total count; when false a {@link Slice} without totals is returned
      * @return a paginated list of {@link UserReviewResponse} objects
      */
-    Page<UserReviewResponse> getReviewByUser(int page, int size, String sortBy, String sortDir);
+    Slice<UserReviewResponse> getReviewByUser(int page, int size, String sortBy, String sortDir, boolean withTotal);
 
     /**
      * Retrieves a paginated list of all reviews.
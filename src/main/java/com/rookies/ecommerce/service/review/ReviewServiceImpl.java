@@ -5,19 +5,24 @@ import com.rookies.ecommerce.dto.request.UpdateReviewRequest;
 import com.rookies.ecommerce.dto.response.*;
 import com.rookies.ecommerce.entity.Product;
 import com.rookies.ecommerce.entity.Review;
-import com.rookies.ecommerce.entity.User;
+import com.rookies.ecommerce.event.ReviewChangedEvent;
 import com.rookies.ecommerce.exception.AppException;
 import com.rookies.ecommerce.exception.ErrorCode;
 import com.rookies.ecommerce.mapper.ReviewMapper;
+import com.rookies.ecommerce.repository.CustomerRepository;
 import com.rookies.ecommerce.repository.ReviewRepository;
+import com.rookies.ecommerce.repository.projection.VersionView;
 import com.rookies.ecommerce.service.product.ProductService;
+import com.rookies.ecommerce.service.user.CurrentUser;
 import com.rookies.ecommerce.service.user.UserService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
@@ -38,16 +43,21 @@ public class ReviewServiceImpl implements ReviewService {
 
     ProductService productService;
 
+    CustomerRepository customerRepository;
+
+    ApplicationEventPublisher eventPublisher;
+
     @Override
     public void createReview(CreateReviewRequest request) {
         try {
-            User user = userService.getUserFromToken();
+            CurrentUser currentUser = userService.getCurrentUser();
             Product product = productService.getProductEntityById(request.getProductId());
             Review review = reviewMapper.toReview(request);
 
             review.setProduct(product);
-            review.setCustomer(user.getCustomer());
+            review.setCustomer(customerRepository.getReferenceById(currentUser.customerId()));
             reviewRepository.save(review);
+            eventPublisher.publishEvent(new ReviewChangedEvent(product.getId()));
         }
         catch (DataIntegrityViolationException ex) {
             throw new AppException(ErrorCode.ALREADY_REVIEWD);
@@ -60,20 +70,24 @@ public class ReviewServiceImpl implements ReviewService {
         Review review = reviewRepository.findById(UUID.fromString(reviewId))
                 .orElseThrow(() -> new AppException(ErrorCode.RESOURCE_NOT_FOUND));
 
-        if (!review.getCustomer().equals(userService.getUserFromToken().getCustomer())) {
+        if (!review.getCustomer().getId().equals(userService.getCurrentUser().customerId())) {
             throw new AppException(ErrorCode.ACCESS_DENIED);
         }
 
         reviewMapper.updateReview(request, review);
         reviewRepository.save(review);
+        eventPublisher.publishEvent(new ReviewChangedEvent(review.getProduct().getId()));
     }
 
     @Override
-    public Page<ReviewResponse> getReviewByProductId(UUID productId, int page, int size, String sortBy, String sortDir) {
+    public Slice<ReviewResponse> getReviewByProductId(UUID productId, int page, int size, String sortBy, String sortDir,
+                                                      boolean withTotal) {
         Product product = productService.getProductEntityById(productId);
-        return reviewRepository.findAllByProduct(product,
-                        PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(sortDir), sortBy)))
-                .map(reviewMapper::toReviewResponse);
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(sortDir), sortBy));
+        Slice<Review> reviews = withTotal
+                ? reviewRepository.findAllByProduct(product, pageRequest)
+                : reviewRepository.findSliceByProduct(product, pageRequest);
+        return reviews.map(reviewMapper::toReviewResponse);
     }
 
     @Override
@@ -96,11 +110,18 @@ public class ReviewServiceImpl implements ReviewService {
                 .build();
     }
 
+    @Override
+    public VersionView getReviewStatisticVersion(UUID id) {
+        return reviewRepository.findVersionByProductId(id)
+                .orElseThrow(() -> new AppException(ErrorCode.PRODUCT_NOT_FOUND));
+    }
+
     @Override
     public void deleteReview(UUID id) {
         Review review = reviewRepository.findById(id)
                 .orElseThrow(() -> new AppException(ErrorCode.RESOURCE_NOT_FOUND));
         reviewRepository.delete(review);
+        eventPublisher.publishEvent(new ReviewChangedEvent(review.getProduct().getId()));
     }
 
     @Override
@@ -112,11 +133,14 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
-    public Page<UserReviewResponse> getReviewByUser(int page, int size, String sortBy, String sortDir) {
-        User user = userService.getUserFromToken();
-        return reviewRepository.findAllByCustomer(user.getCustomer(),
-                        PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(sortDir), sortBy)))
-                .map(reviewMapper::toUserReviewResponse);
+    public Slice<UserReviewResponse> getReviewByUser(int page, int size, String sortBy, String sortDir,
+                                                     boolean withTotal) {
+        CurrentUser currentUser = userService.getCurrentUser();
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(sortDir), sortBy));
+        Slice<Review> reviews = withTotal
+                ? reviewRepository.findAllByCustomerId(currentUser.customerId(), pageRequest)
+                : reviewRepository.findSliceByCustomerId(currentUser.customerId(), pageRequest);
+        return reviews.map(reviewMapper::toUserReviewResponse);
     }
 
     @Override
@@ -0,0 +1,529 @@
+package com.rookies.ecommerce.service.search;
+
+import com.rookies.ecommerce.dto.request.ProductFilterRequest;
+import com.rookies.ecommerce.dto.response.FacetCount;
+import com.rookies.ecommerce.dto.response.ProductFilterResponse;
+import com.rookies.ecommerce.dto.response.ProductResponse;
+import com.rookies.ecommerce.event.CatalogSnapshotChangedEvent;
+import com.rookies.ecommerce.event.ReviewChangedEvent;
+import com.rookies.ecommerce.repository.ReviewRepository;
+import com.rookies.ecommerce.repository.projection.ProductRatingView;
+import com.rookies.ecommerce.service.catalog.CatalogSnapshot;
+import com.rookies.ecommerce.utils.TextUtil;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory bitmap indexes over the active products for faceted filtering. Every product gets a
+ * dense ordinal, and each facet value (category, price range, in stock, minimum rating) keeps a
+ * {@link BitSet} of the ordinals having it, so that filters are intersections and facet counts
+ * are cardinalities of intersections.
+ * <p>
+ * Facet counts of a dimension apply every filter except the one on that dimension, so selecting
+ * a category still shows how many products the other categories would add.
+ * <p>
+ * The live ordinals are also kept sorted by each sortable field, so a page is read by walking
+ * that order and keeping the matching ordinals until the page is full, without sorting matches.
+ * <p>
+ * Products are taken from the {@link CatalogSnapshot}: the first snapshot is indexed whole and
+ * later ones only re-index the products that changed. Only ratings are loaded here.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ProductFacetIndex {
+
+    private static final int MAX_RATING = 5;
+
+    ReviewRepository reviewRepository;
+
+    long[] priceBounds;
+
+    ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    Map<UUID, Integer> ordinals = new HashMap<>();
+
+    List<IndexedProduct> products = new ArrayList<>();
+
+    Deque<Integer> freeOrdinals = new ArrayDeque<>();
+
+    BitSet live = new BitSet();
+
+    BitSet inStock = new BitSet();
+
+    Map<UUID, BitSet> byCategory = new HashMap<>();
+
+    Map<UUID, String> categoryNames = new HashMap<>();
+
+    BitSet[] byPriceRange;
+
+    // ratingAtLeast[r] holds the products whose average rating is r or more
+    BitSet[] ratingAtLeast = new BitSet[MAX_RATING + 1];
+
+    Map<SortField, SortedOrdinals> sortedOrdinals = new EnumMap<>(SortField.class);
+
+    @NonFinal
+    volatile boolean ready;
+
+    // while rebuilding, the orderings are sorted once at the end instead of on every insert
+    @NonFinal
+    boolean loading;
+
+    public ProductFacetIndex(ReviewRepository reviewRepository,
+                             @Value("${catalog.facets.price-bounds}") long[] priceBounds) {
+        this.reviewRepository = reviewRepository;
+        this.priceBounds = priceBounds.clone();
+        Arrays.sort(this.priceBounds);
+        this.byPriceRange = new BitSet[this.priceBounds.length + 1];
+        Arrays.setAll(byPriceRange, index -> new BitSet());
+        Arrays.setAll(ratingAtLeast, index -> new BitSet());
+        for (SortField field : SortField.values()) {
+            sortedOrdinals.put(field, new SortedOrdinals(field.comparator.thenComparing(IndexedProduct::id)));
+        }
+    }
+
+    @EventListener
+    public void onSnapshotChanged(CatalogSnapshotChangedEvent event) {
+        CatalogSnapshot snapshot = event.snapshot();
+        if (event.initial()) {
+            rebuild(snapshot);
+            return;
+        }
+
+        // ratings only change through reviews, so they are loaded for products not indexed yet
+        Map<UUID, Double> ratings = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (UUID productId : event.productIds()) {
+                Integer ordinal = ordinals.get(productId);
+                if (ordinal != null) {
+                    ratings.put(productId, products.get(ordinal).averageRating());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<UUID> unrated = event.productIds().stream()
+                .filter(productId -> !ratings.containsKey(productId) && snapshot.product(productId).isPresent())
+                .toList();
+        if (!unrated.isEmpty()) {
+            reviewRepository.findAverageRatingsByProductIdIn(unrated)
+                    .forEach(rating -> ratings.put(rating.getProductId(), rating.getAverageRating()));
+        }
+
+        for (UUID productId : event.productIds()) {
+            snapshot.product(productId).ifPresentOrElse(
+                    entry -> index(entry, ratings.getOrDefault(productId, 0.0)),
+                    () -> remove(productId));
+        }
+    }
+
+    public void rebuild(CatalogSnapshot snapshot) {
+        ready = false;
+        lock.writeLock().lock();
+        try {
+            ordinals.clear();
+            products.clear();
+            freeOrdinals.clear();
+            live.clear();
+            inStock.clear();
+            byCategory.clear();
+            categoryNames.clear();
+            Arrays.stream(byPriceRange).forEach(BitSet::clear);
+            Arrays.stream(ratingAtLeast).forEach(BitSet::clear);
+            sortedOrdinals.values().forEach(SortedOrdinals::clear);
+            loading = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<UUID, Double> ratings = reviewRepository.findAverageRatings().stream()
+                .collect(Collectors.toMap(ProductRatingView::getProductId, ProductRatingView::getAverageRating));
+
+        snapshot.productEntries().forEach(entry -> index(entry, ratings.getOrDefault(entry.id(), 0.0)));
+
+        lock.writeLock().lock();
+        try {
+            sortedOrdinals.values().forEach(ordering -> ordering.sort(live, products));
+            loading = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        ready = true;
+        log.info("Indexed {} products for faceted filtering", ordinals.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(CatalogSnapshot.ProductEntry entry, double averageRating) {
+        IndexedProduct indexed = new IndexedProduct(entry.id(), entry.response(), entry.categoryId(),
+                entry.createdAt(), averageRating);
+
+        lock.writeLock().lock();
+        try {
+            removeProduct(entry.id());
+            int ordinal = freeOrdinals.isEmpty() ? products.size() : freeOrdinals.pop();
+            if (ordinal == products.size()) {
+                products.add(indexed);
+            } else {
+                products.set(ordinal, indexed);
+            }
+            ordinals.put(entry.id(), ordinal);
+            setBits(ordinal, indexed);
+            if (!loading) {
+                sortedOrdinals.values().forEach(ordering -> ordering.insert(ordinal, products));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID productId) {
+        lock.writeLock().lock();
+        try {
+            removeProduct(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the active products matching every filter of {@code filter}, ordered by the first
+     * order of the pageable's sort (name, price, availableQuantity or createdAt), together with
+     * the facet counts of each dimension.
+     */
+    public ProductFilterResponse filter(ProductFilterRequest filter, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            BitSet categoryMask = categoryMask(filter.getCategoryIds());
+            BitSet priceMask = priceMask(filter.getMinPrice(), filter.getMaxPrice());
+            BitSet stockMask = filter.isInStock() ? inStock : null;
+            BitSet ratingMask = filter.getMinRating() != null ? ratingAtLeast[filter.getMinRating()] : null;
+
+            BitSet matches = intersect(live, categoryMask, priceMask, stockMask, ratingMask);
+
+            BitSet withoutCategory = intersect(live, priceMask, stockMask, ratingMask);
+            List<FacetCount> categories = byCategory.entrySet().stream()
+                    .map(entry -> FacetCount.builder()
+                            .value(entry.getKey().toString())
+                            .label(categoryNames.get(entry.getKey()))
+                            .count(intersectionCount(withoutCategory, entry.getValue()))
+                            .build())
+                    .filter(facet -> facet.getCount() > 0)
+                    .sorted(Comparator.comparingLong(FacetCount::getCount).reversed()
+                            .thenComparing(FacetCount::getLabel, Comparator.nullsLast(String::compareTo)))
+                    .toList();
+
+            BitSet withoutPrice = intersect(live, categoryMask, stockMask, ratingMask);
+            List<FacetCount> priceRanges = new ArrayList<>();
+            for (int range = 0; range < byPriceRange.length; range++) {
+                String from = range == 0 ? "0" : String.valueOf(priceBounds[range - 1]);
+                String to = range == priceBounds.length ? "" : String.valueOf(priceBounds[range]);
+                priceRanges.add(FacetCount.builder()
+                        .value(from + "-" + to)
+                        .label(from + "-" + to)
+                        .count(intersectionCount(withoutPrice, byPriceRange[range]))
+                        .build());
+            }
+
+            BitSet withoutRating = intersect(live, categoryMask, priceMask, stockMask);
+            List<FacetCount> ratings = new ArrayList<>();
+            for (int rating = MAX_RATING - 1; rating >= 1; rating--) {
+                ratings.add(FacetCount.builder()
+                        .value(String.valueOf(rating))
+                        .label(rating + "+")
+                        .count(intersectionCount(withoutRating, ratingAtLeast[rating]))
+                        .build());
+            }
+
+            long inStockCount = intersectionCount(intersect(live, categoryMask, priceMask, ratingMask), inStock);
+
+            return ProductFilterResponse.builder()
+                    .products(new PageImpl<>(page(matches, pageable), pageable, matches.cardinality()))
+                    .categories(categories)
+                    .priceRanges(priceRanges)
+                    .ratings(ratings)
+                    .inStock(inStockCount)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        double averageRating = averageRating(event.productId());
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(event.productId());
+            if (ordinal == null) {
+                return;
+            }
+            IndexedProduct previous = products.get(ordinal);
+            IndexedProduct updated = new IndexedProduct(previous.id(), previous.response(), previous.categoryId(),
+                    previous.createdAt(), averageRating);
+            clearBits(ordinal, previous);
+            products.set(ordinal, updated);
+            setBits(ordinal, updated);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Walks the ordering of the pageable's first sort order, skipping the first {@code offset}
+     * matches and stopping as soon as the page is full.
+     */
+    private List<ProductResponse> page(BitSet matches, Pageable pageable) {
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(null);
+        SortedOrdinals ordering = sortedOrdinals.get(SortField.of(order));
+        boolean descending = order != null && order.isDescending();
+
+        List<ProductResponse> content = new ArrayList<>(pageable.getPageSize());
+        long skip = pageable.getOffset();
+        for (int index = 0; index < ordering.size && content.size() < pageable.getPageSize(); index++) {
+            int ordinal = ordering.ordinals[descending ? ordering.size - 1 - index : index];
+            if (!matches.get(ordinal)) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            content.add(products.get(ordinal).response());
+        }
+        return content;
+    }
+
+    private double averageRating(UUID productId) {
+        Double averageRating = reviewRepository.findAverageRatingByProductId(productId);
+        return averageRating != null ? averageRating : 0;
+    }
+
+    private void removeProduct(UUID productId) {
+        Integer ordinal = ordinals.remove(productId);
+        if (ordinal == null) {
+            return;
+        }
+        if (!loading) {
+            sortedOrdinals.values().forEach(ordering -> ordering.remove(ordinal, products));
+        }
+        clearBits(ordinal, products.get(ordinal));
+        products.set(ordinal, null);
+        freeOrdinals.push(ordinal);
+    }
+
+    private void setBits(int ordinal, IndexedProduct product) {
+        live.set(ordinal);
+        if (product.response().getAvailableQuantity() > 0) {
+            inStock.set(ordinal);
+        }
+        if (product.categoryId() != null) {
+            byCategory.computeIfAbsent(product.categoryId(), key -> new BitSet()).set(ordinal);
+            categoryNames.put(product.categoryId(), product.response().getCategoryName());
+        }
+        byPriceRange[priceRange(product.response().getPrice())].set(ordinal);
+        for (int rating = 1; rating <= MAX_RATING && product.averageRating() >= rating; rating++) {
+            ratingAtLeast[rating].set(ordinal);
+        }
+    }
+
+    private void clearBits(int ordinal, IndexedProduct product) {
+        live.clear(ordinal);
+        inStock.clear(ordinal);
+        if (product.categoryId() != null) {
+            BitSet members = byCategory.get(product.categoryId());
+            members.clear(ordinal);
+            if (members.isEmpty()) {
+                byCategory.remove(product.categoryId());
+                categoryNames.remove(product.categoryId());
+            }
+        }
+        byPriceRange[priceRange(product.response().getPrice())].clear(ordinal);
+        for (BitSet ratings : ratingAtLeast) {
+            ratings.clear(ordinal);
+        }
+    }
+
+    private int priceRange(double price) {
+        int range = 0;
+        while (range < priceBounds.length && price >= priceBounds[range]) {
+            range++;
+        }
+        return range;
+    }
+
+    private BitSet categoryMask(List<UUID> categoryIds) {
+        if (categoryIds == null || categoryIds.isEmpty()) {
+            return null;
+        }
+        BitSet mask = new BitSet();
+        categoryIds.stream()
+                .map(byCategory::get)
+                .filter(Objects::nonNull)
+                .forEach(mask::or);
+        return mask;
+    }
+
+    private BitSet priceMask(Double minPrice, Double maxPrice) {
+        if (minPrice == null && maxPrice == null) {
+            return null;
+        }
+        double min = minPrice != null ? minPrice : 0;
+        double max = maxPrice != null ? maxPrice : Double.MAX_VALUE;
+
+        // ranges entirely within [min, max] are taken whole; only the two edge ranges are scanned
+        BitSet mask = new BitSet();
+        for (int range = 0; range < byPriceRange.length; range++) {
+            double rangeFrom = range == 0 ? 0 : priceBounds[range - 1];
+            double rangeTo = range == priceBounds.length ? Double.MAX_VALUE : priceBounds[range];
+            if (rangeTo <= min || rangeFrom > max) {
+                continue;
+            }
+            BitSet members = byPriceRange[range];
+            if (rangeFrom >= min && rangeTo <= max) {
+                mask.or(members);
+                continue;
+            }
+            for (int ordinal = members.nextSetBit(0); ordinal >= 0; ordinal = members.nextSetBit(ordinal + 1)) {
+                double price = products.get(ordinal).response().getPrice();
+                if (price >= min && price <= max) {
+                    mask.set(ordinal);
+                }
+            }
+        }
+        return mask;
+    }
+
+    private static BitSet intersect(BitSet base, BitSet... masks) {
+        BitSet result = (BitSet) base.clone();
+        for (BitSet mask : masks) {
+            if (mask != null) {
+                result.and(mask);
+            }
+        }
+        return result;
+    }
+
+    private static long intersectionCount(BitSet left, BitSet right) {
+        BitSet result = (BitSet) left.clone();
+        result.and(right);
+        return result.cardinality();
+    }
+
+    private enum SortField {
+        NAME(Comparator.comparing((IndexedProduct product) -> product.response().getName(),
+                TextUtil.NAME_ORDER)),
+        PRICE(Comparator.comparingDouble((IndexedProduct product) -> product.response().getPrice())),
+        AVAILABLE_QUANTITY(Comparator.comparingInt((IndexedProduct product) -> product.response().getAvailableQuantity())),
+        CREATED_AT(Comparator.comparing(IndexedProduct::createdAt, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        private final Comparator<IndexedProduct> comparator;
+
+        SortField(Comparator<IndexedProduct> comparator) {
+            this.comparator = comparator;
+        }
+
+        static SortField of(Sort.Order order) {
+            if (order == null) {
+                return NAME;
+            }
+            return switch (order.getProperty()) {
+                case "price" -> PRICE;
+                case "availableQuantity" -> AVAILABLE_QUANTITY;
+                case "createdAt" -> CREATED_AT;
+                default -> NAME;
+            };
+        }
+    }
+
+    /**
+     * Live ordinals in ascending order of one sort field, ties broken by product id. Inserting or
+     * removing a product finds its position by binary search and shifts the tail of the array.
+     */
+    private static final class SortedOrdinals {
+
+        private final Comparator<IndexedProduct> comparator;
+
+        private int[] ordinals = new int[16];
+
+        private int size;
+
+        SortedOrdinals(Comparator<IndexedProduct> comparator) {
+            this.comparator = comparator;
+        }
+
+        void insert(int ordinal, List<IndexedProduct> products) {
+            int position = -search(products.get(ordinal), products) - 1;
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, Math.max(16, size * 2));
+            }
+            System.arraycopy(ordinals, position, ordinals, position + 1, size - position);
+            ordinals[position] = ordinal;
+            size++;
+        }
+
+        void remove(int ordinal, List<IndexedProduct> products) {
+            int position = search(products.get(ordinal), products);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(ordinals, position + 1, ordinals, position, size - position - 1);
+            size--;
+        }
+
+        void sort(BitSet live, List<IndexedProduct> products) {
+            ordinals = live.stream()
+                    .boxed()
+                    .sorted(Comparator.comparing(products::get, comparator))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            size = ordinals.length;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        private int search(IndexedProduct product, List<IndexedProduct> products) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int comparison = comparator.compare(products.get(ordinals[middle]), product);
+                if (comparison < 0) {
+                    low = middle + 1;
+                } else if (comparison > 0) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+
+    private record IndexedProduct(UUID id, ProductResponse response, UUID categoryId, Instant createdAt,
+                                  double averageRating) {
+    }
+
+}
@@ -0,0 +1,239 @@
+package com.rookies.ecommerce.service.search;
+
+import com.rookies.ecommerce.dto.response.ProductResponse;
+import com.rookies.ecommerce.event.CatalogSnapshotChangedEvent;
+import com.rookies.ecommerce.service.catalog.CatalogSnapshot;
+import com.rookies.ecommerce.utils.SlugUtil;
+import com.rookies.ecommerce.utils.TextUtil;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the name and description of active products.
+ * Text is lower-cased and stripped of diacritics so that "ao thun" matches "Áo thun";
+ * every query term must match and results are ranked with BM25. Products are taken from the
+ * {@link CatalogSnapshot}: the first snapshot is indexed whole and later ones only re-index the
+ * products that changed.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ProductSearchIndex {
+
+    public static final String RELEVANCE = "relevance";
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^a-z0-9]+");
+
+    private static final double K1 = 1.2;
+
+    private static final double B = 0.75;
+
+    private static final int NAME_WEIGHT = 3;
+
+    ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    Map<UUID, IndexedProduct> documents = new HashMap<>();
+
+    Map<String, Map<UUID, Integer>> postings = new HashMap<>();
+
+    @NonFinal
+    long totalLength;
+
+    @NonFinal
+    volatile boolean ready;
+
+    @EventListener
+    public void onSnapshotChanged(CatalogSnapshotChangedEvent event) {
+        CatalogSnapshot snapshot = event.snapshot();
+        if (event.initial()) {
+            rebuild(snapshot);
+            return;
+        }
+        for (UUID productId : event.productIds()) {
+            snapshot.product(productId).ifPresentOrElse(this::index, () -> remove(productId));
+        }
+    }
+
+    public void rebuild(CatalogSnapshot snapshot) {
+        ready = false;
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        snapshot.productEntries().forEach(this::index);
+
+        ready = true;
+        log.info("Indexed {} products for search", documents.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(CatalogSnapshot.ProductEntry entry) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        int length = addTerms(termFrequencies, entry.response().getName(), NAME_WEIGHT)
+                + addTerms(termFrequencies, entry.description(), 1);
+        IndexedProduct document = new IndexedProduct(entry.response(), entry.createdAt(), termFrequencies, length);
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(entry.id());
+            documents.put(entry.id(), document);
+            termFrequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, key -> new HashMap<>()).put(entry.id(), frequency));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID productId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns active products containing every term of {@code query}. Results are ordered by the
+     * first order of the pageable's sort (name, price, availableQuantity or createdAt), or by
+     * relevance when the pageable is unsorted or sorted by {@value #RELEVANCE}.
+     */
+    public Page<ProductResponse> search(String query, Pageable pageable) {
+        List<String> terms = tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Map<UUID, Integer>> termPostings = terms.stream()
+                    .map(term -> postings.getOrDefault(term, Map.of()))
+                    .sorted(Comparator.comparingInt(Map::size))
+                    .toList();
+            if (termPostings.get(0).isEmpty()) {
+                return Page.empty(pageable);
+            }
+
+            double averageLength = (double) totalLength / documents.size();
+            List<ScoredProduct> matches = new ArrayList<>();
+            for (UUID id : termPostings.get(0).keySet()) {
+                IndexedProduct document = documents.get(id);
+                double score = 0;
+                boolean matchesAll = true;
+                for (Map<UUID, Integer> posting : termPostings) {
+                    Integer frequency = posting.get(id);
+                    if (frequency == null) {
+                        matchesAll = false;
+                        break;
+                    }
+                    score += bm25(frequency, posting.size(), document.length(), averageLength);
+                }
+                if (matchesAll) {
+                    matches.add(new ScoredProduct(document, score));
+                }
+            }
+
+            matches.sort(comparator(pageable.getSort()));
+            int from = (int) Math.min(pageable.getOffset(), matches.size());
+            int to = Math.min(from + pageable.getPageSize(), matches.size());
+            List<ProductResponse> content = matches.subList(from, to).stream()
+                    .map(match -> match.document().response())
+                    .toList();
+            return new PageImpl<>(content, pageable, matches.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        // NFD does not decompose the Vietnamese "đ", so it is folded explicitly
+        String folded = SlugUtil.removeDiacritics(text.toLowerCase(Locale.ROOT)).replace('đ', 'd');
+        return Arrays.stream(TOKEN_SEPARATOR.split(folded))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    private static int addTerms(Map<String, Integer> termFrequencies, String text, int weight) {
+        List<String> tokens = tokenize(text);
+        tokens.forEach(token -> termFrequencies.merge(token, weight, Integer::sum));
+        return tokens.size() * weight;
+    }
+
+    private double bm25(int frequency, int documentFrequency, int length, double averageLength) {
+        double idf = Math.log(1 + (documents.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        double norm = frequency + K1 * (1 - B + B * length / averageLength);
+        return idf * frequency * (K1 + 1) / norm;
+    }
+
+    private void removeDocument(UUID productId) {
+        IndexedProduct previous = documents.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        previous.termFrequencies().keySet().forEach(term -> {
+            Map<UUID, Integer> posting = postings.get(term);
+            posting.remove(productId);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        });
+        totalLength -= previous.length();
+    }
+
+    private static Comparator<ScoredProduct> comparator(Sort sort) {
+        Comparator<ScoredProduct> byRelevance = Comparator.comparingDouble(ScoredProduct::score).reversed();
+        Sort.Order order = sort.stream().findFirst().orElse(null);
+        if (order == null) {
+            return byRelevance;
+        }
+
+        Comparator<ScoredProduct> byField = switch (order.getProperty()) {
+            case "name" -> Comparator.comparing(match -> match.document().response().getName(),
+                    TextUtil.NAME_ORDER);
+            case "price" -> Comparator.comparingDouble(match -> match.document().response().getPrice());
+            case "availableQuantity" -> Comparator.comparingInt(match ->
+                    match.document().response().getAvailableQuantity());
+            case "createdAt" -> Comparator.comparing(match -> match.document().createdAt(),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            default -> null;
+        };
+        if (byField == null) {
+            return byRelevance;
+        }
+        return (order.isAscending() ? byField : byField.reversed()).thenComparing(byRelevance);
+    }
+
+    private record IndexedProduct(ProductResponse response, Instant createdAt,
+                                  Map<String, Integer> termFrequencies, int length) {
+    }
+
+    private record ScoredProduct(IndexedProduct document, double score) {
+    }
+
+}
@@ -0,0 +1,410 @@
+package com.rookies.ecommerce.service.search;
+
+import com.rookies.ecommerce.dto.response.SuggestionResponse;
+import com.rookies.ecommerce.entity.Category;
+import com.rookies.ecommerce.event.CatalogSnapshotChangedEvent;
+import com.rookies.ecommerce.event.ReviewChangedEvent;
+import com.rookies.ecommerce.repository.ReviewRepository;
+import com.rookies.ecommerce.repository.projection.ProductRatingView;
+import com.rookies.ecommerce.service.catalog.CatalogSnapshot;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Prefix trie over the diacritic-folded names of active products and their categories, for
+ * typeahead suggestions. A name is reachable from the start of each of its words, so "thun"
+ * suggests "Áo thun". Every node keeps the best suggestions of its subtree, ranked by weight,
+ * so a lookup only walks the prefix. Each term is indexed to at most {@value #MAX_TERM_LENGTH}
+ * characters; longer queries check the few names below that depth.
+ * <p>
+ * Products are weighted by their number of reviews and categories by their number of active
+ * products. Names are taken from the {@link CatalogSnapshot}: the first snapshot is indexed whole
+ * and later ones only re-index the products and categories that changed.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ProductSuggestIndex {
+
+    public static final String PRODUCT = "product";
+
+    public static final String CATEGORY = "category";
+
+    private static final int MAX_TERM_LENGTH = 32;
+
+    private static final Comparator<Entry> RANKING = Comparator.comparingLong(Entry::weight).reversed()
+            .thenComparingInt(entry -> entry.suggestion().getName().length())
+            .thenComparing(entry -> entry.suggestion().getName());
+
+    ReviewRepository reviewRepository;
+
+    int maxSuggestions;
+
+    ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    Node root = new Node();
+
+    Map<String, Entry> entries = new HashMap<>();
+
+    Map<UUID, UUID> productCategories = new HashMap<>();
+
+    Map<UUID, Long> categoryProductCounts = new HashMap<>();
+
+    // categories seen while rebuilding, inserted once with their final product counts
+    Map<UUID, Category> loadingCategories = new HashMap<>();
+
+    @NonFinal
+    boolean loading;
+
+    public ProductSuggestIndex(ReviewRepository reviewRepository,
+                               @Value("${catalog.suggest.max-results}") int maxSuggestions) {
+        this.reviewRepository = reviewRepository;
+        this.maxSuggestions = maxSuggestions;
+    }
+
+    @EventListener
+    public void onSnapshotChanged(CatalogSnapshotChangedEvent event) {
+        CatalogSnapshot snapshot = event.snapshot();
+        if (event.initial()) {
+            rebuild(snapshot);
+            return;
+        }
+
+        // review counts only change through reviews, so they are loaded for products not indexed yet
+        Map<UUID, Long> reviewCounts = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (UUID productId : event.productIds()) {
+                Entry previous = entries.get(key(PRODUCT, productId.toString()));
+                if (previous != null) {
+                    reviewCounts.put(productId, previous.weight());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<UUID> uncounted = event.productIds().stream()
+                .filter(productId -> !reviewCounts.containsKey(productId) && snapshot.product(productId).isPresent())
+                .toList();
+        if (!uncounted.isEmpty()) {
+            reviewRepository.findAverageRatingsByProductIdIn(uncounted)
+                    .forEach(rating -> reviewCounts.put(rating.getProductId(), rating.getReviewCount()));
+        }
+
+        for (UUID productId : event.productIds()) {
+            snapshot.product(productId).ifPresentOrElse(
+                    entry -> index(entry, activeCategory(snapshot, entry), reviewCounts.getOrDefault(productId, 0L)),
+                    () -> remove(productId));
+        }
+        for (UUID categoryId : event.categoryIds()) {
+            updateCategory(categoryId, snapshot.category(categoryId).orElse(null));
+        }
+    }
+
+    public void rebuild(CatalogSnapshot snapshot) {
+        lock.writeLock().lock();
+        try {
+            root.children.clear();
+            root.terminals.clear();
+            root.top = List.of();
+            entries.clear();
+            productCategories.clear();
+            categoryProductCounts.clear();
+            loadingCategories.clear();
+            loading = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<UUID, Long> reviewCounts = reviewRepository.findAverageRatings().stream()
+                .collect(Collectors.toMap(ProductRatingView::getProductId, ProductRatingView::getReviewCount));
+
+        snapshot.productEntries().forEach(entry -> index(entry, activeCategory(snapshot, entry),
+                reviewCounts.getOrDefault(entry.id(), 0L)));
+
+        lock.writeLock().lock();
+        try {
+            loadingCategories.forEach((categoryId, category) -> replaceCategory(categoryId, category.getName(),
+                    category.getSlug(), categoryProductCounts.get(categoryId)));
+            loadingCategories.clear();
+            loading = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Indexed {} names for suggestions", entries.size());
+    }
+
+    /**
+     * Indexes an active product, and counts it towards {@code category}, its active category or null.
+     */
+    public void index(CatalogSnapshot.ProductEntry product, Category category, long reviewCount) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.get(key(PRODUCT, product.id().toString()));
+            if (previous != null) {
+                delete(previous);
+            }
+            insert(new Entry(PRODUCT, SuggestionResponse.builder()
+                    .type(PRODUCT)
+                    .id(product.id().toString())
+                    .name(product.response().getName())
+                    .slug(product.response().getSlug())
+                    .build(), reviewCount));
+
+            // the category's weight only changes when the product moves to another category
+            UUID categoryId = category != null ? category.getId() : null;
+            if (!Objects.equals(categoryId, productCategories.get(product.id()))) {
+                removeFromCategory(product.id());
+                if (categoryId != null) {
+                    productCategories.put(product.id(), categoryId);
+                    long count = categoryProductCounts.merge(categoryId, 1L, Long::sum);
+                    if (loading) {
+                        loadingCategories.put(categoryId, category);
+                    } else {
+                        replaceCategory(categoryId, category.getName(), category.getSlug(), count);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID productId) {
+        lock.writeLock().lock();
+        try {
+            removeProduct(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} products and categories having a word that starts with
+     * {@code query}, ignoring case and diacritics, best weighted first.
+     */
+    public List<SuggestionResponse> suggest(String query, int limit) {
+        String prefix = fold(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < Math.min(prefix.length(), MAX_TERM_LENGTH) && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            if (prefix.length() <= MAX_TERM_LENGTH) {
+                return node.top.stream()
+                        .limit(Math.min(limit, maxSuggestions))
+                        .map(Entry::suggestion)
+                        .toList();
+            }
+
+            // the query is longer than the indexed terms, so check the names below the deepest node
+            Set<Entry> candidates = new HashSet<>();
+            collect(node, candidates);
+            return candidates.stream()
+                    .filter(entry -> suffixes(entry.suggestion().getName()).stream()
+                            .anyMatch(suffix -> suffix.startsWith(prefix)))
+                    .sorted(RANKING)
+                    .limit(Math.min(limit, maxSuggestions))
+                    .map(Entry::suggestion)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        long reviewCount = reviewRepository.countByProductId(event.productId());
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.get(key(PRODUCT, event.productId().toString()));
+            if (previous != null && previous.weight() != reviewCount) {
+                delete(previous);
+                insert(new Entry(PRODUCT, previous.suggestion(), reviewCount));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Renames a category, or removes its suggestion when {@code category} is null because it was
+     * deleted.
+     */
+    public void updateCategory(UUID categoryId, Category category) {
+        lock.writeLock().lock();
+        try {
+            Long count = categoryProductCounts.get(categoryId);
+            if (category == null || count == null) {
+                Entry previous = entries.get(key(CATEGORY, categoryId.toString()));
+                if (previous != null) {
+                    delete(previous);
+                }
+            } else {
+                replaceCategory(categoryId, category.getName(), category.getSlug(), count);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Category activeCategory(CatalogSnapshot snapshot, CatalogSnapshot.ProductEntry product) {
+        return product.categoryId() != null ? snapshot.category(product.categoryId()).orElse(null) : null;
+    }
+
+    static String fold(String text) {
+        return String.join(" ", ProductSearchIndex.tokenize(text));
+    }
+
+    private void removeProduct(UUID productId) {
+        Entry previous = entries.get(key(PRODUCT, productId.toString()));
+        if (previous != null) {
+            delete(previous);
+        }
+        removeFromCategory(productId);
+    }
+
+    private void removeFromCategory(UUID productId) {
+        UUID categoryId = productCategories.remove(productId);
+        if (categoryId == null) {
+            return;
+        }
+        long count = categoryProductCounts.merge(categoryId, -1L, Long::sum);
+        Entry category = entries.get(key(CATEGORY, categoryId.toString()));
+        if (count <= 0) {
+            categoryProductCounts.remove(categoryId);
+            loadingCategories.remove(categoryId);
+            if (category != null) {
+                delete(category);
+            }
+        } else if (category != null) {
+            replaceCategory(categoryId, category.suggestion().getName(), category.suggestion().getSlug(), count);
+        }
+    }
+
+    private void replaceCategory(UUID categoryId, String name, String slug, long productCount) {
+        Entry previous = entries.get(key(CATEGORY, categoryId.toString()));
+        if (previous != null) {
+            delete(previous);
+        }
+        insert(new Entry(CATEGORY, SuggestionResponse.builder()
+                .type(CATEGORY)
+                .id(categoryId.toString())
+                .name(name)
+                .slug(slug)
+                .build(), productCount));
+    }
+
+    private void insert(Entry entry) {
+        entries.put(entry.key(), entry);
+        for (String term : terms(entry.suggestion().getName())) {
+            Node[] path = new Node[term.length() + 1];
+            path[0] = root;
+            for (int i = 0; i < term.length(); i++) {
+                path[i + 1] = path[i].children.computeIfAbsent(term.charAt(i), key -> new Node());
+            }
+            path[term.length()].terminals.add(entry);
+            for (int i = term.length(); i >= 0; i--) {
+                updateTop(path[i]);
+            }
+        }
+    }
+
+    private void delete(Entry entry) {
+        entries.remove(entry.key());
+        for (String term : terms(entry.suggestion().getName())) {
+            Node[] path = new Node[term.length() + 1];
+            path[0] = root;
+            for (int i = 0; i < term.length() && path[i] != null; i++) {
+                path[i + 1] = path[i].children.get(term.charAt(i));
+            }
+            if (path[term.length()] == null) {
+                continue;
+            }
+            path[term.length()].terminals.remove(entry);
+            for (int i = term.length(); i >= 0; i--) {
+                Node node = path[i];
+                if (i > 0 && node.terminals.isEmpty() && node.children.isEmpty()) {
+                    path[i - 1].children.remove(term.charAt(i - 1));
+                } else {
+                    updateTop(node);
+                }
+            }
+        }
+    }
+
+    private void updateTop(Node node) {
+        node.top = Stream.concat(node.terminals.stream(),
+                        node.children.values().stream().flatMap(child -> child.top.stream()))
+                .distinct()
+                .sorted(RANKING)
+                .limit(maxSuggestions)
+                .toList();
+    }
+
+    private static void collect(Node node, Set<Entry> entries) {
+        entries.addAll(node.terminals);
+        node.children.values().forEach(child -> collect(child, entries));
+    }
+
+    private static List<String> terms(String name) {
+        return suffixes(name).stream()
+                .map(suffix -> suffix.length() > MAX_TERM_LENGTH ? suffix.substring(0, MAX_TERM_LENGTH) : suffix)
+                .distinct()
+                .toList();
+    }
+
+    private static List<String> suffixes(String name) {
+        List<String> tokens = ProductSearchIndex.tokenize(name);
+        List<String> suffixes = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            suffixes.add(String.join(" ", tokens.subList(i, tokens.size())));
+        }
+        return suffixes;
+    }
+
+    private static String key(String type, String id) {
+        return type + ":" + id;
+    }
+
+    private record Entry(String type, SuggestionResponse suggestion, long weight) {
+
+        String key() {
+            return ProductSuggestIndex.key(type, suggestion.getId());
+        }
+
+    }
+
+    private static final class Node {
+
+        final Map<Character, Node> children = new HashMap<>();
+
+        final Set<Entry> terminals = new HashSet<>();
+
+        List<Entry> top = List.of();
+
+    }
+
+}
@@ -5,13 +5,16 @@ import com.cloudinary.utils.ObjectUtils;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Map;
 
 @Service
+@ConditionalOnProperty(name = "upload.storage", havingValue = "cloudinary", matchIfMissing = true)
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class CloudinaryService implements UploadService{
@@ -29,6 +32,28 @@ public class CloudinaryService implements UploadService{
         return uploadResult.get("secure_url").toString();
     }
 
+    @Override
+    public String uploadFile(Path file, String folderName, String fileName) throws IOException {
+        Map uploadResult = cloudinary.uploader().upload(file.toFile(),
+                ObjectUtils.asMap(
+                        "folder", folderName,
+                        "public_id", fileName,
+                        "overwrite", true
+                ));
+        return uploadResult.get("secure_url").toString();
+    }
+
+    @Override
+    public String uploadFromUrl(String url, String folderName, String fileName) throws IOException {
+        Map uploadResult = cloudinary.uploader().upload(url,
+                ObjectUtils.asMap(
+                        "folder", folderName,
+                        "public_id", fileName,
+                        "overwrite", true
+                ));
+        return uploadResult.get("secure_url").toString();
+    }
+
     @Override
     public void deleteFile(String publicId) {
         try {
@@ -0,0 +1,257 @@
+package com.rookies.ecommerce.service.upload;
+
+import com.rookies.ecommerce.entity.Product;
+import com.rookies.ecommerce.enums.ImageStatus;
+import com.rookies.ecommerce.event.ProductChangedEvent;
+import com.rookies.ecommerce.event.ProductImageSpooledEvent;
+import com.rookies.ecommerce.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Uploads product images outside the transaction that saves the product. The image is spooled to
+ * local disk while the request is handled, and uploaded by a bounded worker pool once the product
+ * has been committed, so no database connection is held during the upload. The image URL is written
+ * in a short transaction of its own when the upload finishes.
+ * <p>
+ * Every image of a product is stored under the same public id, so the uploads of one product run
+ * one after another: a newer image always overwrites an older one, and an image superseded before
+ * its upload starts is dropped.
+ */
+@Slf4j
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ImageUploadPipeline {
+
+    static final String FOLDER = "products";
+
+    ProductRepository productRepository;
+
+    UploadService uploadService;
+
+    ApplicationEventPublisher eventPublisher;
+
+    TransactionTemplate transactionTemplate;
+
+    ThreadPoolExecutor executor;
+
+    // the newest spooled file per product whose upload has not started yet
+    Map<UUID, Path> queued = new ConcurrentHashMap<>();
+
+    // products whose upload task is scheduled or running; that task also uploads files queued meanwhile
+    Set<UUID> uploading = ConcurrentHashMap.newKeySet();
+
+    Counter uploadedCounter;
+
+    Counter retriedCounter;
+
+    Counter failedCounter;
+
+    Path spoolDir;
+
+    int maxAttempts;
+
+    long retryBackoffMs;
+
+    public ImageUploadPipeline(ProductRepository productRepository, UploadService uploadService,
+                               ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${upload.pipeline.spool-dir}") Path spoolDir,
+                               @Value("${upload.pipeline.pool-size}") int poolSize,
+                               @Value("${upload.pipeline.queue-capacity}") int queueCapacity,
+                               @Value("${upload.pipeline.max-attempts}") int maxAttempts,
+                               @Value("${upload.pipeline.retry-backoff-ms}") long retryBackoffMs) {
+        this.productRepository = productRepository;
+        this.uploadService = uploadService;
+        this.eventPublisher = eventPublisher;
+        // uploads may be handed over from an after-commit callback, where the finished transaction is still bound
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("product-image-upload-"));
+        this.uploadedCounter = meterRegistry.counter("product_image_upload", "outcome", "uploaded");
+        this.retriedCounter = meterRegistry.counter("product_image_upload", "outcome", "retried");
+        this.failedCounter = meterRegistry.counter("product_image_upload", "outcome", "failed");
+        this.spoolDir = spoolDir;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMs = retryBackoffMs;
+        try {
+            Files.createDirectories(spoolDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create the image spool directory " + spoolDir, e);
+        }
+    }
+
+    /**
+     * Writes the image to the spool directory and schedules its upload for when the current
+     * transaction commits. The caller marks the product {@link ImageStatus#PENDING}.
+     *
+     * @param productId the id of the product the image belongs to
+     * @param imageFile the uploaded image
+     * @throws IOException if the image cannot be written to the spool directory
+     */
+    public void submit(UUID productId, MultipartFile imageFile) throws IOException {
+        Path file = Files.createTempFile(spoolDir, productId + "-", ".img");
+        try {
+            // moves or streams the multipart part to disk instead of buffering it in memory
+            imageFile.transferTo(file);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(file);
+            throw ex;
+        }
+        eventPublisher.publishEvent(new ProductImageSpooledEvent(productId, file));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onImageSpooled(ProductImageSpooledEvent event) {
+        Path superseded = queued.put(event.productId(), event.file());
+        if (superseded != null) {
+            delete(superseded);
+        }
+        schedule(event.productId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onImageDiscarded(ProductImageSpooledEvent event) {
+        delete(event.file());
+    }
+
+    private void schedule(UUID productId) {
+        if (!uploading.add(productId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> drain(productId));
+        } catch (RejectedExecutionException ex) {
+            uploading.remove(productId);
+            Path file = queued.remove(productId);
+            if (file != null) {
+                log.warn("Image upload queue is full, dropping the image of product {}", productId);
+                fail(productId);
+                delete(file);
+            }
+        }
+    }
+
+    private void drain(UUID productId) {
+        Path file;
+        while ((file = queued.remove(productId)) != null) {
+            upload(productId, file);
+        }
+        uploading.remove(productId);
+        // a file queued between the last check and the removal above has no task to pick it up
+        if (queued.containsKey(productId)) {
+            schedule(productId);
+        }
+    }
+
+    private void upload(UUID productId, Path file) {
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    String imageUrl = uploadService.uploadFile(file, FOLDER, productId.toString());
+                    uploadedCounter.increment();
+                    complete(productId, imageUrl);
+                    return;
+                } catch (IOException | RuntimeException ex) {
+                    if (attempt >= maxAttempts) {
+                        log.warn("Could not upload the image of product {} after {} attempts", productId,
+                                attempt, ex);
+                        fail(productId);
+                        return;
+                    }
+                    log.debug("Image upload attempt {} for product {} failed, retrying", attempt, productId, ex);
+                    retriedCounter.increment();
+                    Thread.sleep(retryBackoffMs << (attempt - 1));
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            fail(productId);
+        } finally {
+            delete(file);
+        }
+    }
+
+    private void complete(UUID productId, String imageUrl) {
+        // a newer image is queued and will overwrite this one
+        if (queued.containsKey(productId)) {
+            return;
+        }
+        updateImage(productId, product -> {
+            product.setImageUrl(imageUrl);
+            product.setImageStatus(ImageStatus.READY);
+        });
+    }
+
+    private void fail(UUID productId) {
+        failedCounter.increment();
+        if (queued.containsKey(productId)) {
+            return;
+        }
+        // the previous image, if any, stays in place
+        updateImage(productId, product -> product.setImageStatus(ImageStatus.FAILED));
+    }
+
+    private void updateImage(UUID productId, Consumer<Product> update) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> productRepository.findById(productId)
+                    .ifPresent(product -> {
+                        update.accept(product);
+                        productRepository.save(product);
+                        eventPublisher.publishEvent(new ProductChangedEvent(productId));
+                    }));
+        } catch (RuntimeException ex) {
+            log.error("Could not save the image state of product {}", productId, ex);
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Could not delete spooled image {}", file, ex);
+        }
+    }
+
+    /**
+     * Stops accepting uploads and waits for the queued ones to finish.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Image uploads still running at shutdown; their products stay pending");
+        }
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.rookies.ecommerce.service.upload;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Stores uploads on the local file system instead of Cloudinary, for tests and local development
+ * without cloud credentials. Enabled with {@code upload.storage=local}.
+ * <p>
+ * Stored files are publicly readable, so {@link #uploadFromUrl} only fetches http(s) URLs of public
+ * addresses, without following redirects, with timeouts and a size cap.
+ */
+@Service
+@ConditionalOnProperty(name = "upload.storage", havingValue = "local")
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class LocalUploadService implements UploadService {
+
+    private static final int COPY_BUFFER_SIZE = 8192;
+
+    Path rootDir;
+
+    String baseUrl;
+
+    int downloadTimeoutMillis;
+
+    long maxDownloadBytes;
+
+    public LocalUploadService(@Value("${upload.local.root-dir}") Path rootDir,
+                              @Value("${upload.local.base-url}") String baseUrl,
+                              @Value("${upload.local.download-timeout-ms}") int downloadTimeoutMillis,
+                              @Value("${upload.local.max-download-bytes}") long maxDownloadBytes) {
+        this.rootDir = rootDir.toAbsolutePath().normalize();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+        this.downloadTimeoutMillis = downloadTimeoutMillis;
+        this.maxDownloadBytes = maxDownloadBytes;
+    }
+
+    @Override
+    public String uploadFile(MultipartFile file, String folderName, String fileName) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            return store(input, folderName, fileName, Long.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public String uploadFile(Path file, String folderName, String fileName) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            return store(input, folderName, fileName, Long.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public String uploadFromUrl(String url, String folderName, String fileName) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) publicHttpUrl(url).openConnection();
+        // a redirect could point at an address that was not checked
+        connection.setInstanceFollowRedirects(false);
+        connection.setConnectTimeout(downloadTimeoutMillis);
+        connection.setReadTimeout(downloadTimeoutMillis);
+        try {
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Unexpected status " + connection.getResponseCode() + " for " + url);
+            }
+            if (connection.getContentLengthLong() > maxDownloadBytes) {
+                throw new IOException("File larger than " + maxDownloadBytes + " bytes: " + url);
+            }
+            try (InputStream input = connection.getInputStream()) {
+                return store(input, folderName, fileName, maxDownloadBytes);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @Override
+    public void deleteFile(String publicId) {
+        try {
+            Files.deleteIfExists(resolve(publicId));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete file: " + publicId, e);
+        }
+    }
+
+    @Override
+    public String renameFile(String from, String to) throws IOException {
+        Path target = resolve(to);
+        Files.createDirectories(target.getParent());
+        Files.move(resolve(from), target, StandardCopyOption.REPLACE_EXISTING);
+        return baseUrl + to;
+    }
+
+    private String store(InputStream input, String folderName, String fileName, long maxBytes) throws IOException {
+        String publicId = folderName + "/" + fileName;
+        Path target = resolve(publicId);
+        Files.createDirectories(target.getParent());
+        // written aside and moved in, so a partial or oversized file is never served
+        Path part = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".part");
+        try {
+            try (OutputStream output = Files.newOutputStream(part)) {
+                byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                long total = 0;
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    total += read;
+                    if (total > maxBytes) {
+                        throw new IOException("File larger than " + maxBytes + " bytes: " + publicId);
+                    }
+                    output.write(buffer, 0, read);
+                }
+            }
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(part);
+        }
+        return baseUrl + publicId;
+    }
+
+    private static URL publicHttpUrl(String url) throws IOException {
+        URI uri;
+        try {
+            uri = new URI(url);
+        } catch (URISyntaxException ex) {
+            throw new IOException("Invalid URL: " + url, ex);
+        }
+        if (!"http".equalsIgnoreCase(uri.getScheme()) && !"https".equalsIgnoreCase(uri.getScheme())
+                || uri.getHost() == null) {
+            throw new IOException("Only http and https URLs can be fetched: " + url);
+        }
+        for (InetAddress address : InetAddress.getAllByName(uri.getHost())) {
+            if (!isPublic(address)) {
+                throw new IOException("Refusing to fetch from non-public address " + address + ": " + url);
+            }
+        }
+        return uri.toURL();
+    }
+
+    private static boolean isPublic(InetAddress address) {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return false;
+        }
+        byte[] bytes = address.getAddress();
+        // IPv6 unique local addresses (fc00::/7) and the IPv4 carrier-grade NAT range (100.64.0.0/10)
+        boolean uniqueLocal = bytes.length == 16 && (bytes[0] & 0xfe) == 0xfc;
+        boolean sharedAddressSpace = bytes.length == 4 && (bytes[0] & 0xff) == 100 && (bytes[1] & 0xc0) == 64;
+        return !uniqueLocal && !sharedAddressSpace;
+    }
+
+    private Path resolve(String publicId) {
+        Path path = rootDir.resolve(publicId).normalize();
+        if (!path.startsWith(rootDir)) {
+            throw new IllegalArgumentException("File outside the upload directory: " + publicId);
+        }
+        return path;
+    }
+
+}
@@ -3,6 +3,7 @@ package com.rookies.ecommerce.service.upload;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * Service interface for handling file upload-related operations.
@@ -20,6 +21,30 @@ public interface UploadService {
      */
     String uploadFile(MultipartFile file, String folderName, String fileName) throws IOException;
 
+    /**
+     * Uploads a file from the local file system to a specified folder with a given file name.
+     * The file is streamed from disk rather than read into memory.
+     *
+     * @param file the path of the file to be uploaded
+     * @param folderName the name of the folder where the file will be stored
+     * @param fileName the name to assign to the uploaded file
+     * @return the URL or identifier of the uploaded file
+     * @throws IOException if an error occurs during file upload
+     */
+    String uploadFile(Path file, String folderName, String fileName) throws IOException;
+
+    /**
+     * Uploads the file found at a remote URL to a specified folder with a given file name.
+     * The file is fetched by the storage provider, not through this application.
+     *
+     * @param url the URL of the file to be uploaded
+     * @param folderName the name of the folder where the file will be stored
+     * @param fileName the name to assign to the uploaded file
+     * @return the URL or identifier of the uploaded file
+     * @throws IOException if an error occurs during file upload
+     */
+    String uploadFromUrl(String url, String folderName, String fileName) throws IOException;
+
     /**
      * Deletes a file by its public identifier.
      *
@@ -1,7 +1,7 @@
 package com.rookies.ecommerce.service.user;
 
 import com.rookies.ecommerce.dto.response.UserDTO;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 /**
  * Service interface for handling admin-related user operations.
@@ -16,9 +16,11 @@ public interface AdminService {
      * @param size the number of users per page
      * @param sortBy the field to sort the users by
      * @param sortDir the direction of sorting (asc for ascending, desc for descending)
+     * @param withTotal whether to compute the total count; when false a {@link Slice} without totals is returned
      * @return a paginated list of {@link UserDTO} objects
      */
-    Page<UserDTO> getAllUsersByStatus(boolean isActive, int page, int size, String sortBy, String sortDir);
+    Slice<UserDTO> getAllUsersByStatus(boolean isActive, int page, int size, String sortBy, String sortDir,
+                                       boolean withTotal);
 
     /**
      * Toggles the active status of a user.
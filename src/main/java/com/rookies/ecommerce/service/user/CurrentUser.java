@@ -0,0 +1,13 @@
+package com.rookies.ecommerce.service.user;
+
+import java.util.UUID;
+
+/**
+ * Identifiers of the authenticated user, resolved once per request.
+ *
+ * @param userId the identifier of the user
+ * @param customerId the identifier of the user's customer record, or null for users without one
+ * @param cartId the identifier of the customer's cart, or null for users without one
+ */
+public record CurrentUser(UUID userId, UUID customerId, UUID cartId) {
+}
@@ -0,0 +1,43 @@
+package com.rookies.ecommerce.service.user;
+
+import com.rookies.ecommerce.exception.AppException;
+import com.rookies.ecommerce.exception.ErrorCode;
+import com.rookies.ecommerce.repository.UserRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * Resolves the identifiers of the authenticated user with a single query on first access
+ * and memoizes them for the rest of the request.
+ */
+@Component
+@RequestScope
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CurrentUserResolver {
+
+    UserRepository userRepository;
+
+    @NonFinal
+    CurrentUser currentUser;
+
+    public CurrentUser get() {
+        if (currentUser == null) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication == null || !authentication.isAuthenticated()) {
+                throw new AppException(ErrorCode.UNAUTHORIZED_REQUEST);
+            }
+
+            currentUser = userRepository.findCurrentUserByEmail(authentication.getName())
+                    .orElseThrow(() -> new AppException(ErrorCode.UNAUTHORIZED_REQUEST));
+        }
+        return currentUser;
+    }
+
+}
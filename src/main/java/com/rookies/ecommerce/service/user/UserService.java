@@ -49,4 +49,11 @@ public interface UserService {
      */
     User getUserFromToken();
 
+    /**
+     * Retrieves the identifiers of the currently authenticated user, resolved once per request.
+     *
+     * @return a {@link CurrentUser} holding the user, customer and cart identifiers
+     */
+    CurrentUser getCurrentUser();
+
 }
\ No newline at end of file
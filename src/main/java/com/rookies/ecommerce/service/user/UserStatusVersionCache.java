@@ -0,0 +1,47 @@
+package com.rookies.ecommerce.service.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rookies.ecommerce.repository.UserRepository;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Caches the account status version of users so that tokens carrying a stale version
+ * (issued before the account was deactivated) can be rejected without a query per request.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class UserStatusVersionCache {
+
+    private static final int INACTIVE = -1;
+
+    UserRepository userRepository;
+
+    Cache<UUID, Integer> versions;
+
+    public UserStatusVersionCache(UserRepository userRepository,
+                                  @Value("${security.jwt.claims-principal.status-cache-ttl-ms}") long ttlMillis) {
+        this.userRepository = userRepository;
+        this.versions = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .maximumSize(100_000)
+                .build();
+    }
+
+    public boolean isCurrent(UUID userId, int statusVersion) {
+        int currentVersion = versions.get(userId, id -> userRepository.findActiveStatusVersionById(id)
+                .orElse(INACTIVE));
+        return currentVersion != INACTIVE && currentVersion == statusVersion;
+    }
+
+    public void evict(UUID userId) {
+        versions.invalidate(userId);
+    }
+
+}
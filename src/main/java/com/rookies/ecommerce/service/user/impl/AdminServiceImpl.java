@@ -4,18 +4,23 @@ import com.rookies.ecommerce.enums.RoleName;
 import com.rookies.ecommerce.dto.response.UserDTO;
 import com.rookies.ecommerce.entity.Role;
 import com.rookies.ecommerce.entity.User;
+import com.rookies.ecommerce.event.UserChangedEvent;
 import com.rookies.ecommerce.exception.AppException;
 import com.rookies.ecommerce.exception.ErrorCode;
 import com.rookies.ecommerce.mapper.UserMapper;
 import com.rookies.ecommerce.repository.RoleRepository;
 import com.rookies.ecommerce.repository.UserRepository;
+import com.rookies.ecommerce.service.pagination.CountCache;
 import com.rookies.ecommerce.service.user.AdminService;
+import com.rookies.ecommerce.service.user.UserStatusVersionCache;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 
 import java.util.UUID;
@@ -31,11 +36,24 @@ public class AdminServiceImpl implements AdminService {
 
     UserMapper userMapper;
 
+    UserStatusVersionCache userStatusVersionCache;
+
+    CountCache countCache;
+
+    ApplicationEventPublisher eventPublisher;
+
     @Override
-    public Page<UserDTO> getAllUsersByStatus(boolean isActive, int page, int size, String sortBy, String sortDir) {
+    public Slice<UserDTO> getAllUsersByStatus(boolean isActive, int page, int size, String sortBy, String sortDir,
+                                              boolean withTotal) {
         Role role = roleRepository.findByName(RoleName.USER_ROLE.getName());
-        Page<User> users = userRepository.findAllByRoleAndIsActive(role, isActive, PageRequest.of(page, size,
-                Sort.by(Sort.Direction.fromString(sortDir), sortBy)));
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(sortDir), sortBy));
+        Slice<User> users = userRepository.findSliceByRoleAndIsActive(role, isActive, pageRequest);
+        if (withTotal) {
+            users = PageableExecutionUtils.getPage(users.getContent(), pageRequest,
+                    () -> countCache.count(User.class, "role=" + role.getId() + ",isActive=" + isActive,
+                            () -> userRepository.countByRoleAndIsActive(role, isActive),
+                            "SELECT 1 FROM users WHERE role_id = ? AND is_active = ?", role.getId(), isActive));
+        }
         return users.map(userMapper::toUserDTO);
     }
 
@@ -45,7 +63,10 @@ public class AdminServiceImpl implements AdminService {
                 .orElseThrow(() -> new AppException(ErrorCode.RESOURCE_NOT_FOUND));
 
         user.setActive(!user.isActive());
+        user.setStatusVersion(user.getStatusVersion() + 1);
         userRepository.save(user);
+        userStatusVersionCache.evict(user.getId());
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId()));
     }
 
 }
@@ -9,6 +9,8 @@ import com.rookies.ecommerce.exception.ErrorCode;
 import com.rookies.ecommerce.mapper.UserMapper;
 import com.rookies.ecommerce.repository.RoleRepository;
 import com.rookies.ecommerce.repository.UserRepository;
+import com.rookies.ecommerce.service.user.CurrentUser;
+import com.rookies.ecommerce.service.user.CurrentUserResolver;
 import com.rookies.ecommerce.service.user.UserService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -31,6 +33,8 @@ public class UserServiceImpl implements UserService {
 
     PasswordEncoder passwordEncoder;
 
+    CurrentUserResolver currentUserResolver;
+
     @Override
     public UserDTO getMyInfo() {
         User user = getUserFromToken();
@@ -76,4 +80,9 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new AppException(ErrorCode.UNAUTHORIZED_REQUEST));
     }
 
+    @Override
+    public CurrentUser getCurrentUser() {
+        return currentUserResolver.get();
+    }
+
 }
@@ -0,0 +1,82 @@
+package com.rookies.ecommerce.utils;
+
+import com.rookies.ecommerce.exception.AppException;
+import com.rookies.ecommerce.exception.ErrorCode;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Function;
+
+/**
+ * Encodes keyset scroll positions as opaque, URL-safe continuation tokens. A token also records
+ * the sort direction it was issued for, since its keys mean nothing under the opposite order.
+ */
+public class CursorUtil {
+
+    private static final String FORWARD = "f";
+
+    private static final String BACKWARD = "b";
+
+    public static String encode(KeysetScrollPosition position, Sort.Direction direction) {
+        StringJoiner joiner = new StringJoiner("&");
+        joiner.add(position.scrollsForward() ? FORWARD : BACKWARD);
+        joiner.add(direction.name());
+        position.getKeys().forEach((key, value) ->
+                joiner.add(key + "=" + URLEncoder.encode(String.valueOf(value), StandardCharsets.UTF_8)));
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(joiner.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode}. The token must have been issued for
+     * {@code direction} and carry exactly the keys of {@code parsers}, each value being converted
+     * back with its parser.
+     *
+     * @throws AppException with {@link ErrorCode#INVALID_CURSOR} if the token is malformed
+     *                      or was issued for a different sort
+     */
+    public static KeysetScrollPosition decode(String cursor, Sort.Direction direction,
+                                              Map<String, Function<String, Object>> parsers) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("&");
+            if (parts.length < 2 || !direction.name().equals(parts[1])) {
+                throw new AppException(ErrorCode.INVALID_CURSOR);
+            }
+
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (int i = 2; i < parts.length; i++) {
+                int separator = parts[i].indexOf('=');
+                String key = parts[i].substring(0, separator);
+                Function<String, Object> parser = parsers.get(key);
+                if (parser == null) {
+                    throw new AppException(ErrorCode.INVALID_CURSOR);
+                }
+                keys.put(key, parser.apply(URLDecoder.decode(parts[i].substring(separator + 1), StandardCharsets.UTF_8)));
+            }
+
+            if (!keys.keySet().equals(parsers.keySet())) {
+                throw new AppException(ErrorCode.INVALID_CURSOR);
+            }
+            return switch (parts[0]) {
+                case FORWARD -> ScrollPosition.forward(keys);
+                case BACKWARD -> ScrollPosition.backward(keys);
+                default -> throw new AppException(ErrorCode.INVALID_CURSOR);
+            };
+        } catch (RuntimeException ex) {
+            if (ex instanceof AppException appException) {
+                throw appException;
+            }
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+
+}
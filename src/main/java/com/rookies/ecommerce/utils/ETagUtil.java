@@ -0,0 +1,29 @@
+package com.rookies.ecommerce.utils;
+
+import org.springframework.http.CacheControl;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+public class ETagUtil {
+
+    /**
+     * Lets clients keep a copy but revalidate it with a conditional request on every use.
+     */
+    public static final CacheControl REVALIDATE = CacheControl.noCache();
+
+    /**
+     * Builds a weak entity tag from the given version parts. Tags are weak because the same version
+     * may be served with different encodings or JSON formatting.
+     */
+    public static String weak(Object... parts) {
+        return Arrays.stream(parts)
+                .map(part -> part instanceof Instant instant
+                        ? Long.toString(ChronoUnit.MICROS.between(Instant.EPOCH, instant))
+                        : String.valueOf(part))
+                .collect(Collectors.joining("-", "W/\"", "\""));
+    }
+
+}
@@ -1,15 +1,17 @@
 package com.rookies.ecommerce.utils;
 
 import java.text.Normalizer;
+import java.util.regex.Pattern;
 
 public class SlugUtil {
 
+    private static final Pattern DIACRITICAL_MARKS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+
     public static String createSlug(String name) {
         String slug = name.toLowerCase();
 
         // Loại bỏ dấu tiếng Việt hoặc các dấu từ ký tự đặc biệt
-        slug = Normalizer.normalize(slug, Normalizer.Form.NFD);
-        slug = slug.replaceAll("\\p{InCombiningDiacriticalMarks}+", "");
+        slug = removeDiacritics(slug);
 
         // Thay thế khoảng trắng và các ký tự không phải chữ/số bằng dấu gạch ngang
         slug = slug.replaceAll("[^a-z0-9]+", "-");
@@ -20,4 +22,9 @@ public class SlugUtil {
         return slug;
     }
 
+    public static String removeDiacritics(String text) {
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICAL_MARKS.matcher(normalized).replaceAll("");
+    }
+
 }
@@ -0,0 +1,41 @@
+package com.rookies.ecommerce.utils;
+
+import java.text.Collator;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public class TextUtil {
+
+    /**
+     * Orders names like the database collation: letters with diacritics sort next to their base
+     * letter ("Áo" before "Quần") instead of after "z", and case only breaks ties.
+     */
+    public static final Comparator<String> NAME_ORDER = Collator.getInstance(Locale.forLanguageTag("vi"))::compare;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final String ELLIPSIS = "…";
+
+    /**
+     * Collapses whitespace and cuts the text at the last word boundary within {@code maxLength}
+     * characters, appending an ellipsis when something was cut off.
+     */
+    public static String excerpt(String text, int maxLength) {
+        if (text == null) {
+            return null;
+        }
+
+        String collapsed = WHITESPACE.matcher(text).replaceAll(" ").trim();
+        if (collapsed.length() <= maxLength) {
+            return collapsed;
+        }
+
+        int end = collapsed.lastIndexOf(' ', maxLength);
+        if (end <= 0) {
+            end = maxLength;
+        }
+        return collapsed.substring(0, end).stripTrailing() + ELLIPSIS;
+    }
+
+}
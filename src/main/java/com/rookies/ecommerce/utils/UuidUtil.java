@@ -0,0 +1,31 @@
+package com.rookies.ecommerce.utils;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+public class UuidUtil {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * Creates a version 7 UUID (RFC 9562): a 48-bit Unix millisecond timestamp followed by 74 random bits.
+     * Ids created close together sort close together, so inserts append to the right edge of a primary
+     * key index instead of splitting pages all over it.
+     */
+    public static UUID timeOrdered() {
+        byte[] random = new byte[10];
+        RANDOM.nextBytes(random);
+
+        long mostSigBits = System.currentTimeMillis() << 16
+                | 0x7000L
+                | (random[0] & 0x0FL) << 8
+                | random[1] & 0xFFL;
+        long leastSigBits = 0;
+        for (int i = 2; i < random.length; i++) {
+            leastSigBits = leastSigBits << 8 | random[i] & 0xFFL;
+        }
+        leastSigBits = leastSigBits & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+}
@@ -0,0 +1,27 @@
+-- Phase 1 of replacing the raw token column of invalidated_tokens with its SHA-256 digest.
+-- Safe while nodes that still write raw tokens are running: the legacy column stays, becomes
+-- nullable for nodes writing digests only, and a trigger fills the digest of rows they insert.
+
+ALTER TABLE invalidated_tokens ADD COLUMN IF NOT EXISTS token_digest bytea;
+
+ALTER TABLE invalidated_tokens ALTER COLUMN token DROP NOT NULL;
+
+CREATE OR REPLACE FUNCTION invalidated_tokens_fill_token_digest() RETURNS trigger AS $$
+BEGIN
+    IF NEW.token_digest IS NULL AND NEW.token IS NOT NULL THEN
+        NEW.token_digest := sha256(convert_to(NEW.token, 'UTF8'));
+    END IF;
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS invalidated_tokens_fill_token_digest ON invalidated_tokens;
+CREATE TRIGGER invalidated_tokens_fill_token_digest
+    BEFORE INSERT OR UPDATE ON invalidated_tokens
+    FOR EACH ROW EXECUTE FUNCTION invalidated_tokens_fill_token_digest();
+
+UPDATE invalidated_tokens
+SET token_digest = sha256(convert_to(token, 'UTF8'))
+WHERE token_digest IS NULL AND token IS NOT NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_invalidated_tokens_token_digest ON invalidated_tokens (token_digest);
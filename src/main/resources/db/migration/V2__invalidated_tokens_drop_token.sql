@@ -0,0 +1,11 @@
+-- Phase 2: run only once every node stores digests (after V1 and a full rollout of the digest
+-- release). Removes the raw tokens and the trigger that derived digests for older nodes.
+
+UPDATE invalidated_tokens
+SET token_digest = sha256(convert_to(token, 'UTF8'))
+WHERE token_digest IS NULL AND token IS NOT NULL;
+
+DROP TRIGGER IF EXISTS invalidated_tokens_fill_token_digest ON invalidated_tokens;
+DROP FUNCTION IF EXISTS invalidated_tokens_fill_token_digest();
+
+ALTER TABLE invalidated_tokens DROP COLUMN IF EXISTS token;
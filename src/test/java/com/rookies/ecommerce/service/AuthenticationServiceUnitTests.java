@@ -14,17 +14,21 @@ import com.rookies.ecommerce.repository.UserRepository;
 import com.rookies.ecommerce.service.authentication.AuthenticationServiceImpl;
 import com.rookies.ecommerce.service.invalidatedtoken.InvalidatedTokenService;
 import com.rookies.ecommerce.service.jwt.JWTService;
+import com.rookies.ecommerce.service.password.PasswordHashingExecutor;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -56,9 +60,21 @@ public class AuthenticationServiceUnitTests {
     @Mock
     private InvalidatedTokenService invalidatedTokenService;
 
+    @Mock
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     AuthenticationServiceImpl authenticationService;
 
+    @BeforeEach
+    void setup() {
+        lenient().when(passwordHashingExecutor.execute(any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+    }
+
     @Test
     public void registerUser_emailAlreadyExisted_throwException() {
         CreateUserRequest request = CreateUserRequest.builder()
@@ -0,0 +1,40 @@
+package com.rookies.ecommerce.service;
+
+import com.rookies.ecommerce.service.password.CalibratedPasswordEncoder;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CalibratedPasswordEncoderUnitTests {
+
+    @Test
+    public void calibrate_strengthWithinBounds() {
+        CalibratedPasswordEncoder encoder = CalibratedPasswordEncoder.calibrate(4, 6, Duration.ofMillis(50));
+
+        assertTrue(encoder.getStrength() >= 4 && encoder.getStrength() <= 6);
+    }
+
+    @Test
+    public void encode_embedsStrengthAndMatches() {
+        CalibratedPasswordEncoder encoder = new CalibratedPasswordEncoder(5);
+
+        String hash = encoder.encode("secret");
+
+        assertTrue(hash.startsWith("$2a$05$"));
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.upgradeEncoding(hash));
+    }
+
+    @Test
+    public void upgradeEncoding_onlyLowerStrength_true() {
+        CalibratedPasswordEncoder encoder = new CalibratedPasswordEncoder(5);
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret")));
+        assertFalse(encoder.upgradeEncoding("not-a-bcrypt-hash"));
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.rookies.ecommerce.service;
+
+import com.rookies.ecommerce.dto.request.CreateUpdateCartItemRequest;
+import com.rookies.ecommerce.dto.response.CartQuantityResponse;
+import com.rookies.ecommerce.entity.Cart;
+import com.rookies.ecommerce.entity.CartItem;
+import com.rookies.ecommerce.entity.Product;
+import com.rookies.ecommerce.exception.AppException;
+import com.rookies.ecommerce.exception.ErrorCode;
+import com.rookies.ecommerce.mapper.CartItemMapper;
+import com.rookies.ecommerce.repository.CartItemRepository;
+import com.rookies.ecommerce.repository.CartRepository;
+import com.rookies.ecommerce.service.cart.CartServiceImpl;
+import com.rookies.ecommerce.service.product.ProductService;
+import com.rookies.ecommerce.service.user.CurrentUser;
+import com.rookies.ecommerce.service.user.UserService;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CartServiceUnitTests {
+
+    @Mock
+    CartItemRepository cartItemRepository;
+
+    @Mock
+    CartRepository cartRepository;
+
+    @Mock
+    UserService userService;
+
+    @Mock
+    ProductService productService;
+
+    @Mock
+    CartItemMapper cartItemMapper;
+
+    @InjectMocks
+    CartServiceImpl cartService;
+
+    CurrentUser currentUser;
+
+    Product product;
+
+    @BeforeEach
+    public void setup() {
+        currentUser = new CurrentUser(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        product = Product.builder()
+                .id(UUID.randomUUID())
+                .availableQuantity(10)
+                .build();
+    }
+
+    @Test
+    public void addToCart_newItem_onlyQueriesByIds() {
+        CreateUpdateCartItemRequest request = new CreateUpdateCartItemRequest(product.getId(), 2);
+        Cart cart = new Cart();
+
+        when(userService.getCurrentUser()).thenReturn(currentUser);
+        when(productService.getProductEntityById(product.getId())).thenReturn(product);
+        when(cartItemRepository.findByCartIdAndProductId(currentUser.cartId(), product.getId())).thenReturn(null);
+        when(cartRepository.getReferenceById(currentUser.cartId())).thenReturn(cart);
+        when(cartItemRepository.countByCartId(currentUser.cartId())).thenReturn(1L);
+
+        CartQuantityResponse response = cartService.addToCart(request);
+
+        assertEquals(1L, response.getCount());
+        verify(userService, times(1)).getCurrentUser();
+        verify(cartItemRepository, times(1)).findByCartIdAndProductId(currentUser.cartId(), product.getId());
+        verify(cartItemRepository, times(1)).save(argThat((CartItem item) -> item.getCart() == cart && item.getQuantity() == 2));
+        verify(cartItemRepository, times(1)).countByCartId(currentUser.cartId());
+        verifyNoMoreInteractions(userService, cartItemRepository, cartRepository);
+    }
+
+    @Test
+    public void addToCart_existingItem_increasesQuantity() {
+        CreateUpdateCartItemRequest request = new CreateUpdateCartItemRequest(product.getId(), 3);
+        CartItem cartItem = CartItem.builder().quantity(2).product(product).build();
+
+        when(userService.getCurrentUser()).thenReturn(currentUser);
+        when(productService.getProductEntityById(product.getId())).thenReturn(product);
+        when(cartItemRepository.findByCartIdAndProductId(currentUser.cartId(), product.getId())).thenReturn(cartItem);
+        when(cartItemRepository.countByCartId(currentUser.cartId())).thenReturn(1L);
+
+        cartService.addToCart(request);
+
+        assertEquals(5, cartItem.getQuantity());
+        verify(cartItemRepository, times(1)).save(cartItem);
+        verifyNoInteractions(cartRepository);
+    }
+
+    @Test
+    public void addToCart_quantityExceedsStock_throwException() {
+        CreateUpdateCartItemRequest request = new CreateUpdateCartItemRequest(product.getId(), 11);
+
+        when(userService.getCurrentUser()).thenReturn(currentUser);
+        when(productService.getProductEntityById(product.getId())).thenReturn(product);
+
+        AppException exception = assertThrows(AppException.class, () -> cartService.addToCart(request));
+
+        assertEquals(ErrorCode.QUANTITY_EXCEED, exception.getErrorCode());
+        verify(cartItemRepository, never()).save(any());
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.rookies.ecommerce.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rookies.ecommerce.dto.response.APIResponse;
+import com.rookies.ecommerce.event.CategoryChangedEvent;
+import com.rookies.ecommerce.event.ProductChangedEvent;
+import com.rookies.ecommerce.service.catalog.CatalogResponseCache;
+import com.rookies.ecommerce.service.catalog.CatalogSection;
+import com.rookies.ecommerce.service.catalog.CatalogSnapshotService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CatalogResponseCacheUnitTests {
+
+    private static final Set<CatalogSection> CATEGORIES = Set.of(CatalogSection.CATEGORIES);
+
+    private static final Set<CatalogSection> FEATURED = Set.of(CatalogSection.FEATURED, CatalogSection.PRODUCTS);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private CatalogSnapshotService catalogSnapshotService;
+
+    private CatalogResponseCache cache;
+
+    private AtomicInteger loads;
+
+    private Supplier<APIResponse> loader;
+
+    @BeforeEach
+    void setUp() {
+        catalogSnapshotService = mock(CatalogSnapshotService.class);
+        cache = new CatalogResponseCache(objectMapper, catalogSnapshotService, new SimpleMeterRegistry(), 100, 60_000);
+        loads = new AtomicInteger();
+        loader = () -> {
+            loads.incrementAndGet();
+            return new APIResponse("found", List.of("category ".repeat(50), "another category ".repeat(50)));
+        };
+    }
+
+    @Test
+    public void get_repeatedRequests_serializeOnce() throws IOException {
+        CatalogResponseCache.Body first = cache.get("categories", List.of(), CATEGORIES, loader);
+        CatalogResponseCache.Body second = cache.get("categories", List.of(), CATEGORIES, loader);
+
+        assertThat(loads).hasValue(1);
+        assertThat(second).isSameAs(first);
+        assertThat(objectMapper.readValue(first.identity(), APIResponse.class).getMessage()).isEqualTo("found");
+    }
+
+    @Test
+    public void get_etagDescribesServedBody() {
+        CatalogResponseCache.Body first = cache.get("categories", List.of(), CATEGORIES, loader);
+        cache.onCategoryChanged(new CategoryChangedEvent(UUID.randomUUID()));
+        CatalogResponseCache.Body sameContent = cache.get("categories", List.of(), CATEGORIES, loader);
+        CatalogResponseCache.Body otherContent = cache.get("products/feature/active", List.of(), FEATURED, () ->
+                new APIResponse("found", List.of()));
+
+        assertThat(first.etag()).startsWith("W/\"");
+        assertThat(sameContent.etag()).isEqualTo(first.etag());
+        assertThat(otherContent.etag()).isNotEqualTo(first.etag());
+    }
+
+    @Test
+    public void get_snapshotAppliesChangeAfterCommit_serializeAgain() {
+        cache.onCategoryChanged(new CategoryChangedEvent(UUID.randomUUID()));
+        // loaded after the commit but before the snapshot applied the change
+        cache.get("categories", List.of(), CATEGORIES, loader);
+
+        when(catalogSnapshotService.generation(CatalogSection.CATEGORIES)).thenReturn(1L);
+        cache.get("categories", List.of(), CATEGORIES, loader);
+        cache.get("categories", List.of(), CATEGORIES, loader);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    public void get_differentParams_cachedSeparately() {
+        cache.get("products/feature/active", List.of(0, 10), FEATURED, loader);
+        cache.get("products/feature/active", List.of(1, 10), FEATURED, loader);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    public void get_afterCatalogChange_serializeAgain() {
+        cache.get("categories", List.of(), CATEGORIES, loader);
+
+        cache.onCategoryChanged(new CategoryChangedEvent(UUID.randomUUID()));
+        cache.get("categories", List.of(), CATEGORIES, loader);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    public void get_productChange_keepsBodiesNotBuiltFromProducts() {
+        cache.get("categories", List.of(), CATEGORIES, loader);
+        cache.get("products/feature/active", List.of(0, 10), FEATURED, loader);
+
+        cache.onProductChanged(new ProductChangedEvent(UUID.randomUUID()));
+        when(catalogSnapshotService.generation(CatalogSection.PRODUCTS)).thenReturn(1L);
+        cache.get("categories", List.of(), CATEGORIES, loader);
+        cache.get("products/feature/active", List.of(0, 10), FEATURED, loader);
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    public void toResponse_gzipAccepted_returnCompressedVariant() throws IOException {
+        CatalogResponseCache.Body body = cache.get("categories", List.of(), CATEGORIES, loader);
+
+        ResponseEntity<byte[]> response = body.toResponse(ResponseEntity.ok(), "br, gzip;q=0.8");
+
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getHeaders().getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(response.getBody()).hasSizeLessThan(body.identity().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getBody()))) {
+            assertThat(in.readAllBytes()).isEqualTo(body.identity());
+        }
+    }
+
+    @Test
+    public void toResponse_gzipNotAccepted_returnIdentityVariant() {
+        CatalogResponseCache.Body body = cache.get("categories", List.of(), CATEGORIES, loader);
+
+        ResponseEntity<byte[]> plain = body.toResponse(ResponseEntity.ok(), null);
+        ResponseEntity<byte[]> refused = body.toResponse(ResponseEntity.ok(), "gzip;q=0, identity");
+
+        assertThat(plain.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(plain.getBody()).isEqualTo(body.identity());
+        assertThat(refused.getBody()).isEqualTo(body.identity());
+    }
+
+}
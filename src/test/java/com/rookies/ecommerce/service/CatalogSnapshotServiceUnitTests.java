@@ -0,0 +1,234 @@
+package com.rookies.ecommerce.service;
+
+import com.rookies.ecommerce.dto.response.FeaturedProductResponse;
+import com.rookies.ecommerce.dto.response.ProductResponse;
+import com.rookies.ecommerce.entity.Category;
+import com.rookies.ecommerce.entity.FeaturedProduct;
+import com.rookies.ecommerce.entity.Product;
+import com.rookies.ecommerce.event.CatalogSnapshotChangedEvent;
+import com.rookies.ecommerce.mapper.ProductMapper;
+import com.rookies.ecommerce.repository.CategoryRepository;
+import com.rookies.ecommerce.repository.FeaturedProductRepository;
+import com.rookies.ecommerce.repository.ProductRepository;
+import com.rookies.ecommerce.service.catalog.CatalogSection;
+import com.rookies.ecommerce.service.catalog.CatalogSnapshot;
+import com.rookies.ecommerce.service.catalog.CatalogSnapshotService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CatalogSnapshotServiceUnitTests {
+
+    @Mock
+    ProductRepository productRepository;
+
+    @Mock
+    CategoryRepository categoryRepository;
+
+    @Mock
+    FeaturedProductRepository featuredProductRepository;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    CatalogSnapshotService catalogSnapshotService;
+
+    Category category;
+
+    Product shirt;
+
+    Product jeans;
+
+    @BeforeEach
+    public void setup() {
+        catalogSnapshotService = new CatalogSnapshotService(productRepository, categoryRepository,
+                featuredProductRepository, Mappers.getMapper(ProductMapper.class), eventPublisher, 60_000);
+        category = Category.builder().id(UUID.randomUUID()).name("Thời trang").slug("thoi-trang").build();
+        shirt = product("Áo thun", 150000);
+        jeans = product("Quần jean", 300000);
+    }
+
+    private Product product(String name, long price) {
+        return Product.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .description(name)
+                .price(BigDecimal.valueOf(price))
+                .category(category)
+                .build();
+    }
+
+    private void rebuild(List<Product> products, List<FeaturedProduct> featured) {
+        when(productRepository.findByIsDeletedAndIdGreaterThanOrderByIdAsc(eq(false), any(UUID.class), any(Limit.class)))
+                .thenReturn(products);
+        when(categoryRepository.findAllByIsDeletedOrderByNameAsc(false)).thenReturn(List.of(category));
+        when(featuredProductRepository.findAllByProductIsDeleted(false)).thenReturn(featured);
+        catalogSnapshotService.rebuild();
+    }
+
+    private static List<String> names(Slice<ProductResponse> slice) {
+        return slice.getContent().stream().map(ProductResponse::getName).toList();
+    }
+
+    @Test
+    public void current_beforeFirstBuild_isEmpty() {
+        assertTrue(catalogSnapshotService.current().isEmpty());
+    }
+
+    @Test
+    public void products_servedSortedFromSnapshot() {
+        rebuild(List.of(jeans, shirt), List.of());
+
+        CatalogSnapshot snapshot = catalogSnapshotService.current().orElseThrow();
+        Slice<ProductResponse> byPriceDesc = snapshot.products(null,
+                PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "price")), true).orElseThrow();
+        Slice<ProductResponse> inCategory = snapshot.products(category.getId(),
+                PageRequest.of(0, 10, Sort.by("name")), false).orElseThrow();
+
+        assertEquals(List.of("Quần jean"), names(byPriceDesc));
+        assertEquals(2, ((Page<ProductResponse>) byPriceDesc).getTotalElements());
+        assertEquals(List.of("Áo thun", "Quần jean"), names(inCategory));
+        assertFalse(inCategory instanceof Page);
+        assertTrue(snapshot.products(null, PageRequest.of(0, 10, Sort.by("slug")), true).isEmpty());
+    }
+
+    @Test
+    public void applyChanges_publishesOneNewSnapshot() {
+        rebuild(List.of(shirt), List.of());
+        CatalogSnapshot before = catalogSnapshotService.current().orElseThrow();
+        long generation = catalogSnapshotService.generation(CatalogSection.PRODUCTS);
+        long categoriesGeneration = catalogSnapshotService.generation(CatalogSection.CATEGORIES);
+
+        shirt.setDeleted(true);
+        when(productRepository.findWithCategoryByIdIn(List.of(jeans.getId(), shirt.getId())))
+                .thenReturn(List.of(jeans, shirt));
+        catalogSnapshotService.applyChanges(List.of(), List.of(jeans.getId(), shirt.getId()), false);
+
+        PageRequest byName = PageRequest.of(0, 10, Sort.by("name"));
+        assertEquals(List.of("Quần jean"), names(catalogSnapshotService.current().orElseThrow()
+                .products(null, byName, true).orElseThrow()));
+        assertEquals(generation + 1, catalogSnapshotService.generation(CatalogSection.PRODUCTS));
+        assertEquals(categoriesGeneration, catalogSnapshotService.generation(CatalogSection.CATEGORIES));
+        // earlier snapshots are never modified
+        assertEquals(List.of("Áo thun"), names(before.products(null, byName, true).orElseThrow()));
+    }
+
+    @Test
+    public void applyChanges_manyProducts_keepListingsSorted() {
+        List<Product> initial = IntStream.range(0, 40).mapToObj(i -> product("p" + i, i * 1000L)).toList();
+        rebuild(initial, List.of());
+
+        // reprice every other product, delete a few and add new ones between the existing prices
+        List<Product> changed = new ArrayList<>();
+        for (int i = 0; i < 40; i += 2) {
+            Product product = initial.get(i);
+            product.setPrice(BigDecimal.valueOf(100_000 - i * 1000L));
+            product.setDeleted(i % 8 == 0);
+            changed.add(product);
+        }
+        IntStream.range(0, 10).mapToObj(i -> product("n" + i, i * 1000L + 500)).forEach(changed::add);
+        List<UUID> changedIds = changed.stream().map(Product::getId).toList();
+        when(productRepository.findWithCategoryByIdIn(changedIds)).thenReturn(changed);
+        catalogSnapshotService.applyChanges(List.of(), changedIds, false);
+
+        List<Product> expected = new ArrayList<>(initial);
+        expected.addAll(changed.subList(20, changed.size()));
+        expected.removeIf(Product::isDeleted);
+        List<Double> expectedPrices = expected.stream().map(product -> product.getPrice().doubleValue()).sorted().toList();
+        CatalogSnapshot snapshot = catalogSnapshotService.current().orElseThrow();
+        for (UUID categoryId : Arrays.asList(null, category.getId())) {
+            List<Double> prices = snapshot.products(categoryId, PageRequest.of(0, 100, Sort.by("price")), true)
+                    .orElseThrow().getContent().stream().map(ProductResponse::getPrice).toList();
+            assertEquals(expectedPrices, prices);
+        }
+    }
+
+    @Test
+    public void applyChanges_renamesCategoryOfProducts() {
+        rebuild(List.of(shirt), List.of());
+        Category renamed = Category.builder().id(category.getId()).name("Áo").slug("ao").build();
+        when(categoryRepository.findAllById(List.of(category.getId()))).thenReturn(List.of(renamed));
+
+        catalogSnapshotService.applyChanges(List.of(category.getId()), List.of(), false);
+
+        CatalogSnapshot snapshot = catalogSnapshotService.current().orElseThrow();
+        assertEquals("Áo", snapshot.products(null, PageRequest.of(0, 10, Sort.by("name")), true)
+                .orElseThrow().getContent().get(0).getCategoryName());
+        assertTrue(snapshot.categoryBySlug("ao").isPresent());
+        assertTrue(snapshot.categoryBySlug("thoi-trang").isEmpty());
+
+        ArgumentCaptor<CatalogSnapshotChangedEvent> events = ArgumentCaptor.forClass(CatalogSnapshotChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertTrue(events.getAllValues().get(0).initial());
+        assertEquals(Set.of(shirt.getId()), events.getAllValues().get(1).productIds());
+        assertEquals(Set.of(category.getId()), events.getAllValues().get(1).categoryIds());
+    }
+
+    @Test
+    public void rebuild_publishesOnlyDifferences() {
+        rebuild(List.of(shirt, jeans), List.of());
+        catalogSnapshotService.rebuild();
+        jeans.setPrice(BigDecimal.valueOf(250000));
+        catalogSnapshotService.rebuild();
+
+        ArgumentCaptor<CatalogSnapshotChangedEvent> events = ArgumentCaptor.forClass(CatalogSnapshotChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertTrue(events.getAllValues().get(0).initial());
+        assertFalse(events.getAllValues().get(1).initial());
+        assertEquals(Set.of(jeans.getId()), events.getAllValues().get(1).productIds());
+        assertEquals(Set.of(), events.getAllValues().get(1).categoryIds());
+    }
+
+    @Test
+    public void activeFeatured_filtersByDateAndActiveProduct() {
+        FeaturedProduct current = featured(shirt, -1, 1);
+        FeaturedProduct expired = featured(jeans, -10, -5);
+        rebuild(List.of(shirt, jeans), List.of(current, expired));
+
+        Slice<FeaturedProductResponse> active = catalogSnapshotService.current().orElseThrow()
+                .activeFeatured(new java.util.Date(), PageRequest.of(0, 10, Sort.by("createdAt")), true)
+                .orElseThrow();
+
+        assertEquals(1, active.getContent().size());
+        assertEquals(current.getId(), active.getContent().get(0).getId());
+        assertEquals("Áo thun", active.getContent().get(0).getProduct().getName());
+    }
+
+    private FeaturedProduct featured(Product product, int startOffsetDays, int endOffsetDays) {
+        FeaturedProduct featured = new FeaturedProduct();
+        featured.setId(UUID.randomUUID());
+        featured.setProduct(product);
+        featured.setStartDate(Date.valueOf(LocalDate.now().plusDays(startOffsetDays)));
+        featured.setEndDate(Date.valueOf(LocalDate.now().plusDays(endOffsetDays)));
+        return featured;
+    }
+
+}
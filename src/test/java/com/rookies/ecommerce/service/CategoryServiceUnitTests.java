@@ -6,7 +6,9 @@ import com.rookies.ecommerce.entity.User;
 import com.rookies.ecommerce.exception.AppException;
 import com.rookies.ecommerce.exception.ErrorCode;
 import com.rookies.ecommerce.repository.CategoryRepository;
+import com.rookies.ecommerce.service.catalog.CatalogSnapshotService;
 import com.rookies.ecommerce.service.category.CategoryServiceImpl;
+import com.rookies.ecommerce.service.user.CurrentUser;
 import com.rookies.ecommerce.service.user.UserService;
 import com.rookies.ecommerce.utils.SlugUtil;
 import lombok.AccessLevel;
@@ -17,6 +19,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.List;
@@ -38,16 +41,25 @@ public class CategoryServiceUnitTests {
     @Mock
     UserService userService;
 
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    CatalogSnapshotService catalogSnapshotService;
+
     @InjectMocks
     CategoryServiceImpl categoryService;
 
     User mockUser;
 
+    CurrentUser currentUser;
+
     @BeforeEach
     public void setup() {
         mockUser = User.builder()
                 .id(UUID.randomUUID())
                 .build();
+        currentUser = new CurrentUser(mockUser.getId(), null, null);
     }
 
     @Test
@@ -57,7 +69,7 @@ public class CategoryServiceUnitTests {
                 .description("This is a test category")
                 .build();
 
-        when(userService.getUserFromToken()).thenReturn(mockUser);
+        when(userService.getCurrentUser()).thenReturn(currentUser);
         when(categoryRepository.save(any(Category.class)))
                 .thenThrow(new DataIntegrityViolationException(ErrorCode.CATEGORY_NAME_EXISTED.getMessage()));
 
@@ -84,7 +96,7 @@ public class CategoryServiceUnitTests {
         expectedCategory.setCreatedBy(mockUser.getId());
         expectedCategory.setModifiedBy(mockUser.getId());
 
-        when(userService.getUserFromToken()).thenReturn(mockUser);
+        when(userService.getCurrentUser()).thenReturn(currentUser);
         when(categoryRepository.save(any(Category.class))).thenReturn(expectedCategory);
 
         //When
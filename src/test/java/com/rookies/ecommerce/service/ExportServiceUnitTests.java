@@ -0,0 +1,139 @@
+package com.rookies.ecommerce.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.rookies.ecommerce.entity.Category;
+import com.rookies.ecommerce.entity.Product;
+import com.rookies.ecommerce.repository.ProductRepository;
+import com.rookies.ecommerce.repository.ReviewRepository;
+import com.rookies.ecommerce.repository.UserRepository;
+import com.rookies.ecommerce.repository.projection.UserExportView;
+import com.rookies.ecommerce.service.exporter.ExportFormat;
+import com.rookies.ecommerce.service.exporter.ExportResource;
+import com.rookies.ecommerce.service.exporter.ExportServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ExportServiceUnitTests {
+
+    @Mock
+    ProductRepository productRepository;
+
+    @Mock
+    ReviewRepository reviewRepository;
+
+    @Mock
+    UserRepository userRepository;
+
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    ExportServiceImpl exportService;
+
+    ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @BeforeEach
+    public void setup() {
+        exportService = new ExportServiceImpl(productRepository, reviewRepository, userRepository, entityManager,
+                objectMapper, transactionManager);
+    }
+
+    @Test
+    public void export_productsAsCsv_quoteFieldsAndWriteHeader() throws IOException {
+        Category category = Category.builder().id(UUID.randomUUID()).name("Áo thun").build();
+        Product product = Product.builder()
+                .id(UUID.randomUUID())
+                .name("Basic tee")
+                .description("Soft, \"classic\"\nfit")
+                .price(new BigDecimal("1.5E+5"))
+                .availableQuantity(3)
+                .category(category)
+                .createdAt(Instant.parse("2025-01-01T00:00:00Z"))
+                .updatedAt(Instant.parse("2025-01-02T00:00:00Z"))
+                .build();
+        when(productRepository.streamAllForExport()).thenReturn(Stream.of(product));
+
+        String csv = export(ExportResource.PRODUCTS, ExportFormat.CSV);
+
+        assertThat(csv).isEqualTo(
+                "id,name,slug,description,price,availableQuantity,imageUrl,categoryId,categoryName,deleted,createdAt,updatedAt\r\n"
+                        + product.getId() + ",Basic tee,,\"Soft, \"\"classic\"\"\nfit\",150000,3,,"
+                        + category.getId() + ",Áo thun,false,2025-01-01T00:00:00Z,2025-01-02T00:00:00Z\r\n");
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    public void export_usersAsNdjson_writeOneObjectPerLine() throws IOException {
+        when(userRepository.streamAllForExport()).thenReturn(Stream.of(
+                userView("a@example.com", "Admin"),
+                userView("b@example.com", "Customer")));
+
+        String ndjson = export(ExportResource.USERS, ExportFormat.NDJSON);
+
+        String[] lines = ndjson.split("\n");
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("email").asText()).isEqualTo("a@example.com");
+        assertThat(first.get("role").asText()).isEqualTo("Admin");
+        assertThat(first.get("active").asBoolean()).isTrue();
+        assertThat(first.has("password")).isFalse();
+        assertThat(objectMapper.readTree(lines[1]).get("email").asText()).isEqualTo("b@example.com");
+    }
+
+    @Test
+    public void export_manyRows_clearPersistenceContextPeriodically() throws IOException {
+        when(productRepository.streamAllForExport()).thenReturn(IntStream.range(0, 2500)
+                .mapToObj(i -> Product.builder().id(UUID.randomUUID()).name("product " + i).build()));
+
+        String ndjson = export(ExportResource.PRODUCTS, ExportFormat.NDJSON);
+
+        assertThat(ndjson.split("\n")).hasSize(2500);
+        verify(entityManager, times(2)).clear();
+    }
+
+    private String export(ExportResource resource, ExportFormat format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exportService.export(resource, format, output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private static UserExportView userView(String email, String role) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("id", UUID.randomUUID());
+        values.put("email", email);
+        values.put("firstName", "First");
+        values.put("lastName", "Last");
+        values.put("phoneNumber", null);
+        values.put("role", role);
+        values.put("active", true);
+        values.put("createdAt", Instant.parse("2025-01-01T00:00:00Z"));
+        return new SpelAwareProxyProjectionFactory().createProjection(UserExportView.class, values);
+    }
+
+}
@@ -0,0 +1,182 @@
+package com.rookies.ecommerce.service;
+
+import com.rookies.ecommerce.entity.Product;
+import com.rookies.ecommerce.enums.ImageStatus;
+import com.rookies.ecommerce.event.ProductChangedEvent;
+import com.rookies.ecommerce.event.ProductImageSpooledEvent;
+import com.rookies.ecommerce.repository.ProductRepository;
+import com.rookies.ecommerce.service.upload.ImageUploadPipeline;
+import com.rookies.ecommerce.service.upload.LocalUploadService;
+import com.rookies.ecommerce.service.upload.UploadService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ImageUploadPipelineUnitTests {
+
+    @Mock
+    ProductRepository productRepository;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path tempDir;
+
+    Path spoolDir;
+
+    Product product;
+
+    MockMultipartFile imageFile = new MockMultipartFile("imageFile", "tee.jpg", "image/jpeg",
+            "image bytes".getBytes(StandardCharsets.UTF_8));
+
+    @BeforeEach
+    public void setup() {
+        spoolDir = tempDir.resolve("spool");
+        product = Product.builder().id(UUID.randomUUID()).imageUrl("http://old.url")
+                .imageStatus(ImageStatus.PENDING).build();
+        lenient().when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
+    }
+
+    @Test
+    public void submit_afterCommit_uploadAndStoreImageUrl() throws Exception {
+        ImageUploadPipeline pipeline = pipeline(
+                new LocalUploadService(tempDir.resolve("uploads"), "http://localhost/uploads", 1000, 1024), 3);
+
+        Path spooled = submitAndCommit(pipeline);
+        pipeline.shutdown();
+
+        assertThat(product.getImageUrl()).isEqualTo("http://localhost/uploads/products/" + product.getId());
+        assertThat(product.getImageStatus()).isEqualTo(ImageStatus.READY);
+        assertThat(tempDir.resolve("uploads/products/" + product.getId())).hasContent("image bytes");
+        assertThat(spooled).doesNotExist();
+        verify(productRepository).save(product);
+        verify(eventPublisher).publishEvent(new ProductChangedEvent(product.getId()));
+    }
+
+    @Test
+    public void submit_uploadFailsOnce_retry() throws Exception {
+        UploadService uploadService = mock(UploadService.class);
+        when(uploadService.uploadFile(any(Path.class), eq("products"), eq(product.getId().toString())))
+                .thenThrow(new IOException("timeout"))
+                .thenReturn("http://new.url");
+        ImageUploadPipeline pipeline = pipeline(uploadService, 3);
+
+        submitAndCommit(pipeline);
+        pipeline.shutdown();
+
+        verify(uploadService, times(2)).uploadFile(any(Path.class), any(), any());
+        assertThat(product.getImageUrl()).isEqualTo("http://new.url");
+        assertThat(product.getImageStatus()).isEqualTo(ImageStatus.READY);
+    }
+
+    @Test
+    public void submit_uploadKeepsFailing_markFailedAndKeepPreviousImage() throws Exception {
+        UploadService uploadService = mock(UploadService.class);
+        when(uploadService.uploadFile(any(Path.class), any(), any())).thenThrow(new IOException("timeout"));
+        ImageUploadPipeline pipeline = pipeline(uploadService, 2);
+
+        Path spooled = submitAndCommit(pipeline);
+        pipeline.shutdown();
+
+        verify(uploadService, times(2)).uploadFile(any(Path.class), any(), any());
+        assertThat(product.getImageUrl()).isEqualTo("http://old.url");
+        assertThat(product.getImageStatus()).isEqualTo(ImageStatus.FAILED);
+        assertThat(spooled).doesNotExist();
+    }
+
+    @Test
+    public void submit_newerImagesWhileUploading_uploadInOrderAndDropSuperseded() throws Exception {
+        UploadService uploadService = mock(UploadService.class);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(uploadService.uploadFile(any(Path.class), eq("products"), eq(product.getId().toString())))
+                .thenAnswer(invocation -> {
+                    started.countDown();
+                    release.await();
+                    return "http://first.url";
+                })
+                .thenReturn("http://third.url");
+        ImageUploadPipeline pipeline = pipeline(uploadService, 3);
+
+        pipeline.onImageSpooled(new ProductImageSpooledEvent(product.getId(), spool("first")));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        Path second = spool("second");
+        pipeline.onImageSpooled(new ProductImageSpooledEvent(product.getId(), second));
+        pipeline.onImageSpooled(new ProductImageSpooledEvent(product.getId(), spool("third")));
+        release.countDown();
+        pipeline.shutdown();
+
+        verify(uploadService, times(2)).uploadFile(any(Path.class), any(), any());
+        assertThat(second).doesNotExist();
+        assertThat(product.getImageUrl()).isEqualTo("http://third.url");
+        assertThat(product.getImageStatus()).isEqualTo(ImageStatus.READY);
+        verify(productRepository).save(product);
+    }
+
+        @Test
+    public void submit_transactionRolledBack_discardSpooledImage() throws Exception {
+        UploadService uploadService = mock(UploadService.class);
+        ImageUploadPipeline pipeline = pipeline(uploadService, 3);
+
+        pipeline.submit(product.getId(), imageFile);
+        ProductImageSpooledEvent event = capturedEvent();
+        assertThat(event.file()).exists();
+
+        pipeline.onImageDiscarded(event);
+        pipeline.shutdown();
+
+        assertThat(event.file()).doesNotExist();
+        verifyNoInteractions(uploadService, productRepository);
+    }
+
+    private ImageUploadPipeline pipeline(UploadService uploadService, int maxAttempts) {
+        return new ImageUploadPipeline(productRepository, uploadService, eventPublisher, transactionManager,
+                new SimpleMeterRegistry(), spoolDir, 2, 10, maxAttempts, 0);
+    }
+
+    private Path spool(String content) throws IOException {
+        return Files.writeString(Files.createTempFile(spoolDir, product.getId() + "-", ".img"), content);
+    }
+
+        private Path submitAndCommit(ImageUploadPipeline pipeline) throws IOException {
+        pipeline.submit(product.getId(), imageFile);
+        ProductImageSpooledEvent event = capturedEvent();
+        assertThat(event.file()).hasContent("image bytes");
+        pipeline.onImageSpooled(event);
+        return event.file();
+    }
+
+    private ProductImageSpooledEvent capturedEvent() {
+        ArgumentCaptor<ProductImageSpooledEvent> event = ArgumentCaptor.forClass(ProductImageSpooledEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        return event.getValue();
+    }
+
+}
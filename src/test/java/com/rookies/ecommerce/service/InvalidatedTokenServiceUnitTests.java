@@ -0,0 +1,63 @@
+package com.rookies.ecommerce.service;
+
+import com.rookies.ecommerce.entity.InvalidatedToken;
+import com.rookies.ecommerce.repository.InvalidatedTokenRepository;
+import com.rookies.ecommerce.service.invalidatedtoken.InvalidatedTokenServiceImpl;
+import com.rookies.ecommerce.utils.TokenDigestUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class InvalidatedTokenServiceUnitTests {
+
+    @Mock
+    InvalidatedTokenRepository invalidatedTokenRepository;
+
+    @InjectMocks
+    InvalidatedTokenServiceImpl invalidatedTokenService;
+
+    @Test
+    void loadRevokedTokens_unexpiredTokensInDatabase_areInvalidated() {
+        InvalidatedToken token = InvalidatedToken.builder()
+                .tokenDigest(TokenDigestUtil.sha256("revoked-token"))
+                .expirationTime(Instant.now().plus(1, ChronoUnit.HOURS))
+                .build();
+        when(invalidatedTokenRepository.findAllByExpirationTimeAfter(any())).thenReturn(List.of(token));
+
+        invalidatedTokenService.loadRevokedTokens();
+
+        assertTrue(invalidatedTokenService.isTokenInvalidated("revoked-token"));
+        assertFalse(invalidatedTokenService.isTokenInvalidated("other-token"));
+    }
+
+    @Test
+    void invalidateToken_validToken_savedAndAnsweredFromMemory() {
+        invalidatedTokenService.invalidateToken("logout-token", Instant.now().plus(1, ChronoUnit.HOURS));
+
+        assertTrue(invalidatedTokenService.isTokenInvalidated("logout-token"));
+        verify(invalidatedTokenRepository, times(1)).save(argThat((InvalidatedToken saved) ->
+                Arrays.equals(TokenDigestUtil.sha256("logout-token"), saved.getTokenDigest())));
+        verifyNoMoreInteractions(invalidatedTokenRepository);
+    }
+
+    @Test
+    void invalidateToken_expiredToken_isNotReportedAsInvalidated() {
+        invalidatedTokenService.invalidateToken("expired-token", Instant.now().minus(1, ChronoUnit.MINUTES));
+
+        assertFalse(invalidatedTokenService.isTokenInvalidated("expired-token"));
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.rookies.ecommerce.service;
+
+import com.rookies.ecommerce.config.JwtAuthenticationFilter;
+import com.rookies.ecommerce.exception.AppException;
+import com.rookies.ecommerce.exception.ErrorCode;
+import com.rookies.ecommerce.service.invalidatedtoken.InvalidatedTokenService;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtAuthenticationFilterUnitTests {
+
+    @Mock
+    HandlerExceptionResolver handlerExceptionResolver;
+
+    @Mock
+    InvalidatedTokenService invalidatedTokenService;
+
+    @Mock
+    FilterChain filterChain;
+
+    @InjectMocks
+    JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "publicRouteFastPathEnabled", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/products/hidden", "/products/feature", "/categories/deleted"})
+    void doFilter_adminPathShadowedByPublicPattern_reportInvalidToken(String path) throws Exception {
+        MockHttpServletRequest request = bearerGet(path, "revoked-token");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(invalidatedTokenService.isTokenInvalidated("revoked-token")).thenReturn(true);
+
+        jwtAuthenticationFilter.doFilter(request, response, filterChain);
+
+        verify(handlerExceptionResolver).resolveException(eq(request), eq(response), isNull(),
+                argThat(exception -> exception instanceof AppException appException
+                        && appException.getErrorCode() == ErrorCode.INVALID_TOKEN));
+        verify(filterChain, never()).doFilter(any(), any());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/products/42", "/categories/7"})
+    void doFilter_publicPath_deferTokenResolution(String path) throws Exception {
+        MockHttpServletRequest request = bearerGet(path, "revoked-token");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        jwtAuthenticationFilter.doFilter(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(invalidatedTokenService, handlerExceptionResolver);
+    }
+
+    private static MockHttpServletRequest bearerGet(String path, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api" + path);
+        request.setContextPath("/api");
+        request.setServletPath(path);
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+}
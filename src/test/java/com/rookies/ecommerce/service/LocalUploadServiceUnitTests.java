@@ -0,0 +1,41 @@
+package com.rookies.ecommerce.service;
+
+import com.rookies.ecommerce.service.upload.LocalUploadService;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LocalUploadServiceUnitTests {
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "file:///etc/passwd",
+            "ftp://example.com/image.jpg",
+            "http://127.0.0.1/image.jpg",
+            "http://10.0.0.5/image.jpg",
+            "http://192.168.1.1/image.jpg",
+            "http://169.254.169.254/latest/meta-data",
+            "http://100.64.0.1/image.jpg",
+            "http://[::1]/image.jpg",
+            "http://[fd00::1]/image.jpg"
+    })
+    public void uploadFromUrl_nonPublicHttpUrl_refuseWithoutStoring(String url) {
+        LocalUploadService uploadService =
+                new LocalUploadService(tempDir, "http://localhost/uploads", 1000, 1024);
+
+        assertThrows(IOException.class, () -> uploadService.uploadFromUrl(url, "products", "image"));
+
+        assertThat(Files.exists(tempDir.resolve("products/image"))).isFalse();
+    }
+
+}
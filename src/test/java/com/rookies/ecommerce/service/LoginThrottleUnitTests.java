@@ -0,0 +1,49 @@
+package com.rookies.ecommerce.service;
+
+import com.rookies.ecommerce.exception.AppException;
+import com.rookies.ecommerce.exception.ErrorCode;
+import com.rookies.ecommerce.service.authentication.LoginThrottle;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoginThrottleUnitTests {
+
+    private final LoginThrottle loginThrottle =
+            new LoginThrottle(new SimpleMeterRegistry(), 3, 1, 2, 1, 1000, 60_000);
+
+    @Test
+    public void acquire_failedAttemptsExhaustEmailBucket_throwException() {
+        loginThrottle.acquire("user@example.com", "10.0.0.1");
+        loginThrottle.recordFailure("user@example.com", "10.0.0.1");
+        loginThrottle.acquire("USER@example.com", "10.0.0.1");
+        loginThrottle.recordFailure("USER@example.com", "10.0.0.1");
+
+        AppException ex = assertThrows(AppException.class,
+                () -> loginThrottle.acquire("user@example.com", "10.0.0.1"));
+        assertEquals(ErrorCode.TOO_MANY_REQUESTS, ex.getErrorCode());
+        assertDoesNotThrow(() -> loginThrottle.acquire("user@example.com", "10.0.0.2"));
+    }
+
+    @Test
+    public void acquire_successfulAttempts_doNotChargeEmailBucket() {
+        loginThrottle.acquire("user@example.com", "10.0.0.1");
+        loginThrottle.acquire("user@example.com", "10.0.0.1");
+
+        assertDoesNotThrow(() -> loginThrottle.acquire("user@example.com", "10.0.0.1"));
+    }
+
+    @Test
+    public void acquire_ipBucketExhausted_throwException() {
+        loginThrottle.acquire("a@example.com", "10.0.0.1");
+        loginThrottle.acquire("b@example.com", "10.0.0.1");
+        loginThrottle.acquire("c@example.com", "10.0.0.1");
+
+        AppException ex = assertThrows(AppException.class,
+                () -> loginThrottle.acquire("d@example.com", "10.0.0.1"));
+        assertEquals(ErrorCode.TOO_MANY_REQUESTS, ex.getErrorCode());
+        assertDoesNotThrow(() -> loginThrottle.acquire("d@example.com", "10.0.0.2"));
+    }
+
+}
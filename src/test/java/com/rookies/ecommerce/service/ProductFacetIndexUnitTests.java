@@ -0,0 +1,201 @@
+package com.rookies.ecommerce.service;
+
+import com.rookies.ecommerce.dto.request.ProductFilterRequest;
+import com.rookies.ecommerce.dto.response.FacetCount;
+import com.rookies.ecommerce.dto.response.ProductFilterResponse;
+import com.rookies.ecommerce.entity.Category;
+import com.rookies.ecommerce.entity.Product;
+import com.rookies.ecommerce.event.CatalogSnapshotChangedEvent;
+import com.rookies.ecommerce.event.ReviewChangedEvent;
+import com.rookies.ecommerce.mapper.ProductMapper;
+import com.rookies.ecommerce.repository.ReviewRepository;
+import com.rookies.ecommerce.repository.projection.ProductRatingView;
+import com.rookies.ecommerce.service.catalog.CatalogSnapshot;
+import com.rookies.ecommerce.service.search.ProductFacetIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductFacetIndexUnitTests {
+
+    @Mock
+    ReviewRepository reviewRepository;
+
+    ProductFacetIndex productFacetIndex;
+
+    Category shirts;
+
+    Category jeans;
+
+    @BeforeEach
+    public void setup() {
+        productFacetIndex = new ProductFacetIndex(reviewRepository, new long[]{100000, 500000});
+        shirts = Category.builder().id(UUID.randomUUID()).name("Áo").build();
+        jeans = Category.builder().id(UUID.randomUUID()).name("Quần").build();
+    }
+
+    private Product product(String name, Category category, long price, int quantity) {
+        return Product.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .description(name)
+                .price(BigDecimal.valueOf(price))
+                .availableQuantity(quantity)
+                .category(category)
+                .build();
+    }
+
+    private static CatalogSnapshot.ProductEntry entry(Product product) {
+        return new CatalogSnapshot.ProductEntry(product.getId(),
+                Mappers.getMapper(ProductMapper.class).toProductDTO(product), product.getCategory().getId(),
+                product.getCreatedAt(), product.getDescription());
+    }
+
+    private static long count(List<FacetCount> facets, String value) {
+        return facets.stream()
+                .filter(facet -> facet.getValue().equals(value))
+                .mapToLong(FacetCount::getCount)
+                .findFirst()
+                .orElse(0);
+    }
+
+    @Test
+    public void filter_combinesFilters() {
+        productFacetIndex.index(entry(product("Áo thun", shirts, 150000, 3)), 4.5);
+        productFacetIndex.index(entry(product("Áo sơ mi", shirts, 600000, 0)), 4.8);
+        productFacetIndex.index(entry(product("Quần jean", jeans, 300000, 5)), 3.0);
+
+        ProductFilterRequest filter = ProductFilterRequest.builder()
+                .categoryIds(List.of(shirts.getId()))
+                .inStock(true)
+                .minRating(4)
+                .build();
+        ProductFilterResponse response = productFacetIndex.filter(filter, PageRequest.of(0, 10));
+
+        assertEquals(1, response.getProducts().getTotalElements());
+        assertEquals("Áo thun", response.getProducts().getContent().get(0).getName());
+
+        ProductFilterResponse byPrice = productFacetIndex.filter(ProductFilterRequest.builder()
+                .minPrice(200000.0).maxPrice(700000.0).build(), PageRequest.of(0, 10, Sort.by("price")));
+        assertEquals(List.of("Quần jean", "Áo sơ mi"), byPrice.getProducts().getContent().stream()
+                .map(product -> product.getName()).toList());
+    }
+
+    @Test
+    public void filter_facetCountsIgnoreOwnDimension() {
+        productFacetIndex.index(entry(product("Áo thun", shirts, 50000, 3)), 4.5);
+        productFacetIndex.index(entry(product("Áo sơ mi", shirts, 600000, 0)), 2.0);
+        productFacetIndex.index(entry(product("Quần jean", jeans, 300000, 5)), 3.0);
+
+        ProductFilterResponse response = productFacetIndex.filter(ProductFilterRequest.builder()
+                .categoryIds(List.of(shirts.getId()))
+                .build(), PageRequest.of(0, 10));
+
+        assertEquals(2, response.getProducts().getTotalElements());
+        assertEquals(2, count(response.getCategories(), shirts.getId().toString()));
+        assertEquals(1, count(response.getCategories(), jeans.getId().toString()));
+        assertEquals(1, count(response.getPriceRanges(), "0-100000"));
+        assertEquals(0, count(response.getPriceRanges(), "100000-500000"));
+        assertEquals(1, count(response.getPriceRanges(), "500000-"));
+        assertEquals(1, count(response.getRatings(), "4"));
+        assertEquals(2, count(response.getRatings(), "2"));
+        assertEquals(1, response.getInStock());
+    }
+
+    @Test
+    public void filter_pagesMatchesInSortOrder() {
+        productFacetIndex.index(entry(product("Áo thun", shirts, 150000, 3)), 0);
+        productFacetIndex.index(entry(product("Áo sơ mi", shirts, 600000, 0)), 0);
+        productFacetIndex.index(entry(product("Áo khoác", shirts, 450000, 2)), 0);
+        productFacetIndex.index(entry(product("Áo len", shirts, 350000, 1)), 0);
+        productFacetIndex.index(entry(product("Quần jean", jeans, 300000, 5)), 0);
+        Product repriced = product("Áo polo", shirts, 50000, 4);
+        productFacetIndex.index(entry(repriced), 0);
+        repriced.setPrice(BigDecimal.valueOf(700000));
+        productFacetIndex.index(entry(repriced), 0);
+
+        ProductFilterResponse response = productFacetIndex.filter(ProductFilterRequest.builder()
+                .categoryIds(List.of(shirts.getId()))
+                .inStock(true)
+                .build(), PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "price")));
+
+        assertEquals(4, response.getProducts().getTotalElements());
+        assertEquals(List.of("Áo len", "Áo thun"), response.getProducts().getContent().stream()
+                .map(product -> product.getName()).toList());
+    }
+
+    @Test
+    public void index_updatesAndRemovesProducts() {
+        Product product = product("Áo thun", shirts, 150000, 3);
+        productFacetIndex.index(entry(product), 0);
+
+        product.setCategory(jeans);
+        productFacetIndex.index(entry(product), 0);
+        ProductFilterResponse moved = productFacetIndex.filter(new ProductFilterRequest(), PageRequest.of(0, 10));
+        assertEquals(1, moved.getProducts().getTotalElements());
+        assertEquals(0, count(moved.getCategories(), shirts.getId().toString()));
+        assertEquals(1, count(moved.getCategories(), jeans.getId().toString()));
+
+        productFacetIndex.remove(product.getId());
+        assertTrue(productFacetIndex.filter(new ProductFilterRequest(), PageRequest.of(0, 10)).getProducts().isEmpty());
+    }
+
+    @Test
+    public void onSnapshotChanged_indexesChangedProductsOnly() {
+        Product kept = product("Áo thun", shirts, 150000, 3);
+        Product removed = product("Áo sơ mi", shirts, 600000, 0);
+        productFacetIndex.index(entry(kept), 4.5);
+        productFacetIndex.index(entry(removed), 0);
+        Product added = product("Quần jean", jeans, 300000, 5);
+        ProductRatingView rating = mock(ProductRatingView.class);
+        when(rating.getProductId()).thenReturn(added.getId());
+        when(rating.getAverageRating()).thenReturn(4.0);
+        when(reviewRepository.findAverageRatingsByProductIdIn(List.of(added.getId()))).thenReturn(List.of(rating));
+        CatalogSnapshot snapshot = CatalogSnapshot.of(Instant.now(),
+                Map.of(kept.getId(), entry(kept), added.getId(), entry(added)), List.of(shirts, jeans), Map.of());
+
+        productFacetIndex.onSnapshotChanged(new CatalogSnapshotChangedEvent(snapshot, false,
+                new LinkedHashSet<>(List.of(removed.getId(), added.getId())), Set.of()));
+
+        ProductFilterResponse response = productFacetIndex.filter(ProductFilterRequest.builder()
+                .minRating(4)
+                .build(), PageRequest.of(0, 10, Sort.by("name")));
+        assertEquals(List.of("Áo thun", "Quần jean"), response.getProducts().getContent().stream()
+                .map(product -> product.getName()).toList());
+        assertEquals(2, productFacetIndex.filter(new ProductFilterRequest(), PageRequest.of(0, 10))
+                .getProducts().getTotalElements());
+    }
+
+    @Test
+    public void onReviewChanged_updatesRatingFacet() {
+        Product product = product("Áo thun", shirts, 150000, 3);
+        productFacetIndex.index(entry(product), 0);
+        when(reviewRepository.findAverageRatingByProductId(product.getId())).thenReturn(5.0);
+
+        productFacetIndex.onReviewChanged(new ReviewChangedEvent(product.getId()));
+
+        ProductFilterResponse response = productFacetIndex.filter(ProductFilterRequest.builder()
+                .minRating(5)
+                .build(), PageRequest.of(0, 10));
+        assertEquals(1, response.getProducts().getTotalElements());
+    }
+
+}
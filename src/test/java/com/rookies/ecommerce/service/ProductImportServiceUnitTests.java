@@ -0,0 +1,223 @@
+package com.rookies.ecommerce.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rookies.ecommerce.dto.response.ProductImportError;
+import com.rookies.ecommerce.dto.response.ProductImportResponse;
+import com.rookies.ecommerce.entity.Category;
+import com.rookies.ecommerce.event.ProductsImportedEvent;
+import com.rookies.ecommerce.repository.CategoryRepository;
+import com.rookies.ecommerce.service.importer.ProductImportFormat;
+import com.rookies.ecommerce.service.importer.ProductImportServiceImpl;
+import com.rookies.ecommerce.service.upload.UploadService;
+import com.rookies.ecommerce.service.user.CurrentUser;
+import com.rookies.ecommerce.service.user.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductImportServiceUnitTests {
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    @Mock
+    CategoryRepository categoryRepository;
+
+    @Mock
+    UserService userService;
+
+    @Mock
+    UploadService uploadService;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    ProductImportServiceImpl productImportService;
+
+    Category shirts;
+
+    UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    public void setup() {
+        productImportService = new ProductImportServiceImpl(jdbcTemplate, transactionTemplate, categoryRepository,
+                userService, uploadService, eventPublisher, new ObjectMapper(), new SimpleMeterRegistry(),
+                2, 2, true, 10);
+        shirts = Category.builder().id(UUID.randomUUID()).name("Áo thun").slug("ao-thun").build();
+
+        when(userService.getCurrentUser()).thenReturn(new CurrentUser(userId, null, null));
+        when(categoryRepository.findAll()).thenReturn(List.of(shirts));
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        productImportService.shutdown();
+    }
+
+    @Test
+    public void importProducts_csv_insertInBatchesWithSlugAndCategory() throws IOException {
+        String csv = """
+                name,description,price,availableQuantity,category,imageUrl
+                Basic tee,"Soft cotton, ""classic"" fit",150000,10,ao-thun,
+                Polo,"Two
+                lines",250000,5,Áo thun,
+                Hoodie,Warm,300000,0,%s,
+                """.formatted(shirts.getId());
+
+        ProductImportResponse response = productImportService.importProducts(stream(csv), ProductImportFormat.CSV);
+
+        assertThat(response.getImported()).isEqualTo(3);
+        assertThat(response.getFailed()).isZero();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), rows.capture());
+        assertThat(rows.getAllValues()).extracting(List::size).containsExactly(2, 1);
+
+        Object[] tee = rows.getAllValues().get(0).get(0);
+        UUID id = (UUID) tee[0];
+        assertThat(tee[5]).isEqualTo("Basic tee");
+        assertThat(tee[6]).isEqualTo("Soft cotton, \"classic\" fit");
+        assertThat(tee[8]).isEqualTo(new BigDecimal("150000"));
+        assertThat(tee[11]).isEqualTo("basic-tee-" + id);
+        assertThat(tee[12]).isEqualTo(shirts.getId());
+        assertThat(tee[3]).isEqualTo(userId);
+        assertThat(rows.getAllValues().get(0).get(1)[6]).isEqualTo("Two\nlines");
+
+        verify(eventPublisher, times(2)).publishEvent(any(ProductsImportedEvent.class));
+        verifyNoInteractions(uploadService);
+    }
+
+    @Test
+    public void importProducts_invalidRows_reportLineAndSkip() throws IOException {
+        String csv = """
+                name,description,price,availableQuantity,category
+                ,No name,100,1,ao-thun
+                Tee,Bad price,abc,1,ao-thun
+                Tee,Negative,-1,1,ao-thun
+                Tee,Unknown category,100,1,jeans
+                Tee,Too few fields
+                Tee,Valid,100,1,ao-thun
+                """;
+
+        ProductImportResponse response = productImportService.importProducts(stream(csv), ProductImportFormat.CSV);
+
+        assertThat(response.getImported()).isEqualTo(1);
+        assertThat(response.getFailed()).isEqualTo(5);
+        assertThat(response.getErrors()).extracting(ProductImportError::getLine).containsExactly(2L, 3L, 4L, 5L, 6L);
+        assertThat(response.getErrors().get(3).getMessage()).isEqualTo("Category not found: jeans");
+    }
+
+    @Test
+    public void importProducts_ndjson_uploadImagesAndReportFailedUploads() throws IOException {
+        String ndjson = """
+                {"name": "Tee", "description": "Cotton", "price": 100000, "availableQuantity": 3, "categoryId": "ao-thun", "imageUrl": "https://img.example.com/tee.jpg"}
+
+                {"name": "Polo", "description": "Pique", "price": 200000, "category": "ao-thun", "imageUrl": "https://img.example.com/missing.jpg"}
+                not json
+                """;
+        when(uploadService.uploadFromUrl(eq("https://img.example.com/tee.jpg"), eq("products"), anyString()))
+                .thenReturn("https://cdn.example.com/products/tee.jpg");
+        when(uploadService.uploadFromUrl(eq("https://img.example.com/missing.jpg"), eq("products"), anyString()))
+                .thenThrow(new IOException("404"));
+
+        ProductImportResponse response = productImportService.importProducts(stream(ndjson),
+                ProductImportFormat.NDJSON);
+
+        assertThat(response.getImported()).isEqualTo(1);
+        assertThat(response.getErrors()).extracting(ProductImportError::getLine).containsExactly(3L, 4L);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertThat(rows.getValue()).hasSize(1);
+        assertThat(rows.getValue().get(0)[10]).isEqualTo("https://cdn.example.com/products/tee.jpg");
+        assertThat(rows.getValue().get(0)[9]).isEqualTo(3);
+    }
+
+    @Test
+    public void importProducts_fractionalPrice_reportLine() throws IOException {
+        String csv = """
+                name,description,price,availableQuantity,category
+                Tee,Cotton,100000.5,1,ao-thun
+                Polo,Pique,200000.00,1,ao-thun
+                """;
+
+        ProductImportResponse response = productImportService.importProducts(stream(csv), ProductImportFormat.CSV);
+
+        assertThat(response.getImported()).isEqualTo(1);
+        assertThat(response.getErrors()).extracting(ProductImportError::getLine).containsExactly(2L);
+        assertThat(response.getErrors().get(0).getMessage()).isEqualTo("Price must be a whole number");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertThat(rows.getValue().get(0)[8]).isEqualTo(new BigDecimal("200000"));
+    }
+
+    @Test
+    public void importProducts_batchFails_retryRowByRowAndDeleteImagesOfFailedRows() throws IOException {
+        String csv = """
+                name,description,price,availableQuantity,category,imageUrl
+                Tee,Cotton,100000,1,ao-thun,https://img.example.com/tee.jpg
+                Polo,Pique,200000,1,ao-thun,https://img.example.com/polo.jpg
+                """;
+        when(uploadService.uploadFromUrl(anyString(), eq("products"), anyString()))
+                .thenReturn("https://cdn.example.com/products/image.jpg");
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> batch = invocation.getArgument(1);
+            if (batch.size() > 1 || "Polo".equals(batch.get(0)[5])) {
+                throw new DataIntegrityViolationException("duplicate key");
+            }
+            return new int[]{1};
+        });
+
+        ProductImportResponse response = productImportService.importProducts(stream(csv), ProductImportFormat.CSV);
+
+        assertThat(response.getImported()).isEqualTo(1);
+        assertThat(response.getErrors()).extracting(ProductImportError::getLine).containsExactly(3L);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), rows.capture());
+        UUID poloId = (UUID) rows.getAllValues().get(2).get(0)[0];
+        verify(uploadService).deleteFile("products/" + poloId);
+        verify(eventPublisher).publishEvent(any(ProductsImportedEvent.class));
+    }
+
+        private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.rookies.ecommerce.service;
+
+import com.rookies.ecommerce.dto.response.ProductResponse;
+import com.rookies.ecommerce.entity.Category;
+import com.rookies.ecommerce.entity.Product;
+import com.rookies.ecommerce.event.CatalogSnapshotChangedEvent;
+import com.rookies.ecommerce.mapper.ProductMapper;
+import com.rookies.ecommerce.service.catalog.CatalogSnapshot;
+import com.rookies.ecommerce.service.search.ProductSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductSearchIndexUnitTests {
+
+    ProductSearchIndex productSearchIndex;
+
+    Category category;
+
+    @BeforeEach
+    public void setup() {
+        productSearchIndex = new ProductSearchIndex();
+        category = Category.builder().id(UUID.randomUUID()).name("Thời trang").build();
+    }
+
+    private Product product(String name, String description, long price) {
+        return Product.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .description(description)
+                .price(BigDecimal.valueOf(price))
+                .category(category)
+                .build();
+    }
+
+    private static CatalogSnapshot.ProductEntry entry(Product product) {
+        return new CatalogSnapshot.ProductEntry(product.getId(),
+                Mappers.getMapper(ProductMapper.class).toProductDTO(product), product.getCategory().getId(),
+                product.getCreatedAt(), product.getDescription());
+    }
+
+    @Test
+    public void search_foldsDiacritics() {
+        productSearchIndex.index(entry(product("Áo thun cổ tròn", "Chất liệu cotton", 150000)));
+        productSearchIndex.index(entry(product("Quần jean", "Đồ mặc hằng ngày", 300000)));
+
+        Page<ProductResponse> result = productSearchIndex.search("ao thun", PageRequest.of(0, 10));
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals("Áo thun cổ tròn", result.getContent().get(0).getName());
+        assertEquals(1, productSearchIndex.search("do mac", PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    public void search_requiresEveryTerm() {
+        productSearchIndex.index(entry(product("Áo thun", "Màu trắng", 150000)));
+        productSearchIndex.index(entry(product("Áo sơ mi", "Màu xanh", 250000)));
+
+        assertEquals(2, productSearchIndex.search("áo", PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(1, productSearchIndex.search("ao xanh", PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(0, productSearchIndex.search("ao den", PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    public void search_ranksNameMatchesFirstUnlessSorted() {
+        Product inDescription = product("Quần short", "Phối cùng áo thun", 100000);
+        Product inName = product("Áo thun", "Màu trắng", 200000);
+        productSearchIndex.index(entry(inDescription));
+        productSearchIndex.index(entry(inName));
+
+        Page<ProductResponse> byRelevance = productSearchIndex.search("thun", PageRequest.of(0, 10));
+        assertEquals(inName.getId().toString(), byRelevance.getContent().get(0).getId());
+
+        Page<ProductResponse> byPrice = productSearchIndex.search("thun",
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "price")));
+        assertEquals(inDescription.getId().toString(), byPrice.getContent().get(0).getId());
+    }
+
+    @Test
+    public void onSnapshotChanged_renamedCategory_servedResponsesKeepTheirCategoryName() {
+        Product product = product("Áo thun", "Màu trắng", 150000);
+        productSearchIndex.index(entry(product));
+        ProductResponse served = productSearchIndex.search("thun", PageRequest.of(0, 10)).getContent().get(0);
+        Category renamed = Category.builder().id(category.getId()).name("Áo").build();
+        product.setCategory(renamed);
+        CatalogSnapshot snapshot = CatalogSnapshot.of(Instant.now(), Map.of(product.getId(), entry(product)),
+                List.of(renamed), Map.of());
+
+        productSearchIndex.onSnapshotChanged(new CatalogSnapshotChangedEvent(snapshot, false,
+                Set.of(product.getId()), Set.of(category.getId())));
+
+        assertEquals("Thời trang", served.getCategoryName());
+        assertEquals("Áo", productSearchIndex.search("thun", PageRequest.of(0, 10)).getContent().get(0)
+                .getCategoryName());
+    }
+
+    @Test
+    public void onSnapshotChanged_removedProduct_removedFromResults() {
+        Product product = product("Áo thun", "Màu trắng", 150000);
+        productSearchIndex.index(entry(product));
+        CatalogSnapshot snapshot = CatalogSnapshot.of(Instant.now(), Map.of(), List.of(category), Map.of());
+
+        productSearchIndex.onSnapshotChanged(new CatalogSnapshotChangedEvent(snapshot, false,
+                Set.of(product.getId()), Set.of()));
+
+        assertTrue(productSearchIndex.search("ao thun", PageRequest.of(0, 10)).isEmpty());
+    }
+
+}
@@ -1,35 +1,60 @@
 package com.rookies.ecommerce.service;
 
 import com.rookies.ecommerce.dto.request.CreateUpdateProductRequest;
+import com.rookies.ecommerce.dto.response.CursorPageResponse;
 import com.rookies.ecommerce.dto.response.ProductDetailResponse;
 import com.rookies.ecommerce.dto.response.ProductResponse;
 import com.rookies.ecommerce.entity.Category;
 import com.rookies.ecommerce.entity.Product;
 import com.rookies.ecommerce.entity.User;
+import com.rookies.ecommerce.enums.ImageStatus;
+import com.rookies.ecommerce.event.ProductChangedEvent;
 import com.rookies.ecommerce.exception.AppException;
 import com.rookies.ecommerce.exception.ErrorCode;
 import com.rookies.ecommerce.mapper.ProductMapper;
 import com.rookies.ecommerce.repository.ProductRepository;
+import com.rookies.ecommerce.repository.projection.ProductListingView;
+import com.rookies.ecommerce.service.catalog.CatalogSnapshotService;
 import com.rookies.ecommerce.service.category.CategoryService;
+import com.rookies.ecommerce.service.pagination.CountCache;
+import com.rookies.ecommerce.service.product.ProductDetailCache;
 import com.rookies.ecommerce.service.product.ProductServiceImpl;
-import com.rookies.ecommerce.service.upload.UploadService;
+import com.rookies.ecommerce.service.product.VersionedProductDetail;
+import com.rookies.ecommerce.service.upload.ImageUploadPipeline;
+import com.rookies.ecommerce.service.user.CurrentUser;
 import com.rookies.ecommerce.service.user.UserService;
+import com.rookies.ecommerce.utils.CursorUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -52,16 +77,30 @@ public class ProductServiceUnitTests {
     CategoryService categoryService;
 
     @Mock
-    UploadService uploadService;
+    ImageUploadPipeline imageUploadPipeline;
 
     @Mock
     ProductMapper productMapper;
 
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    ProductDetailCache productDetailCache = new ProductDetailCache(new SimpleMeterRegistry(), 100, 60_000);
+
+    @Mock
+    CatalogSnapshotService catalogSnapshotService;
+
+    @Spy
+    CountCache countCache = new CountCache(null, null, new SimpleMeterRegistry(), 60_000, 0);
+
     @InjectMocks
     ProductServiceImpl productService;
 
     User mockUser;
 
+    CurrentUser currentUser;
+
     CreateUpdateProductRequest productRequest;
 
     MultipartFile mockImageFile;
@@ -71,6 +110,7 @@ public class ProductServiceUnitTests {
         mockUser = User.builder()
                 .id(UUID.randomUUID())
                 .build();
+        currentUser = new CurrentUser(mockUser.getId(), null, null);
 
         productRequest = CreateUpdateProductRequest.builder()
                 .name("Test Product")
@@ -83,7 +123,7 @@ public class ProductServiceUnitTests {
     @Test
     public void createProduct_categoryNotFound_throwException() {
         // Given
-        when(userService.getUserFromToken()).thenReturn(mockUser);
+        when(userService.getCurrentUser()).thenReturn(currentUser);
         when(categoryService.getCategoryById(any(String.class)))
                 .thenThrow(new AppException(ErrorCode.CATEGORY_NOT_FOUND));
 
@@ -98,25 +138,24 @@ public class ProductServiceUnitTests {
     }
 
     @Test
-    public void createProduct_uploadFileFailed_throwException() throws IOException {
+    public void createProduct_spoolImageFailed_throwException() throws IOException {
         Category mockCategory = Category.builder()
                 .name("test category")
                 .description("Test description")
                 .createdBy(mockUser.getId())
                 .build();
 
-        Product product = Product.builder().id(UUID.randomUUID()).build();
+        Product product = Product.builder().build();
 
-        when(userService.getUserFromToken()).thenReturn(mockUser);
+        when(userService.getCurrentUser()).thenReturn(currentUser);
         when(categoryService.getCategoryById(any(String.class))).thenReturn(mockCategory);
         when(productMapper.toProduct(any())).thenReturn(product);
-        when(productRepository.save(any())).thenReturn(product);
-        when(uploadService.uploadFile(any(), any(), any())).thenThrow(new IOException());
+        doThrow(new IOException()).when(imageUploadPipeline).submit(any(), any());
 
 
         assertThrows(IOException.class, () -> productService.createProduct(productRequest, mockImageFile));
-        verify(productRepository, times(1)).save(any());
-        verify(uploadService, times(1)).uploadFile(any(), any(), any());
+        verify(imageUploadPipeline, times(1)).submit(product.getId(), mockImageFile);
+        verify(eventPublisher, never()).publishEvent(any(ProductChangedEvent.class));
     }
 
     @Test
@@ -131,30 +170,32 @@ public class ProductServiceUnitTests {
         productRequest.setCategoryId(mockCategory.getId().toString());
 
         Product mockProduct = Product.builder()
-                .id(UUID.randomUUID())
                 .name("Test Product")
                 .build();
 
-        when(userService.getUserFromToken()).thenReturn(mockUser);
+        when(userService.getCurrentUser()).thenReturn(currentUser);
         when(categoryService.getCategoryById(mockCategory.getId().toString())).thenReturn(mockCategory);
         when(productMapper.toProduct(any(CreateUpdateProductRequest.class))).thenReturn(mockProduct);
-        when(uploadService.uploadFile(any(), eq("products"), anyString())).thenReturn("http://image.url");
 
         // When
         productService.createProduct(productRequest, mockImageFile);
 
         // Then
-        verify(userService, times(1)).getUserFromToken();
+        verify(userService, times(1)).getCurrentUser();
         verify(categoryService, times(1)).getCategoryById(mockCategory.getId().toString());
         verify(productMapper, times(1)).toProduct(productRequest);
-        verify(uploadService, times(1)).uploadFile(mockImageFile, "products", mockProduct.getId().toString());
-        verify(productRepository, times(2)).save(mockProduct);
+        assertThat(mockProduct.getId().version()).isEqualTo(7);
+        assertThat(mockProduct.getSlug()).isEqualTo("test-product-" + mockProduct.getId());
+        assertThat(mockProduct.getImageStatus()).isEqualTo(ImageStatus.PENDING);
+        assertThat(mockProduct.getImageUrl()).isNull();
+        verify(productRepository, times(1)).save(mockProduct);
+        verify(imageUploadPipeline, times(1)).submit(mockProduct.getId(), mockImageFile);
     }
 
     @Test
     public void getProductById_productNotFound_throwException() {
         UUID id = UUID.randomUUID();
-        when(productRepository.findById(id)).thenReturn(Optional.empty());
+        when(productRepository.findWithCategoryById(id)).thenReturn(Optional.empty());
 
         AppException exception = assertThrows(AppException.class,
                 () -> productService.getProductById(id.toString()));
@@ -179,7 +220,7 @@ public class ProductServiceUnitTests {
                 .price(mockProduct.getPrice())
                 .build();
 
-        when(productRepository.findById(mockProduct.getId())).thenReturn(Optional.of(mockProduct));
+        when(productRepository.findWithCategoryById(mockProduct.getId())).thenReturn(Optional.of(mockProduct));
         when(productMapper.toProductDetail(mockProduct)).thenReturn(expectedResponse);
 
         ProductDetailResponse result = productService.getProductById(mockProduct.getId().toString());
@@ -190,10 +231,94 @@ public class ProductServiceUnitTests {
         assertEquals(mockProduct.getDescription(), result.getDescription());
         assertEquals(mockProduct.getPrice(), result.getPrice());
 
-        verify(productRepository, times(1)).findById(mockProduct.getId());
+        verify(productRepository, times(1)).findWithCategoryById(mockProduct.getId());
         verify(productMapper, times(1)).toProductDetail(mockProduct);
     }
 
+    @Test
+    public void getProductById_cachedAndEvictedOnChange() {
+        Product mockProduct = Product.builder()
+                .id(UUID.randomUUID())
+                .name("mock product")
+                .build();
+        ProductDetailResponse response = ProductDetailResponse.builder()
+                .id(mockProduct.getId().toString())
+                .name(mockProduct.getName())
+                .build();
+
+        when(productRepository.findWithCategoryById(mockProduct.getId())).thenReturn(Optional.of(mockProduct));
+        when(productMapper.toProductDetail(mockProduct)).thenReturn(response);
+
+        productService.getProductById(mockProduct.getId().toString());
+        productService.getProductById(mockProduct.getId().toString());
+        verify(productRepository, times(1)).findWithCategoryById(mockProduct.getId());
+
+        productDetailCache.onProductChanged(new ProductChangedEvent(mockProduct.getId()));
+        productService.getProductById(mockProduct.getId().toString());
+        verify(productRepository, times(2)).findWithCategoryById(mockProduct.getId());
+    }
+
+    @Test
+    public void getProductBySlug_evictedWhileLoading_notCached() {
+        Product mockProduct = Product.builder()
+                .id(UUID.randomUUID())
+                .name("mock product")
+                .slug("mock-product")
+                .build();
+        ProductDetailResponse response = ProductDetailResponse.builder()
+                .id(mockProduct.getId().toString())
+                .slug(mockProduct.getSlug())
+                .build();
+
+        when(productRepository.findBySlug(mockProduct.getSlug())).thenAnswer(invocation -> {
+            // the product is changed and evicted after the load read it
+            productDetailCache.onProductChanged(new ProductChangedEvent(mockProduct.getId()));
+            return Optional.of(mockProduct);
+        });
+        when(productMapper.toProductDetail(mockProduct)).thenReturn(response);
+
+        productService.getProductBySlug(mockProduct.getSlug());
+        productService.getProductBySlug(mockProduct.getSlug());
+
+        verify(productRepository, times(2)).findBySlug(mockProduct.getSlug());
+    }
+
+    @Test
+    public void getVersionedProductById_productNotFound_throwException() {
+        UUID id = UUID.randomUUID();
+        when(productRepository.findWithCategoryById(id)).thenReturn(Optional.empty());
+
+        AppException exception = assertThrows(AppException.class,
+                () -> productService.getVersionedProductById(id.toString()));
+
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.PRODUCT_NOT_FOUND);
+    }
+
+    @Test
+    public void getVersionedProductById_cached_returnVersionOfCachedDetailWithoutQuery() {
+        Category category = Category.builder()
+                .id(UUID.randomUUID())
+                .updatedAt(Instant.parse("2025-02-01T00:00:00Z"))
+                .build();
+        Product product = Product.builder()
+                .id(UUID.randomUUID())
+                .category(category)
+                .updatedAt(Instant.parse("2025-01-01T00:00:00Z"))
+                .build();
+        when(productRepository.findWithCategoryById(product.getId())).thenReturn(Optional.of(product));
+        when(productMapper.toProductDetail(product)).thenReturn(ProductDetailResponse.builder()
+                .id(product.getId().toString())
+                .build());
+
+        productService.getVersionedProductById(product.getId().toString());
+        VersionedProductDetail cached = productService.getVersionedProductById(product.getId().toString());
+
+        // the category changed last, so its update time is the version of the details
+        assertEquals(category.getUpdatedAt(), cached.version());
+        assertEquals(product.getId().toString(), cached.detail().getId());
+        verify(productRepository, times(1)).findWithCategoryById(product.getId());
+    }
+
     @Test
     public void getProductsByIsDeleted_validInput_returnPageProductResponse() {
         //GIVEN
@@ -203,48 +328,176 @@ public class ProductServiceUnitTests {
         String sortBy = "name";
         String sortDir = "asc";
 
-        Product product1 = Product.builder()
-                .name("Product 1")
-                .description("description 1")
-                .build();
-
-        Product product2 = Product.builder()
-                .name("Product 2")
-                .description("description 2")
-                .build();
+        ProductListingView product1 = listingView("Product 1", "description 1");
+        ProductListingView product2 = listingView("Product 2", "description 2");
 
         ProductResponse productResponse1 = ProductResponse.builder()
                 .name(product1.getName())
-                .description(product1.getDescription())
+                .description(product1.getShortDescription())
                 .build();
 
         ProductResponse productResponse2 = ProductResponse.builder()
                 .name(product2.getName())
-                .description(product2.getDescription())
+                .description(product2.getShortDescription())
                 .build();
 
 
-        Page<Product> productPage = new PageImpl<>(List.of(product1, product2));
+        Slice<ProductListingView> productSlice = new SliceImpl<>(List.of(product1, product2),
+                PageRequest.of(page, size), true);
 
-        when(productRepository.findAllByIsDeleted(eq(isDeleted), any(Pageable.class)))
-                .thenReturn(productPage);
-        when(productMapper.toProductDTO(any())).thenAnswer(invocation -> {
-            Product p = invocation.getArgument(0);
+        when(productRepository.findListingByIsDeleted(eq(isDeleted), any(Pageable.class)))
+                .thenReturn(productSlice);
+        when(productRepository.countByIsDeleted(isDeleted)).thenReturn(5L);
+        when(productMapper.toProductResponse(any())).thenAnswer(invocation -> {
+            ProductListingView p = invocation.getArgument(0);
             if (p.getName().equals("Product 1")) return productResponse1;
             if (p.getName().equals("Product 2")) return productResponse2;
             return null;
         });
 
         //WHEN
-        Page<ProductResponse> result = productService.getProductsByIsDeleted(isDeleted, page, size, sortBy, sortDir);
+        Slice<ProductResponse> result = productService.getProductsByIsDeleted(isDeleted, page, size, sortBy, sortDir, true);
 
         //THEN
         assertEquals(2, result.getContent().size());
         assertEquals(product1.getName(), result.getContent().get(0).getName());
         assertEquals(product2.getName(), result.getContent().get(1).getName());
+        assertEquals(5, ((Page<ProductResponse>) result).getTotalElements());
+
+        verify(productRepository, times(1)).findListingByIsDeleted(eq(isDeleted), any(Pageable.class));
+        verify(productMapper, times(2)).toProductResponse(any());
+    }
+
+    @Test
+    public void getProductsByIsDeleted_withoutTotal_skipCountQuery() {
+        Pageable pageable = PageRequest.of(0, 1);
+        when(productRepository.findListingByIsDeleted(eq(false), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(listingView("Product 1", "description")), pageable, true));
+
+        Slice<ProductResponse> result = productService.getProductsByIsDeleted(false, 0, 1, "name", "asc", false);
+
+        assertFalse(result instanceof Page);
+        assertTrue(result.hasNext());
+        assertEquals(1, result.getContent().size());
+        verify(productRepository, never()).countByIsDeleted(anyBoolean());
+    }
+
+    @Test
+    public void getProductsByIsDeleted_repeatedRequests_countOnce() {
+        Pageable pageable = PageRequest.of(0, 1);
+        when(productRepository.findListingByIsDeleted(eq(false), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(listingView("Product 1", "description")), pageable, true));
+        when(productRepository.countByIsDeleted(false)).thenReturn(3L);
+
+        productService.getProductsByIsDeleted(false, 0, 1, "name", "asc", true);
+        Slice<ProductResponse> result = productService.getProductsByIsDeleted(false, 0, 1, "name", "asc", true);
+
+        assertEquals(3, ((Page<ProductResponse>) result).getTotalElements());
+        verify(productRepository, times(1)).countByIsDeleted(false);
+
+        countCache.onProductChanged(new ProductChangedEvent(UUID.randomUUID()));
+        productService.getProductsByIsDeleted(false, 0, 1, "name", "asc", true);
+
+        verify(productRepository, times(2)).countByIsDeleted(false);
+    }
+
+    @Test
+    public void getProductsByCategoryIdAndIsDeleted_withoutTotal_singleListingQuery() {
+        Category category = Category.builder().id(UUID.randomUUID()).name("Category").build();
+        Pageable pageable = PageRequest.of(0, 2);
+        when(categoryService.getCategoryById(category.getId().toString())).thenReturn(category);
+        when(productRepository.findListingByCategoryAndIsDeleted(eq(category), eq(false), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(listingView("Product 1", "description")), pageable, false));
+
+        productService.getProductsByCategoryIdAndIsDeleted(category.getId().toString(), false, 0, 2,
+                "name", "asc", false);
+
+        verify(productRepository).findListingByCategoryAndIsDeleted(eq(category), eq(false), any(Pageable.class));
+        verifyNoMoreInteractions(productRepository);
+        verify(productMapper, never()).toProductDTO(any());
+    }
+
+    @Test
+    public void toProductResponse_listingView_usesShortDescription() {
+        String description = "word ".repeat(100);
+        Product product = Product.builder().description(description).build();
+        ProductListingView view = listingView("Product 1", product.getShortDescription());
+
+        ProductResponse response = Mappers.getMapper(ProductMapper.class).toProductResponse(view);
+
+        assertTrue(response.getDescription().length() <= Product.SHORT_DESCRIPTION_LENGTH + 1);
+        assertTrue(response.getDescription().endsWith("…"));
+        assertEquals(view.getId().toString(), response.getId());
+        assertEquals("Category", response.getCategoryName());
+    }
+
+    private ProductListingView listingView(String name, String shortDescription) {
+        Map<String, Object> columns = new HashMap<>();
+        columns.put("id", UUID.randomUUID());
+        columns.put("name", name);
+        columns.put("shortDescription", shortDescription);
+        columns.put("availableQuantity", 1);
+        columns.put("price", BigDecimal.TEN);
+        columns.put("deleted", false);
+        columns.put("categoryName", "Category");
+        return new SpelAwareProxyProjectionFactory().createProjection(ProductListingView.class, columns);
+    }
+
+    @Test
+    public void scrollActiveProducts_nextCursor_continuesAfterLastProduct() {
+        List<ProductListingView> views = List.of(listingView("Product 1", "Short 1"), listingView("Product 2", "Short 2"));
+        Window<ProductListingView> firstWindow = Window.from(views, index -> ScrollPosition.forward(
+                Map.of("name", views.get(index).getName(), "id", views.get(index).getId())), true);
+
+        when(productRepository.scrollListing(isNull(), eq(false), any(KeysetScrollPosition.class), any(Limit.class),
+                any(Sort.class)))
+                .thenReturn(firstWindow, Window.from(List.of(), ScrollPosition::offset));
+        ProductMapper mapper = Mappers.getMapper(ProductMapper.class);
+        when(productMapper.toProductResponse(any(ProductListingView.class)))
+                .thenAnswer(invocation -> mapper.toProductResponse(invocation.getArgument(0)));
+
+        CursorPageResponse<ProductResponse> firstPage = productService.scrollActiveProducts(null, null, 2, "name", "asc");
+        assertNotNull(firstPage.getNextCursor());
+        assertNull(firstPage.getPrevCursor());
+        assertThat(firstPage.getContent()).extracting(ProductResponse::getDescription)
+                .containsExactly("Short 1", "Short 2");
+
+        productService.scrollActiveProducts(null, firstPage.getNextCursor(), 2, "name", "asc");
+
+        verify(productRepository).scrollListing(isNull(), eq(false),
+                argThat((KeysetScrollPosition keyset) -> keyset.scrollsForward()
+                        && keyset.getKeys().equals(Map.of("name", "Product 2", "id", views.get(1).getId()))),
+                eq(Limit.of(2)), any(Sort.class));
+        verify(productMapper, never()).toProductDTO(any());
+    }
+
+    @Test
+    public void scrollActiveProducts_cursorForDifferentSort_throwException() {
+        String cursor = CursorUtil.encode(
+                ScrollPosition.forward(Map.of("name", "Product 1", "id", UUID.randomUUID())), Sort.Direction.ASC);
+
+        AppException exception = assertThrows(AppException.class,
+                () -> productService.scrollActiveProducts(null, cursor, 2, "price", "asc"));
+
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.INVALID_CURSOR);
+    }
+
+    @Test
+    public void scrollActiveProducts_cursorForOppositeDirection_throwException() {
+        String cursor = CursorUtil.encode(
+                ScrollPosition.forward(Map.of("name", "Product 1", "id", UUID.randomUUID())), Sort.Direction.ASC);
+
+        AppException exception = assertThrows(AppException.class,
+                () -> productService.scrollActiveProducts(null, cursor, 2, "name", "desc"));
+
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.INVALID_CURSOR);
+    }
+
+    @Test
+    public void suggest_negativeLimit_throwException() {
+        AppException exception = assertThrows(AppException.class, () -> productService.suggest("ao", -1));
 
-        verify(productRepository, times(1)).findAllByIsDeleted(eq(isDeleted), any(Pageable.class));
-        verify(productMapper, times(2)).toProductDTO(any());
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.INVALID_LIMIT);
     }
 
 }
@@ -0,0 +1,158 @@
+package com.rookies.ecommerce.service;
+
+import com.rookies.ecommerce.dto.response.SuggestionResponse;
+import com.rookies.ecommerce.entity.Category;
+import com.rookies.ecommerce.entity.Product;
+import com.rookies.ecommerce.event.CatalogSnapshotChangedEvent;
+import com.rookies.ecommerce.event.ReviewChangedEvent;
+import com.rookies.ecommerce.mapper.ProductMapper;
+import com.rookies.ecommerce.repository.ReviewRepository;
+import com.rookies.ecommerce.service.catalog.CatalogSnapshot;
+import com.rookies.ecommerce.service.search.ProductSuggestIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mapstruct.factory.Mappers;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductSuggestIndexUnitTests {
+
+    @Mock
+    ReviewRepository reviewRepository;
+
+    ProductSuggestIndex productSuggestIndex;
+
+    Category category;
+
+    @BeforeEach
+    public void setup() {
+        productSuggestIndex = new ProductSuggestIndex(reviewRepository, 3);
+        category = Category.builder().id(UUID.randomUUID()).name("Áo sơ mi").slug("ao-so-mi").build();
+    }
+
+    private Product product(String name) {
+        return Product.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .category(category)
+                .build();
+    }
+
+    private static CatalogSnapshot.ProductEntry entry(Product product) {
+        return new CatalogSnapshot.ProductEntry(product.getId(),
+                Mappers.getMapper(ProductMapper.class).toProductDTO(product), product.getCategory().getId(),
+                product.getCreatedAt(), product.getDescription());
+    }
+
+    private void index(Product product, long reviewCount) {
+        productSuggestIndex.index(entry(product), product.getCategory(), reviewCount);
+    }
+
+    private static List<String> names(List<SuggestionResponse> suggestions) {
+        return suggestions.stream().map(SuggestionResponse::getName).toList();
+    }
+
+    @Test
+    public void suggest_matchesWordPrefixesIgnoringDiacritics() {
+        index(product("Áo thun cổ tròn"), 0);
+        index(product("Quần jean"), 0);
+
+        assertEquals(List.of("Áo thun cổ tròn"), names(productSuggestIndex.suggest("thu", 10)));
+        assertEquals(List.of("Áo thun cổ tròn"), names(productSuggestIndex.suggest("co tr", 10)));
+        assertTrue(productSuggestIndex.suggest("jeans", 10).isEmpty());
+        assertTrue(productSuggestIndex.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    public void suggest_ranksByWeightAndCapsResults() {
+        index(product("Áo khoác"), 1);
+        index(product("Áo len"), 5);
+        index(product("Áo thun"), 3);
+        index(product("Áo polo"), 0);
+
+        List<SuggestionResponse> suggestions = productSuggestIndex.suggest("ao", 10);
+
+        // the category is weighted by its 4 active products
+        assertEquals(List.of("Áo len", "Áo sơ mi", "Áo thun"), names(suggestions));
+        assertEquals(ProductSuggestIndex.CATEGORY, suggestions.get(1).getType());
+        assertEquals(2, productSuggestIndex.suggest("ao", 2).size());
+    }
+
+    @Test
+    public void suggest_queryLongerThanIndexedTerms_matchesWholeName() {
+        index(product("Áo thun cotton cổ tròn tay ngắn màu trắng"), 0);
+        index(product("Áo thun cotton cổ tròn tay ngắn màu đen"), 0);
+
+        assertEquals(List.of("Áo thun cotton cổ tròn tay ngắn màu đen"),
+                names(productSuggestIndex.suggest("thun cotton co tron tay ngan mau d", 10)));
+    }
+
+    @Test
+    public void rebuild_weightsCategoryByLoadedProducts() {
+        when(reviewRepository.findAverageRatings()).thenReturn(List.of());
+        Product first = product("Áo thun");
+        Product second = product("Áo len");
+        CatalogSnapshot snapshot = CatalogSnapshot.of(Instant.now(),
+                Map.of(first.getId(), entry(first), second.getId(), entry(second)), List.of(category), Map.of());
+
+        productSuggestIndex.rebuild(snapshot);
+
+        List<SuggestionResponse> suggestions = productSuggestIndex.suggest("ao", 10);
+        assertEquals("Áo sơ mi", suggestions.get(0).getName());
+        assertEquals(ProductSuggestIndex.CATEGORY, suggestions.get(0).getType());
+    }
+
+    @Test
+    public void index_renamedOrRemovedProduct_updatesSuggestions() {
+        Product product = product("Áo thun");
+        index(product, 0);
+
+        product.setName("Áo polo");
+        index(product, 0);
+        assertTrue(productSuggestIndex.suggest("thun", 10).isEmpty());
+        assertEquals(List.of("Áo polo"), names(productSuggestIndex.suggest("polo", 10)));
+
+        productSuggestIndex.remove(product.getId());
+        assertTrue(productSuggestIndex.suggest("ao", 10).isEmpty());
+    }
+
+    @Test
+    public void onReviewChanged_reranksProduct() {
+        Product first = product("Áo thun trắng");
+        Product second = product("Áo thun đen");
+        index(first, 2);
+        index(second, 1);
+        when(reviewRepository.countByProductId(second.getId())).thenReturn(4L);
+
+        productSuggestIndex.onReviewChanged(new ReviewChangedEvent(second.getId()));
+
+        assertEquals(List.of("Áo thun đen", "Áo thun trắng"), names(productSuggestIndex.suggest("thun", 10)));
+    }
+
+    @Test
+    public void onSnapshotChanged_renamesCategory() {
+        Product product = product("Áo thun");
+        index(product, 0);
+        Category renamed = Category.builder().id(category.getId()).name("Thời trang").slug("thoi-trang").build();
+        CatalogSnapshot snapshot = CatalogSnapshot.of(Instant.now(), Map.of(product.getId(), entry(product)),
+                List.of(renamed), Map.of());
+
+        productSuggestIndex.onSnapshotChanged(new CatalogSnapshotChangedEvent(snapshot, false, Set.of(),
+                Set.of(category.getId())));
+
+        assertEquals(List.of("Thời trang"), names(productSuggestIndex.suggest("thoi", 10)));
+        assertEquals(List.of("Áo thun"), names(productSuggestIndex.suggest("ao", 10)));
+    }
+
+}
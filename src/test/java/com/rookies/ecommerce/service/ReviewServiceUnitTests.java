@@ -4,19 +4,21 @@ import com.rookies.ecommerce.dto.request.CreateReviewRequest;
 import com.rookies.ecommerce.entity.Customer;
 import com.rookies.ecommerce.entity.Product;
 import com.rookies.ecommerce.entity.Review;
-import com.rookies.ecommerce.entity.User;
 import com.rookies.ecommerce.exception.AppException;
 import com.rookies.ecommerce.exception.ErrorCode;
 import com.rookies.ecommerce.mapper.ReviewMapper;
+import com.rookies.ecommerce.repository.CustomerRepository;
 import com.rookies.ecommerce.repository.ReviewRepository;
 import com.rookies.ecommerce.service.product.ProductService;
 import com.rookies.ecommerce.service.review.ReviewServiceImpl;
+import com.rookies.ecommerce.service.user.CurrentUser;
 import com.rookies.ecommerce.service.user.UserService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.UUID;
@@ -41,6 +43,12 @@ public class ReviewServiceUnitTests {
     @Mock
     ProductService productService;
 
+    @Mock
+    CustomerRepository customerRepository;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     ReviewServiceImpl reviewService;
 
@@ -53,14 +61,14 @@ public class ReviewServiceUnitTests {
                 .comment("this is a test review")
                 .build();
 
-        User user = new User();
-        Customer customer = new Customer();
-        user.setCustomer(customer);
+        Customer customer = Customer.builder().id(UUID.randomUUID()).build();
+        CurrentUser currentUser = new CurrentUser(UUID.randomUUID(), customer.getId(), null);
 
         Product product = new Product();
 
         Review review = new Review();
-        when(userService.getUserFromToken()).thenReturn(user);
+        when(userService.getCurrentUser()).thenReturn(currentUser);
+        when(customerRepository.getReferenceById(customer.getId())).thenReturn(customer);
         when(productService.getProductEntityById(productId)).thenReturn(product);
         when(reviewMapper.toReview(request)).thenReturn(review);
         when(reviewRepository.save(any(Review.class)))
@@ -80,14 +88,14 @@ public class ReviewServiceUnitTests {
         request.setRating(5);
         request.setComment("Excellent product!");
 
-        User user = new User();
-        Customer customer = new Customer();
-        user.setCustomer(customer);
+        Customer customer = Customer.builder().id(UUID.randomUUID()).build();
+        CurrentUser currentUser = new CurrentUser(UUID.randomUUID(), customer.getId(), null);
 
         Product product = new Product();
         Review review = new Review();
 
-        when(userService.getUserFromToken()).thenReturn(user);
+        when(userService.getCurrentUser()).thenReturn(currentUser);
+        when(customerRepository.getReferenceById(customer.getId())).thenReturn(customer);
         when(productService.getProductEntityById(productId)).thenReturn(product);
         when(reviewMapper.toReview(request)).thenReturn(review);
 